@@ -37,13 +37,17 @@ java {
 }
 
 val enablePreview = "--enable-preview"
+// the Vector API is still an incubator module, which has to be added explicitly
+val addVectorModule = listOf("--add-modules", "jdk.incubator.vector")
 
 tasks.compileJava {
     options.compilerArgs.add(enablePreview)
+    options.compilerArgs.addAll(addVectorModule)
 }
 
 tasks.compileTestJava {
     options.compilerArgs.add(enablePreview)
+    options.compilerArgs.addAll(addVectorModule)
 }
 
 tasks.jmhRunBytecodeGenerator {
@@ -52,17 +56,219 @@ tasks.jmhRunBytecodeGenerator {
 
 tasks.compileJmhJava {
     options.compilerArgs.add(enablePreview)
+    options.compilerArgs.addAll(addVectorModule)
+}
+
+tasks.jmhCompileGeneratedClasses {
+    options.compilerArgs.add(enablePreview)
+    options.compilerArgs.addAll(addVectorModule)
 }
 
 tasks.jmh {
     jvmArgsAppend.add(enablePreview)
+    jvmArgsAppend.addAll(addVectorModule)
+    profilers.add("gc")
+
+    // e.g. -Pjmh.size=10,100 - an operation on a scaled input may take minutes, so each one is measured just once
+    providers.gradleProperty("jmh.size").orNull?.let { sizes ->
+        benchmarkParameters.put("size", objects.listProperty<String>().value(sizes.split(",")))
+        benchmarkMode.set(listOf("ss"))
+        warmupIterations.set(1)
+        iterations.set(3)
+    }
+    // e.g. -Pjmh.includes=Day0[1-5] - a regex of the benchmarks to run
+    providers.gradleProperty("jmh.includes").orNull?.let { includes.set(listOf(it)) }
+}
+
+val allocationBaselineFile: File = file("src/jmh/allocation-baseline.csv")
+val allocationResultsFile: Provider<RegularFile> = layout.buildDirectory.file("results/jmh/allocations.json")
+val allocationThresholdInPercent = providers.gradleProperty("allocationThreshold").map(String::toDouble).getOrElse(10.0)
+// absorbs the noise of benchmarks allocating (almost) nothing
+val allocationToleranceInBytes = 1024
+
+val jmhAllocations by tasks.registering(JavaExec::class) {
+    group = "benchmark"
+    description = "Measure the bytes per operation of all benchmarks (-PallocationBenchmarks=<regex> for some only)."
+
+    classpath = files(tasks.jmhJar)
+    mainClass.set("org.openjdk.jmh.Main")
+    javaLauncher.set(javaToolchains.launcherFor(java.toolchain))
+    // the forks inherit the JVM arguments
+    jvmArgs(listOf(enablePreview) + addVectorModule)
+    // bytes per operation hardly depend on the measured time, so short runs on the smallest inputs are sufficient -
+    // once the JIT compiler is done, as escape analysis removes allocations
+    args(
+        "-p", "size=1", "-prof", "gc", "-f", "1", "-wi", "3", "-w", "1s", "-i", "1", "-r", "1s",
+        "-rf", "json", "-rff", allocationResultsFile.get().asFile.absolutePath,
+        providers.gradleProperty("allocationBenchmarks").getOrElse(".*Benchmark.*")
+    )
+    outputs.file(allocationResultsFile)
+    outputs.upToDateWhen { false }
+}
+
+data class Allocations(val jdkVersion: String, val bytesPerOperation: Map<String, Double>) {
+
+    val jdkFeatureVersion: String get() = jdkVersion.substringBefore('.')
+}
+
+/**
+ * Bytes allocated per operation by benchmark & size, e.g. 'Day01Benchmark.part1,1' -> 123456.0
+ */
+fun allocationsOf(resultsFile: File): Allocations {
+    @Suppress("UNCHECKED_CAST")
+    val results = groovy.json.JsonSlurper().parse(resultsFile) as List<Map<String, Any?>>
+
+    val bytesPerOperation = results.associate { result ->
+        val benchmark = (result["benchmark"] as String).substringAfter("aoc2024.")
+        val size = (result["params"] as Map<*, *>?)?.get("size") ?: ""
+        val metrics = (result["secondaryMetrics"] as Map<*, *>).mapKeys { (it.key as String).removePrefix("·") }
+        val bytes = ((metrics["gc.alloc.rate.norm"] as Map<*, *>)["score"] as Number).toDouble()
+
+        "$benchmark,$size" to bytes
+    }
+    return Allocations(results.firstOrNull()?.get("jdkVersion") as String? ?: "", bytesPerOperation)
+}
+
+/**
+ * The baseline starts with a comment naming the JDK it was recorded on, as the JIT compiler decides which allocations
+ * remain.
+ */
+fun allocationBaseline(): Allocations {
+    val lines = allocationBaselineFile.readLines().filter(String::isNotBlank)
+    val jdkVersion = lines.first().substringAfter("JDK ")
+    val bytesPerOperation = lines
+        .drop(2)
+        .associate { it.substringBeforeLast(',') to it.substringAfterLast(',').toDouble() }
+
+    return Allocations(jdkVersion, bytesPerOperation)
+}
+
+tasks.register("checkAllocations") {
+    group = "verification"
+    description = "Fail if bytes per operation of any benchmark exceed the baseline by more than the threshold (in %)."
+    dependsOn(jmhAllocations)
+
+    doLast {
+        check(allocationBaselineFile.exists()) {
+            "There is no allocation baseline yet. Record one with 'updateAllocationBaseline' on the JDK of the toolchain first."
+        }
+        val baseline = allocationBaseline()
+        val current = allocationsOf(allocationResultsFile.get().asFile)
+        check(baseline.jdkFeatureVersion == current.jdkFeatureVersion) {
+            "The allocation baseline was recorded on JDK ${baseline.jdkVersion}, but the benchmarks ran on JDK " +
+                    "${current.jdkVersion}. Record a new baseline with 'updateAllocationBaseline' first."
+        }
+
+        (current.bytesPerOperation.keys - baseline.bytesPerOperation.keys)
+            .forEach { logger.warn("No allocation baseline for '$it'.") }
+
+        val regressions = current.bytesPerOperation
+            .filter { (benchmark, bytes) ->
+                baseline.bytesPerOperation[benchmark]
+                    ?.let { bytes > it * (1 + allocationThresholdInPercent / 100) + allocationToleranceInBytes }
+                    ?: false
+            }
+            .map { (benchmark, bytes) ->
+                "$benchmark: ${bytes.toLong()} bytes/op, baseline ${baseline.bytesPerOperation[benchmark]?.toLong()} bytes/op"
+            }
+        check(regressions.isEmpty()) {
+            "Allocations regressed by more than $allocationThresholdInPercent%:\n${regressions.joinToString("\n")}"
+        }
+    }
+}
+
+tasks.register("updateAllocationBaseline") {
+    group = "verification"
+    description = "Write the bytes per operation of the measured benchmarks to the allocation baseline."
+    dependsOn(jmhAllocations)
+
+    doLast {
+        val current = allocationsOf(allocationResultsFile.get().asFile)
+        // keeps the benchmarks not measured this time, unless the baseline stems from another JDK
+        val previous = allocationBaselineFile
+            .takeIf(File::exists)
+            ?.let { allocationBaseline() }
+            ?.takeIf { it.jdkFeatureVersion == current.jdkFeatureVersion }
+            ?.bytesPerOperation
+            ?: emptyMap()
+        val lines = (previous + current.bytesPerOperation)
+            .toSortedMap()
+            .map { (benchmark, bytes) -> "$benchmark,${bytes.toLong()}" }
+
+        allocationBaselineFile.writeText(
+            (listOf("# recorded on JDK ${current.jdkVersion}", "benchmark,size,bytesPerOperation") + lines)
+                .joinToString("\n", postfix = "\n")
+        )
+    }
 }
 
 tasks.test {
-    jvmArgs(enablePreview)
+    jvmArgs(listOf(enablePreview) + addVectorModule)
     useJUnitPlatform()
     finalizedBy(tasks.jacocoTestReport)
     maxParallelForks = Runtime.getRuntime().availableProcessors()
+    // so the tests run through the instrumented code paths, too
+    systemProperty("aoc.metrics", "true")
+}
+
+tasks.register<JavaExec>("runAllDays") {
+    group = "aoc"
+    description = "Run all puzzle days in one JVM and report wall time, CPU time & allocated bytes per part."
+
+    classpath = sourceSets.main.get().runtimeClasspath + files("src/test/resources")
+    mainClass.set("dev.hertlein.aoc2024.Runner")
+    jvmArgs(listOf(enablePreview) + addVectorModule)
+    args(
+        providers.gradleProperty("execution").getOrElse("fixed"),
+        providers.gradleProperty("inputs").getOrElse("challenge")
+    )
+    // e.g. -PresultCache=build/result-cache - results of unchanged inputs are taken from there on repeated runs
+    providers.gradleProperty("resultCache").orNull?.let { args(file(it)) }
+    // e.g. -Pmetrics=true - reports the metrics of the hot loops after all days
+    systemProperty("aoc.metrics", providers.gradleProperty("metrics").getOrElse("false"))
+}
+
+// class data sharing only archives classes from jar files, so the inputs are put into a jar, too
+val inputsJar = tasks.register<Jar>("inputsJar") {
+    archiveClassifier.set("inputs")
+    from("src/test/resources")
+}
+val startupClasspath = files(tasks.jar, configurations.runtimeClasspath, inputsJar)
+val startupArchive = layout.buildDirectory.file("startup/aoc.jsa")
+
+tasks.register<JavaExec>("trainStartupArchive") {
+    group = "aoc"
+    description = "Record a class data sharing archive by running all puzzle days on their sample inputs."
+
+    classpath = startupClasspath
+    mainClass.set("dev.hertlein.aoc2024.Runner")
+    jvmArgs(enablePreview, "-XX:ArchiveClassesAtExit=${startupArchive.get().asFile}")
+    args("sequential", "sample")
+    outputs.file(startupArchive)
+
+    doFirst { startupArchive.get().asFile.parentFile.mkdirs() }
+}
+
+tasks.register("startupLauncher") {
+    group = "aoc"
+    description = "Create a launcher solving a single part with the class data sharing archive, e.g. 'build/startup/solve 6 2'."
+
+    dependsOn("trainStartupArchive")
+    val launcher = layout.buildDirectory.file("startup/solve")
+    val javaLauncher = javaToolchains.launcherFor(java.toolchain)
+    outputs.file(launcher)
+
+    doLast {
+        // the archive is only used with the same classpath it was recorded with
+        launcher.get().asFile.writeText(
+            """
+            |#!/bin/sh
+            |exec "${javaLauncher.get().executablePath}" $enablePreview -XX:SharedArchiveFile="${startupArchive.get().asFile}" \
+            |  -cp "${startupClasspath.asPath}" dev.hertlein.aoc2024.Solver "${'$'}@"
+            |""".trimMargin()
+        )
+        launcher.get().asFile.setExecutable(true)
+    }
 }
 
 tasks.jacocoTestReport {
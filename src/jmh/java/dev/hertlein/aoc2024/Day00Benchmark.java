@@ -1,6 +1,7 @@
 package dev.hertlein.aoc2024;
 
 import dev.hertlein.aoc2024.lib.InputReader;
+import dev.hertlein.aoc2024.lib.ScaledInput;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 
@@ -17,22 +18,32 @@ import static dev.hertlein.aoc2024.Day.EMPTY;
 @Measurement(iterations = 3, timeUnit = TimeUnit.MILLISECONDS, time = 5000)
 public class Day00Benchmark {
 
+    @Param({"1"})
+    public int size;
+
     private Day00 day;
-    private List<String> challengeInput;
+    private List<String> input;
 
     @Setup
     public void setup() {
         day = new Day00();
-        challengeInput = InputReader.readChallengeInputFor(day);
+        input = generateInput(size);
     }
 
     @Benchmark
     public void part1(Blackhole bh) {
-        bh.consume(day.part1(challengeInput, EMPTY));
+        bh.consume(day.part1(input, EMPTY));
     }
 
     @Benchmark
     public void part2(Blackhole bh) {
-        bh.consume(day.part2(challengeInput, EMPTY));
+        bh.consume(day.part2(input, EMPTY));
+    }
+
+    /**
+     * Repeats the challenge input - replace it with a generator keeping the structure of the puzzle input.
+     */
+    static List<String> generateInput(int size) {
+        return ScaledInput.repeated(InputReader.readChallengeInputFor(new Day00()), size);
     }
 }
@@ -1,11 +1,12 @@
 package dev.hertlein.aoc2024;
 
-import dev.hertlein.aoc2024.lib.InputReader;
+import dev.hertlein.aoc2024.lib.ScaledInput;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 import static dev.hertlein.aoc2024.Day.EMPTY;
 
@@ -17,22 +18,36 @@ import static dev.hertlein.aoc2024.Day.EMPTY;
 @Measurement(iterations = 3, timeUnit = TimeUnit.MILLISECONDS, time = 5000)
 public class Day01Benchmark {
 
+    @Param({"1"})
+    public int size;
+
     private Day01 day;
-    private List<String> challengeInput;
+    private List<String> input;
 
     @Setup
     public void setup() {
         day = new Day01();
-        challengeInput = InputReader.readChallengeInputFor(day);
+        input = generateInput(size);
     }
 
     @Benchmark
     public void part1(Blackhole bh) {
-        bh.consume(day.part1(challengeInput, EMPTY));
+        bh.consume(day.part1(input, EMPTY));
     }
 
     @Benchmark
     public void part2(Blackhole bh) {
-        bh.consume(day.part2(challengeInput, EMPTY));
+        bh.consume(day.part2(input, EMPTY));
+    }
+
+    /**
+     * 1000 pairs of location IDs with 5 digits each per size.
+     */
+    static List<String> generateInput(int size) {
+        var random = ScaledInput.random();
+
+        return IntStream.range(0, 1000 * size)
+                .mapToObj(_ -> "%d   %d".formatted(random.nextInt(10_000, 100_000), random.nextInt(10_000, 100_000)))
+                .toList();
     }
 }
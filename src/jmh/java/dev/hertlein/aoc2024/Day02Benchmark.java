@@ -1,13 +1,17 @@
 package dev.hertlein.aoc2024;
 
-import dev.hertlein.aoc2024.lib.InputReader;
+import dev.hertlein.aoc2024.lib.ScaledInput;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 import static dev.hertlein.aoc2024.Day.EMPTY;
+import static java.util.stream.Collectors.joining;
 
 @BenchmarkMode(Mode.AverageTime)
 @OutputTimeUnit(TimeUnit.MILLISECONDS)
@@ -17,22 +21,62 @@ import static dev.hertlein.aoc2024.Day.EMPTY;
 @Measurement(iterations = 3, timeUnit = TimeUnit.MILLISECONDS, time = 5000)
 public class Day02Benchmark {
 
+    @Param({"1"})
+    public int size;
+
     private Day02 day;
-    private List<String> challengeInput;
+    private Day02 vectorDay;
+    private List<String> input;
 
     @Setup
     public void setup() {
-        day = new Day02();
-        challengeInput = InputReader.readChallengeInputFor(day);
+        day = new Day02(Day02.Mode.SCALAR);
+        vectorDay = new Day02(Day02.Mode.VECTOR);
+        input = generateInput(size);
     }
 
     @Benchmark
     public void part1(Blackhole bh) {
-        bh.consume(day.part1(challengeInput, EMPTY));
+        bh.consume(day.part1(input, EMPTY));
     }
 
     @Benchmark
     public void part2(Blackhole bh) {
-        bh.consume(day.part2(challengeInput, EMPTY));
+        bh.consume(day.part2(input, EMPTY));
+    }
+
+    @Benchmark
+    public void part1Vector(Blackhole bh) {
+        bh.consume(vectorDay.part1(input, EMPTY));
+    }
+
+    @Benchmark
+    public void part2Vector(Blackhole bh) {
+        bh.consume(vectorDay.part2(input, EMPTY));
+    }
+
+    /**
+     * 1000 reports with 5 to 8 levels per size. About half of them have one level spoiling an otherwise safe report.
+     */
+    static List<String> generateInput(int size) {
+        var random = ScaledInput.random();
+
+        return IntStream.range(0, 1000 * size)
+                .mapToObj(_ -> report(random))
+                .toList();
+    }
+
+    private static String report(Random random) {
+        var levels = new int[random.nextInt(5, 9)];
+        var direction = random.nextBoolean() ? 1 : -1;
+
+        levels[0] = random.nextInt(25, 76);
+        for (int i = 1; i < levels.length; i++) {
+            levels[i] = levels[i - 1] + direction * random.nextInt(1, 4);
+        }
+        if (random.nextBoolean()) {
+            levels[random.nextInt(levels.length)] = random.nextInt(1, 100);
+        }
+        return Arrays.stream(levels).mapToObj(String::valueOf).collect(joining(" "));
     }
 }
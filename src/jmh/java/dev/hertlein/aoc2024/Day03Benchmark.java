@@ -1,11 +1,13 @@
 package dev.hertlein.aoc2024;
 
-import dev.hertlein.aoc2024.lib.InputReader;
+import dev.hertlein.aoc2024.lib.ScaledInput;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 
 import java.util.List;
+import java.util.Random;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 import static dev.hertlein.aoc2024.Day.EMPTY;
 
@@ -17,22 +19,70 @@ import static dev.hertlein.aoc2024.Day.EMPTY;
 @Measurement(iterations = 3, timeUnit = TimeUnit.MILLISECONDS, time = 5000)
 public class Day03Benchmark {
 
+    @Param({"1"})
+    public int size;
+
     private Day03 day;
-    private List<String> challengeInput;
+    private Day03 regexDay;
+    private List<String> input;
 
     @Setup
     public void setup() {
-        day = new Day03();
-        challengeInput = InputReader.readChallengeInputFor(day);
+        day = new Day03(Day03.Mode.SCANNER);
+        regexDay = new Day03(Day03.Mode.REGEX);
+        input = generateInput(size);
     }
 
     @Benchmark
     public void part1(Blackhole bh) {
-        bh.consume(day.part1(challengeInput, EMPTY));
+        bh.consume(day.part1(input, EMPTY));
     }
 
     @Benchmark
     public void part2(Blackhole bh) {
-        bh.consume(day.part2(challengeInput, EMPTY));
+        bh.consume(day.part2(input, EMPTY));
+    }
+
+    @Benchmark
+    public void part1Regex(Blackhole bh) {
+        bh.consume(regexDay.part1(input, EMPTY));
+    }
+
+    @Benchmark
+    public void part2Regex(Blackhole bh) {
+        bh.consume(regexDay.part2(input, EMPTY));
+    }
+
+    private static final List<String> NOISE = List.of(
+            "what()", "select()", "from()", "when()", "who()", "where()", "mul", "do", "don't",
+            "#", "!", "@", "^", "&", "*", "[", "]", "{", "}", "<", ">", "'", ",", " ", "?", "+", "-", "%", "$", ":", ";", "~");
+
+    /**
+     * 6 lines of corrupted memory with about 3000 characters each per size, mixing valid and corrupted instructions.
+     */
+    static List<String> generateInput(int size) {
+        var random = ScaledInput.random();
+
+        return IntStream.range(0, 6 * size)
+                .mapToObj(_ -> corruptedMemory(random))
+                .toList();
+    }
+
+    private static String corruptedMemory(Random random) {
+        var memory = new StringBuilder();
+
+        while (memory.length() < 3000) {
+            var x = random.nextInt(1, 1000);
+            var y = random.nextInt(1, 1000);
+
+            memory.append(switch (random.nextInt(12)) {
+                case 0, 1, 2 -> "mul(%d,%d)".formatted(x, y);
+                case 3 -> "mul(%d,%d]".formatted(x, y);
+                case 4 -> "mul( %d,%d)".formatted(x, y);
+                case 5 -> random.nextInt(3) == 0 ? "don't()" : "do()";
+                default -> NOISE.get(random.nextInt(NOISE.size()));
+            });
+        }
+        return memory.toString();
     }
 }
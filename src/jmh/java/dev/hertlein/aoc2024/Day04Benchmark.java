@@ -1,11 +1,14 @@
 package dev.hertlein.aoc2024;
 
-import dev.hertlein.aoc2024.lib.InputReader;
+import dev.hertlein.aoc2024.lib.GridSearch;
+import dev.hertlein.aoc2024.lib.ScaledInput;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 
 import java.util.List;
+import java.util.Random;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 import static dev.hertlein.aoc2024.Day.EMPTY;
 
@@ -17,22 +20,92 @@ import static dev.hertlein.aoc2024.Day.EMPTY;
 @Measurement(iterations = 3, timeUnit = TimeUnit.MILLISECONDS, time = 5000)
 public class Day04Benchmark {
 
+    @Param({"1"})
+    public int size;
+
     private Day04 day;
-    private List<String> challengeInput;
+    private Day04 wordsDay;
+    private Day04 gridSearchDay;
+    private GridSearch manyWordsSearch;
+    private List<String> input;
 
     @Setup
     public void setup() {
-        day = new Day04();
-        challengeInput = InputReader.readChallengeInputFor(day);
+        day = new Day04(Day04.Mode.COUNTING);
+        wordsDay = new Day04(Day04.Mode.WORDS);
+        gridSearchDay = new Day04(Day04.Mode.GRID_SEARCH);
+        manyWordsSearch = GridSearch.of(manyWords(), List.of());
+        input = generateInput(size);
     }
 
     @Benchmark
     public void part1(Blackhole bh) {
-        bh.consume(day.part1(challengeInput, EMPTY));
+        bh.consume(day.part1(input, EMPTY));
     }
 
     @Benchmark
     public void part2(Blackhole bh) {
-        bh.consume(day.part2(challengeInput, EMPTY));
+        bh.consume(day.part2(input, EMPTY));
+    }
+
+    @Benchmark
+    public void part1Words(Blackhole bh) {
+        bh.consume(wordsDay.part1(input, EMPTY));
+    }
+
+    @Benchmark
+    public void part2Words(Blackhole bh) {
+        bh.consume(wordsDay.part2(input, EMPTY));
+    }
+
+    @Benchmark
+    public void part1GridSearch(Blackhole bh) {
+        bh.consume(gridSearchDay.part1(input, EMPTY));
+    }
+
+    @Benchmark
+    public void part2GridSearch(Blackhole bh) {
+        bh.consume(gridSearchDay.part2(input, EMPTY));
+    }
+
+    /**
+     * Searching for many words at once, in the same single sweep as for one word.
+     */
+    @Benchmark
+    public void manyWords(Blackhole bh) {
+        var sweep = manyWordsSearch.sweep();
+        input.forEach(sweep::add);
+        bh.consume(sweep.wordCounts());
+    }
+
+    /**
+     * 500 random words of 4 to 8 of the letters of the word search.
+     */
+    private static List<String> manyWords() {
+        var random = new Random(4);
+
+        return IntStream.range(0, 500)
+                .mapToObj(_ -> random.ints(random.nextInt(4, 9), 0, LETTERS.length())
+                        .collect(StringBuilder::new, (word, i) -> word.append(LETTERS.charAt(i)), StringBuilder::append)
+                        .toString())
+                .toList();
+    }
+
+    private static final String LETTERS = "XMAS";
+
+    /**
+     * A square word search of random letters with 140 x 140 letters per size.
+     */
+    static List<String> generateInput(int size) {
+        var random = ScaledInput.random();
+        var side = ScaledInput.side(140, size);
+        var wordSearch = new char[side][side];
+
+        for (var row : wordSearch) {
+            for (int x = 0; x < side; x++) {
+                row[x] = LETTERS.charAt(random.nextInt(LETTERS.length()));
+            }
+        }
+        return ScaledInput.linesOf(wordSearch);
     }
 }
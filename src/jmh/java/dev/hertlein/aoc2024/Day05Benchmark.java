@@ -1,13 +1,18 @@
 package dev.hertlein.aoc2024;
 
-import dev.hertlein.aoc2024.lib.InputReader;
+import dev.hertlein.aoc2024.lib.ScaledInput;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 import static dev.hertlein.aoc2024.Day.EMPTY;
+import static java.util.stream.Collectors.joining;
 
 @BenchmarkMode(Mode.AverageTime)
 @OutputTimeUnit(TimeUnit.MILLISECONDS)
@@ -17,22 +22,83 @@ import static dev.hertlein.aoc2024.Day.EMPTY;
 @Measurement(iterations = 3, timeUnit = TimeUnit.MILLISECONDS, time = 5000)
 public class Day05Benchmark {
 
+    @Param({"1"})
+    public int size;
+
     private Day05 day;
-    private List<String> challengeInput;
+    private Day05 recordsDay;
+    private Day05 parallelDay;
+    private List<String> input;
 
     @Setup
     public void setup() {
-        day = new Day05();
-        challengeInput = InputReader.readChallengeInputFor(day);
+        day = new Day05(Day05.Mode.BITSET);
+        recordsDay = new Day05(Day05.Mode.RECORDS);
+        parallelDay = new Day05(Day05.Mode.PARALLEL);
+        input = generateInput(size);
     }
 
     @Benchmark
     public void part1(Blackhole bh) {
-        bh.consume(day.part1(challengeInput, EMPTY));
+        bh.consume(day.part1(input, EMPTY));
     }
 
     @Benchmark
     public void part2(Blackhole bh) {
-        bh.consume(day.part2(challengeInput, EMPTY));
+        bh.consume(day.part2(input, EMPTY));
+    }
+
+    @Benchmark
+    public void part1Records(Blackhole bh) {
+        bh.consume(recordsDay.part1(input, EMPTY));
+    }
+
+    @Benchmark
+    public void part2Records(Blackhole bh) {
+        bh.consume(recordsDay.part2(input, EMPTY));
+    }
+
+    @Benchmark
+    public void part1Parallel(Blackhole bh) {
+        bh.consume(parallelDay.part1(input, EMPTY));
+    }
+
+    @Benchmark
+    public void part2Parallel(Blackhole bh) {
+        bh.consume(parallelDay.part2(input, EMPTY));
+    }
+
+    private static final int NUMBER_OF_PAGES = 49;
+
+    /**
+     * Rules for all pairs of 49 pages - like the challenge input - and 200 updates per size, about half of them ordered.
+     * The rules are not scaled, as they already cover every pair of pages.
+     */
+    static List<String> generateInput(int size) {
+        var random = ScaledInput.random();
+        var pages = new ArrayList<>(IntStream.range(10, 100).boxed().toList());
+        Collections.shuffle(pages, random);
+        var orderedPages = List.copyOf(pages.subList(0, NUMBER_OF_PAGES));
+
+        var rules = new ArrayList<String>();
+        for (int before = 0; before < NUMBER_OF_PAGES; before++) {
+            for (int after = before + 1; after < NUMBER_OF_PAGES; after++) {
+                rules.add(orderedPages.get(before) + "|" + orderedPages.get(after));
+            }
+        }
+        Collections.shuffle(rules, random);
+
+        var input = new ArrayList<>(rules);
+        input.add("");
+        for (int i = 0; i < 200 * size; i++) {
+            var update = new ArrayList<>(orderedPages);
+            Collections.shuffle(update, random);
+            update = new ArrayList<>(update.subList(0, 5 + 2 * random.nextInt(10)));
+            if (random.nextBoolean()) {
+                update.sort(Comparator.comparingInt(orderedPages::indexOf));
+            }
+            input.add(update.stream().map(String::valueOf).collect(joining(",")));
+        }
+        return input;
     }
 }
@@ -1,10 +1,13 @@
 package dev.hertlein.aoc2024;
 
-import dev.hertlein.aoc2024.lib.InputReader;
+import dev.hertlein.aoc2024.lib.ScaledInput;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.TimeUnit;
 
 import static dev.hertlein.aoc2024.Day.EMPTY;
@@ -17,22 +20,117 @@ import static dev.hertlein.aoc2024.Day.EMPTY;
 @Measurement(iterations = 3, timeUnit = TimeUnit.MILLISECONDS, time = 5000)
 public class Day06Benchmark {
 
+    @Param({"1"})
+    public int size;
+
     private Day06 day;
-    private List<String> challengeInput;
+    private Day06 stepsDay;
+    private List<String> input;
 
     @Setup
     public void setup() {
-        day = new Day06();
-        challengeInput = InputReader.readChallengeInputFor(day);
+        day = new Day06(Day06.Mode.JUMP_TABLE);
+        stepsDay = new Day06(Day06.Mode.STEPS);
+        input = generateInput(size);
     }
 
     @Benchmark
     public void part1(Blackhole bh) {
-        bh.consume(day.part1(challengeInput, EMPTY));
+        bh.consume(day.part1(input, EMPTY));
     }
 
     @Benchmark
     public void part2(Blackhole bh) {
-        bh.consume(day.part2(challengeInput, EMPTY));
+        bh.consume(day.part2(input, EMPTY));
+    }
+
+    /**
+     * The pools of this state have the given number of workers, so the speedup of part 2 across cores is measured by
+     * {@link #part2InPool(Pool, Blackhole)}. The other benchmarks run in the common pool.
+     */
+    @State(Scope.Benchmark)
+    public static class Pool {
+
+        @Param({"1", "2", "4", "8"})
+        public int cores;
+
+        private ForkJoinPool pool;
+
+        @Setup
+        public void setup() {
+            pool = new ForkJoinPool(cores);
+        }
+
+        @TearDown
+        public void tearDown() {
+            pool.close();
+        }
+    }
+
+    @Benchmark
+    public void part2InPool(Pool pool, Blackhole bh) {
+        bh.consume(pool.pool.invoke(ForkJoinTask.adapt(() -> day.part2(input, EMPTY))));
+    }
+
+    @Benchmark
+    public void part1Steps(Blackhole bh) {
+        bh.consume(stepsDay.part1(input, EMPTY));
+    }
+
+    @Benchmark
+    public void part2Steps(Blackhole bh) {
+        bh.consume(stepsDay.part2(input, EMPTY));
+    }
+
+    private static final char OBSTRUCTION = '#';
+    private static final int[] DX = {0, 1, 0, -1};
+    private static final int[] DY = {-1, 0, 1, 0};
+
+    /**
+     * A lab with 130 x 130 positions per size, with the guard starting in the middle. Random labs let the guard either
+     * leave or get stuck after a few steps, so the patrol path is laid out first: an outward spiral with random distances
+     * between its rings, with an obstruction wherever the guard should turn. Then obstructions are added to about 3% of
+     * the positions off the patrol path, which don't change it.
+     */
+    static List<String> generateInput(int size) {
+        var random = ScaledInput.random();
+        var side = ScaledInput.side(130, size);
+        var lab = ScaledInput.filledGrid(side, side, '.');
+        var isOnPath = new boolean[side][side];
+
+        var x = side / 2;
+        var y = side / 2;
+        // lengths of the last vertical and horizontal part of the spiral - each part is longer than the parallel one before
+        var lengths = new int[]{0, 0};
+        for (int part = 0; ; part++) {
+            var direction = part % 4;
+            lengths[part % 2] += random.nextInt(2, 7);
+
+            for (int step = 0; step < lengths[part % 2]; step++) {
+                isOnPath[y][x] = true;
+                x += DX[direction];
+                y += DY[direction];
+                if (x < 0 || y < 0 || x >= side || y >= side) {
+                    addObstructionsOffPatrolPath(lab, isOnPath, random);
+                    lab[side / 2][side / 2] = '^';
+                    return ScaledInput.linesOf(lab);
+                }
+            }
+            var frontX = x + DX[direction];
+            var frontY = y + DY[direction];
+            if (frontX >= 0 && frontY >= 0 && frontX < side && frontY < side) {
+                lab[frontY][frontX] = OBSTRUCTION;
+            }
+        }
+    }
+
+    private static void addObstructionsOffPatrolPath(char[][] lab, boolean[][] isOnPath, Random random) {
+        for (int y = 0; y < lab.length; y++) {
+            for (int x = 0; x < lab[y].length; x++) {
+                if (!isOnPath[y][x] && lab[y][x] != OBSTRUCTION && random.nextInt(100) < 3) {
+                    lab[y][x] = OBSTRUCTION;
+                }
+            }
+        }
     }
 }
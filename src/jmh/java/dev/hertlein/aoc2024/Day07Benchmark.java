@@ -1,13 +1,17 @@
 package dev.hertlein.aoc2024;
 
-import dev.hertlein.aoc2024.lib.InputReader;
+import dev.hertlein.aoc2024.lib.ScaledInput;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 import static dev.hertlein.aoc2024.Day.EMPTY;
+import static java.util.stream.Collectors.joining;
 
 @BenchmarkMode(Mode.AverageTime)
 @OutputTimeUnit(TimeUnit.MILLISECONDS)
@@ -17,22 +21,97 @@ import static dev.hertlein.aoc2024.Day.EMPTY;
 @Measurement(iterations = 3, timeUnit = TimeUnit.MILLISECONDS, time = 5000)
 public class Day07Benchmark {
 
+    @Param({"1"})
+    public int size;
+
     private Day07 day;
-    private List<String> challengeInput;
+    private Day07 forwardDay;
+    private Day07 parallelDay;
+    private List<String> input;
 
     @Setup
     public void setup() {
-        day = new Day07();
-        challengeInput = InputReader.readChallengeInputFor(day);
+        day = new Day07(Day07.Mode.REVERSE);
+        forwardDay = new Day07(Day07.Mode.FORWARD);
+        parallelDay = new Day07(Day07.Mode.PARALLEL);
+        input = generateInput(size);
     }
 
     @Benchmark
     public void part1(Blackhole bh) {
-        bh.consume(day.part1(challengeInput, EMPTY));
+        bh.consume(day.part1(input, EMPTY));
     }
 
     @Benchmark
     public void part2(Blackhole bh) {
-        bh.consume(day.part2(challengeInput, EMPTY));
+        bh.consume(day.part2(input, EMPTY));
+    }
+
+    @Benchmark
+    public void part1Forward(Blackhole bh) {
+        bh.consume(forwardDay.part1(input, EMPTY));
+    }
+
+    @Benchmark
+    public void part2Forward(Blackhole bh) {
+        bh.consume(forwardDay.part2(input, EMPTY));
+    }
+
+    @Benchmark
+    public void part1Parallel(Blackhole bh) {
+        bh.consume(parallelDay.part1(input, EMPTY));
+    }
+
+    @Benchmark
+    public void part2Parallel(Blackhole bh) {
+        bh.consume(parallelDay.part2(input, EMPTY));
+    }
+
+    /**
+     * 850 equations with 3 to 12 operands per size. About a quarter of them can't be solved with any operators.
+     */
+    static List<String> generateInput(int size) {
+        var random = ScaledInput.random();
+
+        return IntStream.range(0, 850 * size)
+                .mapToObj(_ -> equation(random))
+                .toList();
+    }
+
+    private static String equation(Random random) {
+        var operands = operands(random);
+        var testValue = testValueOf(operands, random);
+
+        if (random.nextInt(4) == 0) {
+            testValue++;
+        }
+        return testValue + ": " + Arrays.stream(operands).mapToObj(String::valueOf).collect(joining(" "));
+    }
+
+    /**
+     * Operands with at most 15 digits in total - like the challenge input - so that the sum of the test values of even
+     * the biggest size fits into a long.
+     */
+    private static int[] operands(Random random) {
+        while (true) {
+            var operands = random.ints(random.nextInt(3, 13), 1, random.nextBoolean() ? 10 : 1000).toArray();
+            var digits = Arrays.stream(operands).map(operand -> String.valueOf(operand).length()).sum();
+            if (digits <= 15) {
+                return operands;
+            }
+        }
+    }
+
+    private static long testValueOf(int[] operands, Random random) {
+        long testValue = operands[0];
+
+        for (int i = 1; i < operands.length; i++) {
+            testValue = switch (random.nextInt(3)) {
+                case 0 -> testValue + operands[i];
+                case 1 -> testValue * operands[i];
+                default -> Long.parseLong(testValue + "" + operands[i]);
+            };
+        }
+        return testValue;
     }
 }
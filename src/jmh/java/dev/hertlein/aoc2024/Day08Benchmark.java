@@ -1,6 +1,6 @@
 package dev.hertlein.aoc2024;
 
-import dev.hertlein.aoc2024.lib.InputReader;
+import dev.hertlein.aoc2024.lib.ScaledInput;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 
@@ -17,22 +17,42 @@ import static dev.hertlein.aoc2024.Day.EMPTY;
 @Measurement(iterations = 3, timeUnit = TimeUnit.MILLISECONDS, time = 5000)
 public class Day08Benchmark {
 
+    @Param({"1"})
+    public int size;
+
     private Day08 day;
-    private List<String> challengeInput;
+    private List<String> input;
 
     @Setup
     public void setup() {
         day = new Day08();
-        challengeInput = InputReader.readChallengeInputFor(day);
+        input = generateInput(size);
     }
 
     @Benchmark
     public void part1(Blackhole bh) {
-        bh.consume(day.part1(challengeInput, EMPTY));
+        bh.consume(day.part1(input, EMPTY));
     }
 
     @Benchmark
     public void part2(Blackhole bh) {
-        bh.consume(day.part2(challengeInput, EMPTY));
+        bh.consume(day.part2(input, EMPTY));
+    }
+
+    private static final String FREQUENCIES = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    /**
+     * A map with 50 x 50 positions and 200 antennas per size. The number of frequencies is limited by the characters
+     * available, so there are more antennas per frequency for bigger sizes.
+     */
+    static List<String> generateInput(int size) {
+        var random = ScaledInput.random();
+        var side = ScaledInput.side(50, size);
+        var map = ScaledInput.filledGrid(side, side, '.');
+
+        for (int antenna = 0; antenna < 200 * size; antenna++) {
+            map[random.nextInt(side)][random.nextInt(side)] = FREQUENCIES.charAt(random.nextInt(FREQUENCIES.length()));
+        }
+        return ScaledInput.linesOf(map);
     }
 }
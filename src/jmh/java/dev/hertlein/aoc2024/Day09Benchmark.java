@@ -1,6 +1,6 @@
 package dev.hertlein.aoc2024;
 
-import dev.hertlein.aoc2024.lib.InputReader;
+import dev.hertlein.aoc2024.lib.ScaledInput;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 
@@ -17,22 +17,38 @@ import static dev.hertlein.aoc2024.Day.EMPTY;
 @Measurement(iterations = 3, timeUnit = TimeUnit.MILLISECONDS, time = 5000)
 public class Day09Benchmark {
 
+    @Param({"1"})
+    public int size;
+
     private Day09 day;
-    private List<String> challengeInput;
+    private List<String> input;
 
     @Setup
     public void setup() {
         day = new Day09();
-        challengeInput = InputReader.readChallengeInputFor(day);
+        input = generateInput(size);
     }
 
     @Benchmark
     public void part1(Blackhole bh) {
-        bh.consume(day.part1(challengeInput, EMPTY));
+        bh.consume(day.part1(input, EMPTY));
     }
 
     @Benchmark
     public void part2(Blackhole bh) {
-        bh.consume(day.part2(challengeInput, EMPTY));
+        bh.consume(day.part2(input, EMPTY));
+    }
+
+    /**
+     * A disk map with 20000 digits per size, alternating between files of 1 to 9 blocks and free spaces of 0 to 9 blocks.
+     */
+    static List<String> generateInput(int size) {
+        var random = ScaledInput.random();
+        var diskMap = new StringBuilder();
+
+        for (int i = 0; i < 20_000 * size - 1; i++) {
+            diskMap.append(i % 2 == 0 ? random.nextInt(1, 10) : random.nextInt(10));
+        }
+        return List.of(diskMap.toString());
     }
 }
@@ -1,6 +1,6 @@
 package dev.hertlein.aoc2024;
 
-import dev.hertlein.aoc2024.lib.InputReader;
+import dev.hertlein.aoc2024.lib.ScaledInput;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 
@@ -17,22 +17,45 @@ import static dev.hertlein.aoc2024.Day.EMPTY;
 @Measurement(iterations = 3, timeUnit = TimeUnit.MILLISECONDS, time = 5000)
 public class Day10Benchmark {
 
+    @Param({"1"})
+    public int size;
+
     private Day10 day;
-    private List<String> challengeInput;
+    private List<String> input;
 
     @Setup
     public void setup() {
         day = new Day10();
-        challengeInput = InputReader.readChallengeInputFor(day);
+        input = generateInput(size);
     }
 
     @Benchmark
     public void part1(Blackhole bh) {
-        bh.consume(day.part1(challengeInput, EMPTY));
+        bh.consume(day.part1(input, EMPTY));
     }
 
     @Benchmark
     public void part2(Blackhole bh) {
-        bh.consume(day.part2(challengeInput, EMPTY));
+        bh.consume(day.part2(input, EMPTY));
+    }
+
+    private static final int MAXIMUM_HEIGHT = 9;
+
+    /**
+     * A map with 50 x 50 positions per size. The height decreases by 1 with every step away from randomly placed peaks,
+     * so there are hiking trails from every trailhead.
+     */
+    static List<String> generateInput(int size) {
+        var random = ScaledInput.random();
+        var side = ScaledInput.side(50, size);
+        var peaks = ScaledInput.regions(side, side, side * side / 50, random);
+        var map = new char[side][side];
+
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                map[y][x] = (char) ('0' + MAXIMUM_HEIGHT - peaks.distance(x, y) % (MAXIMUM_HEIGHT + 1));
+            }
+        }
+        return ScaledInput.linesOf(map);
     }
 }
@@ -1,6 +1,6 @@
 package dev.hertlein.aoc2024;
 
-import dev.hertlein.aoc2024.lib.InputReader;
+import dev.hertlein.aoc2024.lib.ScaledInput;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 
@@ -17,22 +17,43 @@ import static dev.hertlein.aoc2024.Day.EMPTY;
 @Measurement(iterations = 3, timeUnit = TimeUnit.MILLISECONDS, time = 5000)
 public class Day12Benchmark {
 
+    @Param({"1"})
+    public int size;
+
     private Day12 day;
-    private List<String> challengeInput;
+    private List<String> input;
 
     @Setup
     public void setup() {
         day = new Day12();
-        challengeInput = InputReader.readChallengeInputFor(day);
+        input = generateInput(size);
     }
 
     @Benchmark
     public void part1(Blackhole bh) {
-        bh.consume(day.part1(challengeInput, EMPTY));
+        bh.consume(day.part1(input, EMPTY));
     }
 
     @Benchmark
     public void part2(Blackhole bh) {
-        bh.consume(day.part2(challengeInput, EMPTY));
+        bh.consume(day.part2(input, EMPTY));
+    }
+
+    /**
+     * A garden with 140 x 140 plots per size, split into regions grown from randomly placed plants.
+     */
+    static List<String> generateInput(int size) {
+        var random = ScaledInput.random();
+        var side = ScaledInput.side(140, size);
+        var regions = ScaledInput.regions(side, side, side * side / 30, random);
+        var plantTypes = random.ints(side * side / 30, 'A', 'Z' + 1).toArray();
+        var garden = new char[side][side];
+
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                garden[y][x] = (char) plantTypes[regions.seedOf(x, y)];
+            }
+        }
+        return ScaledInput.linesOf(garden);
     }
 }
@@ -1,9 +1,10 @@
 package dev.hertlein.aoc2024;
 
-import dev.hertlein.aoc2024.lib.InputReader;
+import dev.hertlein.aoc2024.lib.ScaledInput;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
@@ -17,22 +18,55 @@ import static dev.hertlein.aoc2024.Day.EMPTY;
 @Measurement(iterations = 3, timeUnit = TimeUnit.MILLISECONDS, time = 5000)
 public class Day13Benchmark {
 
+    @Param({"1"})
+    public int size;
+
     private Day13 day;
-    private List<String> challengeInput;
+    private List<String> input;
 
     @Setup
     public void setup() {
         day = new Day13();
-        challengeInput = InputReader.readChallengeInputFor(day);
+        input = generateInput(size);
     }
 
     @Benchmark
     public void part1(Blackhole bh) {
-        bh.consume(day.part1(challengeInput, EMPTY));
+        bh.consume(day.part1(input, EMPTY));
     }
 
     @Benchmark
     public void part2(Blackhole bh) {
-        bh.consume(day.part2(challengeInput, EMPTY));
+        bh.consume(day.part2(input, EMPTY));
+    }
+
+    /**
+     * 320 claw machines per size. One button moves the claw more along X, the other more along Y - like in the challenge
+     * input, so the far away prizes of part 2 can be won with positive numbers of pushes. About half of the prizes of
+     * part 1 can be won.
+     */
+    static List<String> generateInput(int size) {
+        var random = ScaledInput.random();
+        var input = new ArrayList<String>();
+
+        for (int i = 0; i < 320 * size; i++) {
+            var isAMovingAlongX = random.nextBoolean();
+            var aX = isAMovingAlongX ? random.nextInt(40, 100) : random.nextInt(10, 40);
+            var aY = isAMovingAlongX ? random.nextInt(10, 40) : random.nextInt(40, 100);
+            var bX = isAMovingAlongX ? random.nextInt(10, 40) : random.nextInt(40, 100);
+            var bY = isAMovingAlongX ? random.nextInt(40, 100) : random.nextInt(10, 40);
+            var pushesOfA = random.nextInt(1, 101);
+            var pushesOfB = random.nextInt(1, 101);
+            var canBeWon = random.nextBoolean();
+
+            input.add("Button A: X+%d, Y+%d".formatted(aX, aY));
+            input.add("Button B: X+%d, Y+%d".formatted(bX, bY));
+            input.add(canBeWon
+                    ? "Prize: X=%d, Y=%d".formatted(pushesOfA * aX + pushesOfB * bX, pushesOfA * aY + pushesOfB * bY)
+                    : "Prize: X=%d, Y=%d".formatted(random.nextInt(1000, 20_000), random.nextInt(1000, 20_000)));
+            input.add("");
+        }
+        input.removeLast();
+        return input;
     }
 }
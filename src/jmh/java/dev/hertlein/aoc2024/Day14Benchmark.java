@@ -1,12 +1,15 @@
 package dev.hertlein.aoc2024;
 
-import dev.hertlein.aoc2024.lib.InputReader;
+import dev.hertlein.aoc2024.lib.ScaledInput;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import static dev.hertlein.aoc2024.Day14.AreaSize;
+
 @BenchmarkMode(Mode.AverageTime)
 @OutputTimeUnit(TimeUnit.MILLISECONDS)
 @State(Scope.Benchmark)
@@ -15,22 +18,58 @@ import java.util.concurrent.TimeUnit;
 @Measurement(iterations = 3, timeUnit = TimeUnit.MILLISECONDS, time = 5000)
 public class Day14Benchmark {
 
+    @Param({"1"})
+    public int size;
+
     private Day14 day;
-    private List<String> challengeInput;
+    private List<String> input;
+    private AreaSize additionalInput;
 
     @Setup
     public void setup() {
         day = new Day14();
-        challengeInput = InputReader.readChallengeInputFor(day);
+        input = generateInput(size);
+        additionalInput = areaSizeFor(size);
     }
 
     @Benchmark
     public void part1(Blackhole bh) {
-        bh.consume(day.part1(challengeInput, Day14Test.ADDITIONAL_INPUT_CHALLENGE));
+        bh.consume(day.part1(input, additionalInput));
     }
 
     @Benchmark
     public void part2(Blackhole bh) {
-        bh.consume(day.part2(challengeInput, Day14Test.ADDITIONAL_INPUT_CHALLENGE));
+        bh.consume(day.part2(input, additionalInput));
+    }
+
+    private static final int SECOND_OF_CHRISTMAS_TREE = 6_000;
+    private static final int CHRISTMAS_TREE_SIDE = 15;
+
+    /**
+     * 500 robots in an area of 101 x 103 tiles per size. A square of connected robots appears after the same number of
+     * seconds for every size - keeping the number of seconds to simulate constant, while the area and number of robots grow.
+     */
+    static List<String> generateInput(int size) {
+        var random = ScaledInput.random();
+        var area = areaSizeFor(size);
+        var robots = new ArrayList<String>();
+
+        for (int i = 0; i < 500 * size; i++) {
+            var isInChristmasTree = i < CHRISTMAS_TREE_SIDE * CHRISTMAS_TREE_SIDE;
+            var x = isInChristmasTree ? area.x() / 2 + i % CHRISTMAS_TREE_SIDE : random.nextInt(area.x());
+            var y = isInChristmasTree ? area.y() / 2 + i / CHRISTMAS_TREE_SIDE : random.nextInt(area.y());
+            var velocityX = random.nextInt(-99, 100);
+            var velocityY = random.nextInt(-99, 100);
+
+            // going back in time from the position at the second of the christmas tree
+            var startX = Math.floorMod(x - (long) velocityX * SECOND_OF_CHRISTMAS_TREE, area.x());
+            var startY = Math.floorMod(y - (long) velocityY * SECOND_OF_CHRISTMAS_TREE, area.y());
+            robots.add("p=%d,%d v=%d,%d".formatted(startX, startY, velocityX, velocityY));
+        }
+        return robots;
+    }
+
+    static AreaSize areaSizeFor(int size) {
+        return new AreaSize(ScaledInput.side(101, size), ScaledInput.side(103, size));
     }
 }
@@ -1,9 +1,10 @@
 package dev.hertlein.aoc2024;
 
-import dev.hertlein.aoc2024.lib.InputReader;
+import dev.hertlein.aoc2024.lib.ScaledInput;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
@@ -17,22 +18,55 @@ import static dev.hertlein.aoc2024.Day.EMPTY;
 @Measurement(iterations = 3, timeUnit = TimeUnit.MILLISECONDS, time = 5000)
 public class Day15Benchmark {
 
+    @Param({"1"})
+    public int size;
+
     private Day15 day;
-    private List<String> challengeInput;
+    private List<String> input;
 
     @Setup
     public void setup() {
         day = new Day15();
-        challengeInput = InputReader.readChallengeInputFor(day);
+        input = generateInput(size);
     }
 
     @Benchmark
     public void part1(Blackhole bh) {
-        bh.consume(day.part1(challengeInput, EMPTY));
+        bh.consume(day.part1(input, EMPTY));
     }
 
     @Benchmark
     public void part2(Blackhole bh) {
-        bh.consume(day.part2(challengeInput, EMPTY));
+        bh.consume(day.part2(input, EMPTY));
+    }
+
+    private static final String MOVEMENTS = "<>^v";
+
+    /**
+     * A warehouse with 50 x 50 tiles and 20000 movements of the robot per size.
+     */
+    static List<String> generateInput(int size) {
+        var random = ScaledInput.random();
+        var side = ScaledInput.side(50, size);
+        var warehouse = ScaledInput.filledGrid(side, side, '#');
+
+        for (int y = 1; y < side - 1; y++) {
+            for (int x = 1; x < side - 1; x++) {
+                var tile = random.nextInt(100);
+                warehouse[y][x] = tile < 10 ? '#' : tile < 35 ? 'O' : '.';
+            }
+        }
+        warehouse[side / 2][side / 2] = '@';
+
+        var input = new ArrayList<>(ScaledInput.linesOf(warehouse));
+        input.add("");
+        for (int line = 0; line < 20 * size; line++) {
+            var movements = new StringBuilder();
+            for (int i = 0; i < 1000; i++) {
+                movements.append(MOVEMENTS.charAt(random.nextInt(MOVEMENTS.length())));
+            }
+            input.add(movements.toString());
+        }
+        return input;
     }
 }
@@ -1,6 +1,6 @@
 package dev.hertlein.aoc2024;
 
-import dev.hertlein.aoc2024.lib.InputReader;
+import dev.hertlein.aoc2024.lib.ScaledInput;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 
@@ -17,22 +17,49 @@ import static dev.hertlein.aoc2024.Day.EMPTY;
 @Measurement(iterations = 3, timeUnit = TimeUnit.MILLISECONDS, time = 5000)
 public class Day16Benchmark {
 
+    @Param({"1"})
+    public int size;
+
     private Day16 day;
-    private List<String> challengeInput;
+    private List<String> input;
 
     @Setup
     public void setup() {
         day = new Day16();
-        challengeInput = InputReader.readChallengeInputFor(day);
+        input = generateInput(size);
     }
 
     @Benchmark
     public void part1(Blackhole bh) {
-        bh.consume(day.part1(challengeInput, EMPTY));
+        bh.consume(day.part1(input, EMPTY));
     }
 
     @Benchmark
     public void part2(Blackhole bh) {
-        bh.consume(day.part2(challengeInput, EMPTY));
+        bh.consume(day.part2(input, EMPTY));
+    }
+
+    private static final char WALL = '#';
+
+    /**
+     * A maze with 141 x 141 tiles per size, having the start in the bottom left and the end in the top right corner.
+     * Some walls of a perfect maze are removed, so there are multiple paths with different scores.
+     */
+    static List<String> generateInput(int size) {
+        var random = ScaledInput.random();
+        var side = ScaledInput.side(141, size);
+        var maze = ScaledInput.maze(side, WALL, '.', random);
+
+        for (int y = 1; y < side - 1; y++) {
+            for (int x = 1; x < side - 1; x++) {
+                var isBetweenTiles = (x % 2 == 1) != (y % 2 == 1);
+                if (isBetweenTiles && maze[y][x] == WALL && random.nextInt(100) < 5) {
+                    maze[y][x] = '.';
+                }
+            }
+        }
+        maze[side - 2][1] = 'S';
+        maze[1][side - 2] = 'E';
+        return ScaledInput.linesOf(maze);
     }
 }
@@ -1,6 +1,6 @@
 package dev.hertlein.aoc2024;
 
-import dev.hertlein.aoc2024.lib.InputReader;
+import dev.hertlein.aoc2024.lib.ScaledInput;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 
@@ -17,22 +17,41 @@ import static dev.hertlein.aoc2024.Day.EMPTY;
 @Measurement(iterations = 3, timeUnit = TimeUnit.MILLISECONDS, time = 5000)
 public class Day17Benchmark {
 
+    // the program has a fixed length and the register values are limited to a long, so the input is not scalable
+    @Param({"1"})
+    public int size;
+
     private Day17 day;
-    private List<String> challengeInput;
+    private List<String> input;
 
     @Setup
     public void setup() {
         day = new Day17();
-        challengeInput = InputReader.readChallengeInputFor(day);
+        input = generateInput(size);
     }
 
     @Benchmark
     public void part1(Blackhole bh) {
-        bh.consume(day.part1(challengeInput, EMPTY));
+        bh.consume(day.part1(input, EMPTY));
     }
 
     @Benchmark
     public void part2(Blackhole bh) {
-        bh.consume(day.part2(challengeInput, EMPTY));
+        bh.consume(day.part2(input, EMPTY));
+    }
+
+    /**
+     * A program outputting itself for a specific value of register A - generated programs usually do not - with a random
+     * initial value of register A.
+     */
+    static List<String> generateInput(int size) {
+        var random = ScaledInput.random();
+
+        return List.of(
+                "Register A: %d".formatted(random.nextLong(1L << 44, 1L << 47)),
+                "Register B: 0",
+                "Register C: 0",
+                "",
+                "Program: 2,4,1,1,7,5,1,5,4,0,0,3,5,5,3,0");
     }
 }
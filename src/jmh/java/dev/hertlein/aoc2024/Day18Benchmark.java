@@ -1,11 +1,17 @@
 package dev.hertlein.aoc2024;
 
-import dev.hertlein.aoc2024.lib.InputReader;
+import dev.hertlein.aoc2024.lib.ScaledInput;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static dev.hertlein.aoc2024.Day18.AdditionalInput;
+import static dev.hertlein.aoc2024.Day18.Position;
 
 @BenchmarkMode(Mode.AverageTime)
 @OutputTimeUnit(TimeUnit.MILLISECONDS)
@@ -15,22 +21,58 @@ import java.util.concurrent.TimeUnit;
 @Measurement(iterations = 3, timeUnit = TimeUnit.MILLISECONDS, time = 5000)
 public class Day18Benchmark {
 
+    @Param({"1"})
+    public int size;
+
     private Day18 day;
-    private List<String> challengeInput;
+    private List<String> input;
+    private AdditionalInput additionalInput;
 
     @Setup
     public void setup() {
         day = new Day18();
-        challengeInput = InputReader.readChallengeInputFor(day);
+        input = generateInput(size);
+        additionalInput = additionalInputFor(size);
     }
 
     @Benchmark
     public void part1(Blackhole bh) {
-        bh.consume(day.part1(challengeInput, Day18Test.ADDITIONAL_INPUT_CHALLENGE));
+        bh.consume(day.part1(input, additionalInput));
     }
 
     @Benchmark
     public void part2(Blackhole bh) {
-        bh.consume(day.part2(challengeInput, Day18Test.ADDITIONAL_INPUT_CHALLENGE));
+        bh.consume(day.part2(input, additionalInput));
+    }
+
+    /**
+     * A memory space with 71 x 71 positions and 3450 falling bytes per size, of which the first 1024 per size are
+     * considered for part 1. The neighbours of the start and the end only fall after those, so the exit can be reached.
+     */
+    static List<String> generateInput(int size) {
+        var random = ScaledInput.random();
+        var side = ScaledInput.side(71, size);
+        var start = 0;
+        var end = side * side - 1;
+        var neighboursOfStartAndEnd = List.of(start + 1, start + side, end - 1, end - side);
+
+        var positions = new ArrayList<>(IntStream.range(start + 1, end)
+                .filter(position -> !neighboursOfStartAndEnd.contains(position))
+                .boxed()
+                .toList());
+        Collections.shuffle(positions, random);
+        for (var neighbour : neighboursOfStartAndEnd) {
+            positions.add(random.nextInt(1024 * size, 3450 * size), neighbour);
+        }
+
+        return positions.subList(0, 3450 * size)
+                .stream()
+                .map(position -> "%d,%d".formatted(position % side, position / side))
+                .toList();
+    }
+
+    static AdditionalInput additionalInputFor(int size) {
+        var side = ScaledInput.side(71, size);
+        return new AdditionalInput(new Position(0, 0), new Position(side - 1, side - 1), 1024 * size);
     }
 }
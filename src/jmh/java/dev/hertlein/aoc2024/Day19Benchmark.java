@@ -1,13 +1,18 @@
 package dev.hertlein.aoc2024;
 
-import dev.hertlein.aoc2024.lib.InputReader;
+import dev.hertlein.aoc2024.lib.ScaledInput;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Random;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static dev.hertlein.aoc2024.Day.EMPTY;
+import static java.util.stream.Collectors.joining;
 
 @BenchmarkMode(Mode.AverageTime)
 @OutputTimeUnit(TimeUnit.MILLISECONDS)
@@ -17,22 +22,64 @@ import static dev.hertlein.aoc2024.Day.EMPTY;
 @Measurement(iterations = 3, timeUnit = TimeUnit.MILLISECONDS, time = 5000)
 public class Day19Benchmark {
 
+    @Param({"1"})
+    public int size;
+
     private Day19 day;
-    private List<String> challengeInput;
+    private List<String> input;
 
     @Setup
     public void setup() {
         day = new Day19();
-        challengeInput = InputReader.readChallengeInputFor(day);
+        input = generateInput(size);
     }
 
     @Benchmark
     public void part1(Blackhole bh) {
-        bh.consume(day.part1(challengeInput, EMPTY));
+        bh.consume(day.part1(input, EMPTY));
     }
 
     @Benchmark
     public void part2(Blackhole bh) {
-        bh.consume(day.part2(challengeInput, EMPTY));
+        bh.consume(day.part2(input, EMPTY));
+    }
+
+    private static final String COLORS = "wubrg";
+
+    /**
+     * 447 towel patterns and 400 designs per size made of them. A quarter of the designs is impossible: they start with
+     * "bb", which no pattern is a prefix of.
+     */
+    static List<String> generateInput(int size) {
+        var random = ScaledInput.random();
+        var patterns = new LinkedHashSet<String>();
+        while (patterns.size() < 447) {
+            var pattern = stripes(random.nextInt(1, 9), random);
+            if (!pattern.equals("b") && !pattern.startsWith("bb")) {
+                patterns.add(pattern);
+            }
+        }
+        var patternList = List.copyOf(patterns);
+
+        var designs = IntStream.range(0, 400 * size)
+                .mapToObj(_ -> (random.nextInt(4) == 0 ? "bb" : "") + designOf(patternList, random))
+                .toList();
+
+        return Stream.concat(Stream.of(String.join(", ", patternList), ""), designs.stream()).toList();
+    }
+
+    private static String designOf(List<String> patterns, Random random) {
+        var design = new StringBuilder();
+        var length = random.nextInt(40, 61);
+        while (design.length() < length) {
+            design.append(patterns.get(random.nextInt(patterns.size())));
+        }
+        return design.toString();
+    }
+
+    private static String stripes(int length, Random random) {
+        return IntStream.range(0, length)
+                .mapToObj(_ -> String.valueOf(COLORS.charAt(random.nextInt(COLORS.length()))))
+                .collect(joining());
     }
 }
@@ -1,9 +1,10 @@
 package dev.hertlein.aoc2024;
 
-import dev.hertlein.aoc2024.lib.InputReader;
+import dev.hertlein.aoc2024.lib.ScaledInput;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
@@ -17,22 +18,77 @@ import static dev.hertlein.aoc2024.Day20.MinimumNumberOfPicosecondsToSave;
 @Measurement(iterations = 3, timeUnit = TimeUnit.MILLISECONDS, time = 5000)
 public class Day20Benchmark {
 
+    @Param({"1"})
+    public int size;
+
     private Day20 day;
-    private List<String> challengeInput;
+    private List<String> input;
 
     @Setup
     public void setup() {
         day = new Day20();
-        challengeInput = InputReader.readChallengeInputFor(day);
+        input = generateInput(size);
     }
 
     @Benchmark
     public void part1(Blackhole bh) {
-        bh.consume(day.part1(challengeInput, new MinimumNumberOfPicosecondsToSave(100)));
+        bh.consume(day.part1(input, new MinimumNumberOfPicosecondsToSave(100)));
     }
 
     @Benchmark
     public void part2(Blackhole bh) {
-        bh.consume(day.part2(challengeInput, new MinimumNumberOfPicosecondsToSave(100)));
+        bh.consume(day.part2(input, new MinimumNumberOfPicosecondsToSave(100)));
+    }
+
+    private static final char WALL = '#';
+    private static final char TRACK = '.';
+
+    /**
+     * A racetrack on 141 x 141 positions per size. The track is the longest path through a perfect maze, every other
+     * position is a wall - so there is a single path from the start to the end.
+     */
+    static List<String> generateInput(int size) {
+        var random = ScaledInput.random();
+        var side = ScaledInput.side(141, size);
+        var maze = ScaledInput.maze(side, WALL, TRACK, random);
+
+        // the position farthest from any position is one end of a longest path in a tree
+        var start = search(side + 1, maze).farthest();
+        var longestPath = search(start, maze);
+        var end = longestPath.farthest();
+
+        var racetrack = ScaledInput.filledGrid(side, side, WALL);
+        for (var position = end; position != -1; position = longestPath.predecessors()[position]) {
+            racetrack[position / side][position % side] = TRACK;
+        }
+        racetrack[start / side][start % side] = 'S';
+        racetrack[end / side][end % side] = 'E';
+        return ScaledInput.linesOf(racetrack);
+    }
+
+    private static Search search(int from, char[][] maze) {
+        var side = maze.length;
+        var predecessors = new int[side * side];
+        Arrays.fill(predecessors, -2);
+
+        var queue = new int[side * side];
+        var head = 0;
+        var tail = 0;
+        queue[tail++] = from;
+        predecessors[from] = -1;
+
+        while (head < tail) {
+            var position = queue[head++];
+            for (var next : new int[]{position - side, position + 1, position + side, position - 1}) {
+                if (maze[next / side][next % side] != WALL && predecessors[next] == -2) {
+                    predecessors[next] = position;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return new Search(queue[tail - 1], predecessors);
+    }
+
+    private record Search(int farthest, int[] predecessors) {
     }
 }
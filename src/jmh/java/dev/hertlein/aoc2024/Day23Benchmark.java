@@ -1,9 +1,11 @@
 package dev.hertlein.aoc2024;
 
-import dev.hertlein.aoc2024.lib.InputReader;
+import dev.hertlein.aoc2024.lib.ScaledInput;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
@@ -17,22 +19,67 @@ import static dev.hertlein.aoc2024.Day.EMPTY;
 @Measurement(iterations = 3, timeUnit = TimeUnit.MILLISECONDS, time = 5000)
 public class Day23Benchmark {
 
+    @Param({"1"})
+    public int size;
+
     private Day23 day;
-    private List<String> challengeInput;
+    private List<String> input;
 
     @Setup
     public void setup() {
         day = new Day23();
-        challengeInput = InputReader.readChallengeInputFor(day);
+        input = generateInput(size);
     }
 
     @Benchmark
     public void part1(Blackhole bh) {
-        bh.consume(day.part1(challengeInput, EMPTY));
+        bh.consume(day.part1(input, EMPTY));
     }
 
     @Benchmark
     public void part2(Blackhole bh) {
-        bh.consume(day.part2(challengeInput, EMPTY));
+        bh.consume(day.part2(input, EMPTY));
+    }
+
+    private static final int DEGREE = 13;
+
+    /**
+     * A network of 520 computers per size, each connected to about 13 others at random, plus a LAN party of 13
+     * computers connected to each other. Names have two letters, and more as soon as they run out.
+     */
+    static List<String> generateInput(int size) {
+        var random = ScaledInput.random();
+        var numberOfComputers = 520 * size;
+        var connections = new HashSet<List<Integer>>();
+
+        while (connections.size() < numberOfComputers * DEGREE / 2) {
+            var computer1 = random.nextInt(numberOfComputers);
+            var computer2 = random.nextInt(numberOfComputers);
+            if (computer1 != computer2) {
+                connections.add(List.of(Math.min(computer1, computer2), Math.max(computer1, computer2)));
+            }
+        }
+
+        var lanParty = random.ints(0, numberOfComputers).distinct().limit(DEGREE).toArray();
+        for (int i = 0; i < lanParty.length; i++) {
+            for (int j = i + 1; j < lanParty.length; j++) {
+                connections.add(List.of(Math.min(lanParty[i], lanParty[j]), Math.max(lanParty[i], lanParty[j])));
+            }
+        }
+
+        var input = new ArrayList<String>();
+        for (var connection : connections) {
+            input.add(nameOf(connection.getFirst()) + "-" + nameOf(connection.getLast()));
+        }
+        return input;
+    }
+
+    private static String nameOf(int computer) {
+        var name = new StringBuilder();
+        do {
+            name.insert(0, (char) ('a' + computer % 26));
+            computer /= 26;
+        } while (computer > 0 || name.length() < 2);
+        return name.toString();
     }
 }
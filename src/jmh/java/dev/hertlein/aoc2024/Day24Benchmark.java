@@ -1,10 +1,13 @@
 package dev.hertlein.aoc2024;
 
-import dev.hertlein.aoc2024.lib.InputReader;
+import dev.hertlein.aoc2024.lib.ScaledInput;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 import java.util.concurrent.TimeUnit;
 
 import static dev.hertlein.aoc2024.Day.EMPTY;
@@ -17,22 +20,107 @@ import static dev.hertlein.aoc2024.Day.EMPTY;
 @Measurement(iterations = 3, timeUnit = TimeUnit.MILLISECONDS, time = 5000)
 public class Day24Benchmark {
 
+    @Param({"1"})
+    public int size;
+
     private Day24 day;
-    private List<String> challengeInput;
+    private List<String> input;
 
     @Setup
     public void setup() {
         day = new Day24();
-        challengeInput = InputReader.readChallengeInputFor(day);
+        input = generateInput(size);
     }
 
     @Benchmark
     public void part1(Blackhole bh) {
-        bh.consume(day.part1(challengeInput, EMPTY));
+        bh.consume(day.part1(input, EMPTY));
     }
 
     @Benchmark
     public void part2(Blackhole bh) {
-        bh.consume(day.part2(challengeInput, EMPTY));
+        bh.consume(day.part2(input, EMPTY));
+    }
+
+    private static final int BITS = 45;
+    private static final String FIRST_CHARACTERS = "abcdefghijklmnopqrstuvwABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789_";
+    private static final String OTHER_CHARACTERS = FIRST_CHARACTERS + "xyz";
+    private static final List<String> OPERATIONS = List.of("AND", "OR", "XOR");
+
+    /**
+     * A ripple-carry adder of two numbers with 45 bits, like the challenge input, plus 222 gates per additional size,
+     * which don't affect the output - as the output has to fit into a long. Gates are listed in random order.
+     */
+    static List<String> generateInput(int size) {
+        var random = ScaledInput.random();
+        var input = new ArrayList<String>();
+        for (var wire : List.of("x", "y")) {
+            for (int bit = 0; bit < BITS; bit++) {
+                input.add("%s%02d: %d".formatted(wire, bit, random.nextInt(2)));
+            }
+        }
+        input.add("");
+
+        var names = new Names();
+        var gates = new ArrayList<String>();
+        var carry = "";
+        for (int bit = 0; bit < BITS; bit++) {
+            var x = "x%02d".formatted(bit);
+            var y = "y%02d".formatted(bit);
+            var z = "z%02d".formatted(bit);
+            if (bit == 0) {
+                gates.add(gate(x, "XOR", y, z));
+                carry = names.next();
+                gates.add(gate(x, "AND", y, carry));
+                continue;
+            }
+            var sum = names.next();
+            var bothSet = names.next();
+            var carried = names.next();
+            var nextCarry = bit == BITS - 1 ? "z%02d".formatted(BITS) : names.next();
+            gates.add(gate(x, "XOR", y, sum));
+            gates.add(gate(sum, "XOR", carry, z));
+            gates.add(gate(x, "AND", y, bothSet));
+            gates.add(gate(sum, "AND", carry, carried));
+            gates.add(gate(bothSet, "OR", carried, nextCarry));
+            carry = nextCarry;
+        }
+
+        var wires = new ArrayList<String>();
+        for (int bit = 0; bit < BITS; bit++) {
+            wires.add("x%02d".formatted(bit));
+            wires.add("y%02d".formatted(bit));
+        }
+        for (int i = 0; i < 222 * (size - 1); i++) {
+            var output = names.next();
+            gates.add(gate(
+                    wires.get(random.nextInt(wires.size())),
+                    OPERATIONS.get(random.nextInt(OPERATIONS.size())),
+                    wires.get(random.nextInt(wires.size())),
+                    output));
+            wires.add(output);
+        }
+
+        Collections.shuffle(gates, random);
+        input.addAll(gates);
+        return input;
+    }
+
+    private static String gate(String input1, String operation, String input2, String output) {
+        return "%s %s %s -> %s".formatted(input1, operation, input2, output);
+    }
+
+    /**
+     * Wire names with 3 characters, not starting with 'x', 'y' or 'z' - those are reserved for in- and outputs.
+     */
+    private static class Names {
+        private int next = 0;
+
+        String next() {
+            var name = next++;
+            return "" + FIRST_CHARACTERS.charAt(name / (OTHER_CHARACTERS.length() * OTHER_CHARACTERS.length()))
+                    + OTHER_CHARACTERS.charAt(name / OTHER_CHARACTERS.length() % OTHER_CHARACTERS.length())
+                    + OTHER_CHARACTERS.charAt(name % OTHER_CHARACTERS.length());
+        }
     }
 }
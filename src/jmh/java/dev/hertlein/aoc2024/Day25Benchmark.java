@@ -1,9 +1,10 @@
 package dev.hertlein.aoc2024;
 
-import dev.hertlein.aoc2024.lib.InputReader;
+import dev.hertlein.aoc2024.lib.ScaledInput;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
@@ -17,22 +18,53 @@ import static dev.hertlein.aoc2024.Day.EMPTY;
 @Measurement(iterations = 3, timeUnit = TimeUnit.MILLISECONDS, time = 5000)
 public class Day25Benchmark {
 
+    @Param({"1"})
+    public int size;
+
     private Day25 day;
-    private List<String> challengeInput;
+    private List<String> input;
 
     @Setup
     public void setup() {
         day = new Day25();
-        challengeInput = InputReader.readChallengeInputFor(day);
+        input = generateInput(size);
     }
 
     @Benchmark
     public void part1(Blackhole bh) {
-        bh.consume(day.part1(challengeInput, EMPTY));
+        bh.consume(day.part1(input, EMPTY));
     }
 
     @Benchmark
     public void part2(Blackhole bh) {
-        bh.consume(day.part2(challengeInput, EMPTY));
+        bh.consume(day.part2(input, EMPTY));
+    }
+
+    private static final int PIN_HEIGHT = 5;
+    private static final int PINS = 5;
+
+    /**
+     * 250 locks and 250 keys per size, with random pin heights.
+     */
+    static List<String> generateInput(int size) {
+        var random = ScaledInput.random();
+        var input = new ArrayList<String>();
+
+        for (int i = 0; i < 500 * size; i++) {
+            var isLock = i % 2 == 0;
+            var heights = random.ints(PINS, 0, PIN_HEIGHT + 1).toArray();
+
+            for (int row = 0; row <= PIN_HEIGHT + 1; row++) {
+                var line = new StringBuilder();
+                for (var height : heights) {
+                    var level = isLock ? row : PIN_HEIGHT + 1 - row;
+                    line.append(level <= height ? '#' : '.');
+                }
+                input.add(line.toString());
+            }
+            input.add("");
+        }
+        input.removeLast();
+        return input;
     }
 }
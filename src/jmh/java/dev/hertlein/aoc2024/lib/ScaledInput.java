@@ -0,0 +1,132 @@
+package dev.hertlein.aoc2024.lib;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Building blocks for synthetic puzzle inputs, whose size is a factor of the size of an original challenge input.
+ * <p>
+ * All inputs are generated from the same seed, so every benchmark run of a size measures exactly the same input.
+ */
+@UtilityClass
+public class ScaledInput {
+
+    private static final long SEED = 2024;
+    private static final int[] DX = {0, 1, 0, -1};
+    private static final int[] DY = {-1, 0, 1, 0};
+
+    public static Random random() {
+        return new Random(SEED);
+    }
+
+    /**
+     * Side length of a square grid with an area of <code>factor</code> times the area of the original grid. Keeps the
+     * parity of the original side, as some puzzles rely on a middle row or column.
+     */
+    public static int side(int originalSide, int factor) {
+        var side = (int) Math.round(originalSide * Math.sqrt(factor));
+        return side % 2 == originalSide % 2 ? side : side + 1;
+    }
+
+    public static char[][] filledGrid(int width, int height, char cell) {
+        var grid = new char[height][width];
+        for (var row : grid) {
+            Arrays.fill(row, cell);
+        }
+        return grid;
+    }
+
+    public static List<String> linesOf(char[][] grid) {
+        return Arrays.stream(grid).map(String::new).toList();
+    }
+
+    public static List<String> repeated(List<String> lines, int factor) {
+        return Collections.nCopies(factor, lines).stream().flatMap(List::stream).toList();
+    }
+
+    /**
+     * Grows regions from randomly placed seeds with a multi-source breadth-first search, so every cell belongs to the
+     * seed reaching it first.
+     */
+    public static Regions regions(int width, int height, int numberOfSeeds, Random random) {
+        var seedOf = new int[width * height];
+        var distance = new int[width * height];
+        Arrays.fill(seedOf, -1);
+
+        var queue = new int[width * height];
+        var head = 0;
+        var tail = 0;
+        for (int seed = 0; seed < numberOfSeeds; seed++) {
+            var cell = random.nextInt(width * height);
+            if (seedOf[cell] == -1) {
+                seedOf[cell] = seed;
+                queue[tail++] = cell;
+            }
+        }
+
+        while (head < tail) {
+            var cell = queue[head++];
+            var x = cell % width;
+            var y = cell / width;
+            for (var neighbour : new int[]{
+                    y > 0 ? cell - width : -1,
+                    x < width - 1 ? cell + 1 : -1,
+                    y < height - 1 ? cell + width : -1,
+                    x > 0 ? cell - 1 : -1}) {
+                if (neighbour != -1 && seedOf[neighbour] == -1) {
+                    seedOf[neighbour] = seedOf[cell];
+                    distance[neighbour] = distance[cell] + 1;
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+        return new Regions(width, seedOf, distance);
+    }
+
+    public record Regions(int width, int[] seedOf, int[] distance) {
+
+        public int seedOf(int x, int y) {
+            return seedOf[y * width + x];
+        }
+
+        public int distance(int x, int y) {
+            return distance[y * width + x];
+        }
+    }
+
+    /**
+     * A perfect maze - exactly one path between any two tiles - carved by a randomized depth-first search. Tiles are at
+     * odd coordinates, everything else starts as wall, so the side has to be odd.
+     */
+    public static char[][] maze(int side, char wall, char tile, Random random) {
+        var maze = filledGrid(side, side, wall);
+        var stack = new ArrayList<int[]>();
+        maze[1][1] = tile;
+        stack.add(new int[]{1, 1});
+
+        while (!stack.isEmpty()) {
+            var current = stack.getLast();
+            var unvisited = IntStream.range(0, 4)
+                    .mapToObj(direction -> new int[]{current[0] + 2 * DX[direction], current[1] + 2 * DY[direction]})
+                    .filter(next -> next[0] > 0 && next[0] < side - 1 && next[1] > 0 && next[1] < side - 1)
+                    .filter(next -> maze[next[1]][next[0]] == wall)
+                    .toList();
+
+            if (unvisited.isEmpty()) {
+                stack.removeLast();
+                continue;
+            }
+            var next = unvisited.get(random.nextInt(unvisited.size()));
+            maze[(current[1] + next[1]) / 2][(current[0] + next[0]) / 2] = tile;
+            maze[next[1]][next[0]] = tile;
+            stack.add(next);
+        }
+        return maze;
+    }
+}
@@ -0,0 +1,56 @@
+package dev.hertlein.aoc2024;
+
+import com.google.common.hash.Hashing;
+import dev.hertlein.aoc2024.lib.MappedInput;
+import dev.hertlein.aoc2024.lib.ResultCache;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Decorates a day with a {@link ResultCache}, so a part is only solved once for the same input.
+ * <p>
+ * The key of a result is a 128-bit Murmur3 hash of the day, the part, the additional input and the input lines. The
+ * additional input is hashed by its {@link Object#toString()}, which is based on the values of records like
+ * {@link Day14.AreaSize} or {@link Day18.AdditionalInput}.
+ */
+class CachingDay<T> implements Day<T> {
+
+    private final Day<T> day;
+    private final ResultCache cache;
+
+    CachingDay(Day<T> day, ResultCache cache) {
+        this.day = day;
+        this.cache = cache;
+    }
+
+    @Override
+    public Object part1(List<String> inputLines, T additionalInput) {
+        return cached(keyOf(1, inputLines, additionalInput), () -> day.part1(inputLines, additionalInput));
+    }
+
+    @Override
+    public Object part2(List<String> inputLines, T additionalInput) {
+        return cached(keyOf(2, inputLines, additionalInput), () -> day.part2(inputLines, additionalInput));
+    }
+
+    private Object cached(String key, Supplier<Object> part) {
+        return cache.get(key).orElseGet(() -> {
+            var result = part.get();
+            cache.put(key, result);
+            return result;
+        });
+    }
+
+    String keyOf(int part, List<String> inputLines, T additionalInput) {
+        var hasher = Hashing.murmur3_128().newHasher()
+                .putUnencodedChars(day.getClass().getName())
+                .putInt(part)
+                .putUnencodedChars(String.valueOf(additionalInput));
+
+        for (var line : MappedInput.viewsOf(inputLines)) {
+            hasher.putUnencodedChars(line).putChar('\n');
+        }
+        return hasher.hash().toString();
+    }
+}
@@ -1,5 +1,6 @@
 package dev.hertlein.aoc2024;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface Day<T> {
@@ -10,4 +11,20 @@ public interface Day<T> {
 
     Object part2(List<String> inputLines, T additionalInput);
 
+    /**
+     * Solves part 1 for many inputs at once - in parallel, as the inputs are independent of each other. Parse-time
+     * structures like patterns or lookup tables are static in the days, so they are shared by all inputs.
+     *
+     * @return the results in the order of the inputs
+     */
+    default List<Object> part1OfAll(Collection<? extends List<String>> inputs, T additionalInput) {
+        return inputs.parallelStream().map(inputLines -> part1(inputLines, additionalInput)).toList();
+    }
+
+    /**
+     * Like {@link #part1OfAll(Collection, Object)}, but for part 2.
+     */
+    default List<Object> part2OfAll(Collection<? extends List<String>> inputs, T additionalInput) {
+        return inputs.parallelStream().map(inputLines -> part2(inputLines, additionalInput)).toList();
+    }
 }
@@ -1,23 +1,90 @@
 package dev.hertlein.aoc2024;
 
 import com.google.common.collect.Streams;
+import dev.hertlein.aoc2024.lib.MappedInput;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
-class Day01 implements Day<Void> {
+class Day01 implements StreamingDay<Void> {
+
+    // below, the overhead of forking doesn't pay off
+    static final int PARALLEL_THRESHOLD = 1 << 17;
+
+    /**
+     * How the location lists are kept: as boxed lists of the readable model, or as <code>int</code> arrays - for lists
+     * with millions of pairs. In parallel, the lines are parsed and the arrays are sorted by all cores of the fork/join
+     * pool. Automatically, lists of at least {@link #PARALLEL_THRESHOLD} lines are solved in parallel.
+     */
+    enum Mode {
+        BOXED, PRIMITIVE, PARALLEL, AUTOMATIC
+    }
+
+    private final Mode mode;
+
+    Day01() {
+        this(Mode.AUTOMATIC);
+    }
+
+    Day01(Mode mode) {
+        this.mode = mode;
+    }
 
     @Override
     public Object part1(List<String> inputLines, Void v) {
-        return LocationLists.of(inputLines).totalDistance();
+        return isParallelFor(inputLines)
+                ? LocationIds.parallelOf(MappedInput.viewsOf(inputLines)).parallelTotalDistance()
+                : StreamingDay.super.part1(inputLines, v);
     }
 
     @Override
     public Object part2(List<String> inputLines, Void v) {
-        return LocationLists.of(inputLines).similarityScore();
+        return isParallelFor(inputLines)
+                ? LocationIds.parallelOf(MappedInput.viewsOf(inputLines)).parallelSimilarityScore()
+                : StreamingDay.super.part2(inputLines, v);
+    }
+
+    private boolean isParallelFor(List<String> inputLines) {
+        return mode == Mode.PARALLEL || (mode == Mode.AUTOMATIC && inputLines.size() >= PARALLEL_THRESHOLD);
+    }
+
+    @Override
+    public LineConsumer part1Consumer(Void v) {
+        if (mode == Mode.BOXED) {
+            var locationLists = LocationLists.empty();
+            return LineConsumer.of(line -> locationLists.add(LocationPair.of(line)), locationLists::totalDistance);
+        }
+        var locationIds = new LocationIds();
+        return LineConsumer.of(locationIds::add, () -> isParallelFor(locationIds)
+                ? locationIds.parallelTotalDistance()
+                : locationIds.answers().totalDistance());
+    }
+
+    @Override
+    public LineConsumer part2Consumer(Void v) {
+        if (mode == Mode.BOXED) {
+            var locationLists = LocationLists.empty();
+            return LineConsumer.of(line -> locationLists.add(LocationPair.of(line)), locationLists::similarityScore);
+        }
+        var locationIds = new LocationIds();
+        return LineConsumer.of(locationIds::add, () -> isParallelFor(locationIds)
+                ? locationIds.parallelSimilarityScore()
+                : locationIds.answers().similarityScore());
+    }
+
+    /**
+     * Streamed lines are parsed one by one, but they can still be solved in parallel.
+     */
+    private boolean isParallelFor(LocationIds locationIds) {
+        return mode == Mode.PARALLEL || (mode == Mode.AUTOMATIC && locationIds.size() >= PARALLEL_THRESHOLD);
     }
 
     record LocationLists(List<Integer> leftList, List<Integer> rightList) {
@@ -29,7 +96,7 @@ class Day01 implements Day<Void> {
                     .immutable();
         }
 
-        private static LocationLists empty() {
+        static LocationLists empty() {
             return new LocationLists(new ArrayList<>(), new ArrayList<>());
         }
 
@@ -37,7 +104,7 @@ class Day01 implements Day<Void> {
             return new LocationLists(List.copyOf(leftList), List.copyOf(rightList));
         }
 
-        private LocationLists add(LocationPair locationPair) {
+        LocationLists add(LocationPair locationPair) {
             this.leftList.add((locationPair.left));
             this.rightList.add((locationPair.right));
             return this;
@@ -73,7 +140,7 @@ class Day01 implements Day<Void> {
 
         private static final Pattern REGEX = Pattern.compile("(\\d+)\\s+(\\d+)");
 
-        static LocationPair of(String line) {
+        static LocationPair of(CharSequence line) {
             var matcher = REGEX.matcher(line);
 
             if (matcher.find()) {
@@ -89,4 +156,227 @@ class Day01 implements Day<Void> {
             return Math.abs(left - right);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Both location lists as <code>int</code> arrays, parsed without any regex.
+     * <p>
+     * As location IDs are bounded, both answers are computed by one pass over a table counting the occurrences of every
+     * ID - walking the counts of both lists in ascending order pairs the smallest IDs, the second smallest ones and so on.
+     * IDs beyond the size of such a table are radix sorted instead.
+     */
+    static final class LocationIds {
+        private static final int MAX_ID_OF_COUNT_TABLE = 1 << 22;
+
+        private int[] leftIds;
+        private int[] rightIds;
+        private int size;
+        private int maxId;
+
+        LocationIds() {
+            this(1024);
+        }
+
+        private LocationIds(int capacity) {
+            this.leftIds = new int[capacity];
+            this.rightIds = new int[capacity];
+        }
+
+        static LocationIds of(List<? extends CharSequence> inputLines) {
+            var locationIds = new LocationIds();
+            inputLines.forEach(locationIds::add);
+            return locationIds;
+        }
+
+        /**
+         * Parses the lines in chunks on all cores of the fork/join pool - every line is parsed into its own index.
+         */
+        static LocationIds parallelOf(List<? extends CharSequence> inputLines) {
+            var locationIds = new LocationIds(inputLines.size());
+            IntStream.range(0, inputLines.size()).parallel().forEach(index -> locationIds.set(index, inputLines.get(index)));
+            locationIds.size = inputLines.size();
+            locationIds.maxId = Math.max(
+                    Arrays.stream(locationIds.leftIds).parallel().max().orElse(0),
+                    Arrays.stream(locationIds.rightIds).parallel().max().orElse(0));
+            return locationIds;
+        }
+
+        void add(CharSequence line) {
+            if (size == leftIds.length) {
+                leftIds = Arrays.copyOf(leftIds, size * 2);
+                rightIds = Arrays.copyOf(rightIds, size * 2);
+            }
+            set(size, line);
+            maxId = Math.max(maxId, Math.max(leftIds[size], rightIds[size]));
+            size++;
+        }
+
+        private void set(int index, CharSequence line) {
+            var position = skipWhitespace(line, 0);
+            leftIds[index] = parseId(line, position);
+            position = skipWhitespace(line, skipDigits(line, position));
+            rightIds[index] = parseId(line, position);
+        }
+
+        int size() {
+            return size;
+        }
+
+        Answers answers() {
+            return maxId < MAX_ID_OF_COUNT_TABLE ? answersByCountTable() : answersBySorting();
+        }
+
+        private Answers answersByCountTable() {
+            var leftCounts = new int[maxId + 1];
+            var rightCounts = new int[maxId + 1];
+            for (int i = 0; i < size; i++) {
+                leftCounts[leftIds[i]]++;
+                rightCounts[rightIds[i]]++;
+            }
+
+            long totalDistance = 0;
+            long similarityScore = 0;
+            var leftId = 0;
+            var rightId = 0;
+            var leftRemaining = leftCounts[0];
+            var rightRemaining = rightCounts[0];
+
+            for (int paired = 0; paired < size; ) {
+                while (leftRemaining == 0) {
+                    leftRemaining = leftCounts[++leftId];
+                    similarityScore += (long) leftId * leftRemaining * rightCounts[leftId];
+                }
+                while (rightRemaining == 0) {
+                    rightRemaining = rightCounts[++rightId];
+                }
+                var pairs = Math.min(leftRemaining, rightRemaining);
+                totalDistance += (long) pairs * Math.abs(leftId - rightId);
+                leftRemaining -= pairs;
+                rightRemaining -= pairs;
+                paired += pairs;
+            }
+            return new Answers(totalDistance, similarityScore);
+        }
+
+        private Answers answersBySorting() {
+            var left = Arrays.copyOf(leftIds, size);
+            var right = Arrays.copyOf(rightIds, size);
+            radixSort(left);
+            radixSort(right);
+
+            long totalDistance = 0;
+            for (int i = 0; i < size; i++) {
+                totalDistance += Math.abs((long) left[i] - right[i]);
+            }
+
+            long similarityScore = 0;
+            for (int l = 0, r = 0; l < size && r < size; ) {
+                if (left[l] < right[r]) {
+                    l++;
+                } else if (left[l] > right[r]) {
+                    r++;
+                } else {
+                    var id = left[l];
+                    var leftOccurrences = 0L;
+                    var rightOccurrences = 0L;
+                    for (; l < size && left[l] == id; l++) {
+                        leftOccurrences++;
+                    }
+                    for (; r < size && right[r] == id; r++) {
+                        rightOccurrences++;
+                    }
+                    similarityScore += id * leftOccurrences * rightOccurrences;
+                }
+            }
+            return new Answers(totalDistance, similarityScore);
+        }
+
+        /**
+         * Sorts both lists with {@link Arrays#parallelSort(int[])} and sums up the distances of aligned slices of them in
+         * parallel.
+         */
+        long parallelTotalDistance() {
+            var left = Arrays.copyOf(leftIds, size);
+            var right = Arrays.copyOf(rightIds, size);
+            Arrays.parallelSort(left);
+            Arrays.parallelSort(right);
+
+            return IntStream.range(0, size).parallel()
+                    .mapToLong(index -> Math.abs((long) left[index] - right[index]))
+                    .sum();
+        }
+
+        /**
+         * Based on a frequency table of the right list, which is counted concurrently - no sorting needed.
+         */
+        long parallelSimilarityScore() {
+            var leftStream = Arrays.stream(leftIds, 0, size).parallel();
+            var rightStream = Arrays.stream(rightIds, 0, size).parallel();
+
+            if (maxId < MAX_ID_OF_COUNT_TABLE) {
+                var occurrences = new AtomicIntegerArray(maxId + 1);
+                rightStream.forEach(occurrences::incrementAndGet);
+                return leftStream.mapToLong(id -> (long) id * occurrences.get(id)).sum();
+            }
+            var occurrences = new ConcurrentHashMap<Integer, LongAdder>();
+            rightStream.forEach(id -> occurrences.computeIfAbsent(id, _ -> new LongAdder()).increment());
+            return leftStream
+                    .mapToLong(id -> {
+                        var occurrencesOfId = occurrences.get(id);
+                        return occurrencesOfId == null ? 0 : id * occurrencesOfId.sum();
+                    })
+                    .sum();
+        }
+
+        /**
+         * Least significant digit first, with two digits of 16 bits - IDs are never negative.
+         */
+        private static void radixSort(int[] values) {
+            var buffer = new int[values.length];
+            for (int shift = 0; shift < Integer.SIZE; shift += 16) {
+                var counts = new int[(1 << 16) + 1];
+                for (var value : values) {
+                    counts[((value >>> shift) & 0xFFFF) + 1]++;
+                }
+                for (int digit = 0; digit < 1 << 16; digit++) {
+                    counts[digit + 1] += counts[digit];
+                }
+                for (var value : values) {
+                    buffer[counts[(value >>> shift) & 0xFFFF]++] = value;
+                }
+                System.arraycopy(buffer, 0, values, 0, values.length);
+            }
+        }
+
+        private static int skipWhitespace(CharSequence line, int index) {
+            while (index < line.length() && Character.isWhitespace(line.charAt(index))) {
+                index++;
+            }
+            return index;
+        }
+
+        private static int skipDigits(CharSequence line, int index) {
+            while (index < line.length() && isDigit(line.charAt(index))) {
+                index++;
+            }
+            return index;
+        }
+
+        private static int parseId(CharSequence line, int index) {
+            if (index >= line.length() || !isDigit(line.charAt(index))) {
+                throw new IllegalArgumentException("No locations found in '%s'".formatted(line));
+            }
+            var id = 0;
+            while (index < line.length() && isDigit(line.charAt(index))) {
+                id = Math.addExact(Math.multiplyExact(id, 10), line.charAt(index++) - '0');
+            }
+            return id;
+        }
+
+        private static boolean isDigit(char c) {
+            return c >= '0' && c <= '9';
+        }
+
+        record Answers(long totalDistance, long similarityScore) {
+        }
+    }
+}
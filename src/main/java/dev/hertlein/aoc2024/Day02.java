@@ -1,6 +1,9 @@
 package dev.hertlein.aoc2024;
 
 import com.google.common.collect.Lists;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
 
 import java.util.Arrays;
 import java.util.List;
@@ -10,16 +13,54 @@ import java.util.stream.Gatherers;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
-class Day02 implements Day<Void> {
+import static jdk.incubator.vector.VectorOperators.GE;
+import static jdk.incubator.vector.VectorOperators.LE;
+import static jdk.incubator.vector.VectorOperators.NE;
+
+class Day02 implements StreamingDay<Void> {
+
+    static final boolean IS_VECTOR_API_AVAILABLE = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    /**
+     * How the reports are checked: one by one, or in batches of one report per lane of the Vector API. The Vector API is
+     * an incubator module, so it's only available with <code>--add-modules jdk.incubator.vector</code>. Automatically,
+     * it's used if available.
+     */
+    enum Mode {
+        SCALAR, VECTOR, AUTOMATIC
+    }
+
+    private final boolean isVector;
+
+    Day02() {
+        this(Mode.AUTOMATIC);
+    }
+
+    Day02(Mode mode) {
+        if (mode == Mode.VECTOR && !IS_VECTOR_API_AVAILABLE) {
+            throw new IllegalStateException("The Vector API needs '--add-modules jdk.incubator.vector'");
+        }
+        this.isVector = mode == Mode.VECTOR || (mode == Mode.AUTOMATIC && IS_VECTOR_API_AVAILABLE);
+    }
 
     @Override
-    public Object part1(List<String> inputLines, Void v) {
-        return Reports.of(inputLines).countSafeReportsStrictly();
+    public LineConsumer part1Consumer(Void v) {
+        if (isVector) {
+            var reportBatch = new ReportBatch(false);
+            return LineConsumer.of(reportBatch::add, reportBatch::countSafeReports);
+        }
+        var levels = new Levels();
+        return LineConsumer.summing(line -> levels.parse(line).isSafeStrictly() ? 1 : 0);
     }
 
     @Override
-    public Object part2(List<String> inputLines, Void v) {
-        return Reports.of(inputLines).countSafeReportsDampened();
+    public LineConsumer part2Consumer(Void v) {
+        if (isVector) {
+            var reportBatch = new ReportBatch(true);
+            return LineConsumer.of(reportBatch::add, reportBatch::countSafeReports);
+        }
+        var levels = new Levels();
+        return LineConsumer.summing(line -> levels.parse(line).isSafeDampened() ? 1 : 0);
     }
 
     record Reports(List<Report> reports) {
@@ -42,8 +83,8 @@ class Day02 implements Day<Void> {
 
     record Report(List<Integer> levels) {
 
-        static Report of(String inputLine) {
-            var levels = Arrays.stream(inputLine.split("\\s"))
+        static Report of(CharSequence inputLine) {
+            var levels = Arrays.stream(inputLine.toString().split("\\s"))
                     .map(Integer::parseInt)
                     .toList();
             return new Report(levels);
@@ -76,4 +117,198 @@ class Day02 implements Day<Void> {
             return Stream.concat(Stream.of(this), permutations);
         }
     }
+
+    /**
+     * The levels of one report after another, parsed into an <code>int[]</code> that is reused for every report. Unlike
+     * {@link Report}, it is checked in linear time without any allocation.
+     * <p>
+     * If a report is unsafe, one of the two levels of its first unsafe pair has to be removed - removing any other level
+     * leaves that pair adjacent. So it's safe dampened, if it's safe without one of those two levels.
+     */
+    static final class Levels {
+        private static final int ASCENDING = 1;
+        private static final int DESCENDING = -1;
+        private static final int NONE = -1;
+
+        int[] values = new int[16];
+        int size;
+
+        Levels parse(CharSequence line) {
+            size = 0;
+            var index = 0;
+            while (index < line.length()) {
+                if (Character.isWhitespace(line.charAt(index))) {
+                    index++;
+                    continue;
+                }
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, size * 2);
+                }
+                var sign = 1;
+                if (line.charAt(index) == '-') {
+                    sign = -1;
+                    index++;
+                }
+                var value = 0;
+                while (index < line.length() && !Character.isWhitespace(line.charAt(index))) {
+                    value = value * 10 + Character.digit(line.charAt(index++), 10);
+                }
+                values[size++] = sign * value;
+            }
+            return this;
+        }
+
+        boolean isSafeStrictly() {
+            return firstUnsafePair(ASCENDING, NONE) == NONE || firstUnsafePair(DESCENDING, NONE) == NONE;
+        }
+
+        boolean isSafeDampened() {
+            return isSafeDampened(ASCENDING) || isSafeDampened(DESCENDING);
+        }
+
+        private boolean isSafeDampened(int direction) {
+            var unsafePair = firstUnsafePair(direction, NONE);
+            return unsafePair == NONE
+                    || firstUnsafePair(direction, unsafePair) == NONE
+                    || firstUnsafePair(direction, unsafePair + 1) == NONE;
+        }
+
+        /**
+         * @return the index of the first level of the first unsafe pair, when the level at index <code>skipped</code>
+         * is removed
+         */
+        private int firstUnsafePair(int direction, int skipped) {
+            var previous = NONE;
+            for (int index = 0; index < size; index++) {
+                if (index == skipped) {
+                    continue;
+                }
+                if (previous != NONE && !isSafeStep(values[previous], values[index], direction)) {
+                    return previous;
+                }
+                previous = index;
+            }
+            return NONE;
+        }
+
+        private static boolean isSafeStep(int level, int nextLevel, int direction) {
+            var step = (nextLevel - level) * direction;
+            return step >= 1 && step <= 3;
+        }
+    }
+
+    /**
+     * Reports checked by the Vector API, as many at once as there are lanes: the levels are kept column by column, so
+     * the n-th levels of all reports of a batch are loaded into one vector. Each lane is checked with masked compares,
+     * reports shorter than the longest one of their batch by masking their missing levels.
+     * <p>
+     * A report is safe dampened, if it's safe without some level - i.e. if the levels before that one are safe, the levels
+     * after it are safe, and so is the step bridging it. That's checked for every level of all reports at once by
+     * precomputing which suffixes of the reports are safe.
+     */
+    static final class ReportBatch {
+        private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+        private static final int LANES = SPECIES.length();
+        private static final int ASCENDING = 1;
+        private static final int DESCENDING = -1;
+
+        private final boolean isDampened;
+        private final Levels levels = new Levels();
+        private final int[] sizes = new int[LANES];
+        // the level of a report at index i is kept at i * LANES + the lane of the report
+        private int[] columns = new int[16 * LANES];
+        // masks kept as vectors, as the JIT compiler only intrinsifies loading and storing those
+        private int[] safeSuffixes = new int[16 * LANES];
+        private int reports;
+        private int maxSize;
+        private long safeReports;
+
+        ReportBatch(boolean isDampened) {
+            this.isDampened = isDampened;
+        }
+
+        void add(CharSequence line) {
+            levels.parse(line);
+            if (levels.size * LANES > columns.length) {
+                columns = Arrays.copyOf(columns, levels.size * 2 * LANES);
+                safeSuffixes = new int[columns.length];
+            }
+            for (int index = 0; index < levels.size; index++) {
+                columns[index * LANES + reports] = levels.values[index];
+            }
+            sizes[reports] = levels.size;
+            maxSize = Math.max(maxSize, levels.size);
+
+            if (++reports == LANES) {
+                check();
+            }
+        }
+
+        long countSafeReports() {
+            if (reports > 0) {
+                check();
+            }
+            return safeReports;
+        }
+
+        private void check() {
+            var sizes = IntVector.fromArray(SPECIES, this.sizes, 0);
+            var safe = isDampened
+                    ? isSafeDampened(sizes, ASCENDING).or(isSafeDampened(sizes, DESCENDING))
+                    : isSafeStrictly(sizes, ASCENDING).or(isSafeStrictly(sizes, DESCENDING));
+            safeReports += safe.and(SPECIES.indexInRange(0, reports)).trueCount();
+
+            reports = 0;
+            maxSize = 0;
+        }
+
+        private VectorMask<Integer> isSafeStrictly(IntVector sizes, int direction) {
+            var safe = SPECIES.maskAll(true);
+            for (int index = 1; index < maxSize; index++) {
+                safe = safe.and(isSafeStep(index - 1, index, sizes, direction));
+            }
+            return safe;
+        }
+
+        private VectorMask<Integer> isSafeDampened(IntVector sizes, int direction) {
+            if (maxSize <= 1) {
+                // reports with less than two levels don't have any steps, so they're safe
+                return SPECIES.maskAll(true);
+            }
+            var safeSuffix = SPECIES.maskAll(true);
+            IntVector.broadcast(SPECIES, 1).intoArray(safeSuffixes, (maxSize - 1) * LANES);
+            for (int index = maxSize - 2; index >= 0; index--) {
+                safeSuffix = safeSuffix.and(isSafeStep(index, index + 1, sizes, direction));
+                IntVector.zero(SPECIES).blend(1, safeSuffix).intoArray(safeSuffixes, index * LANES);
+            }
+
+            // without the first level
+            var safe = isSafeSuffix(Math.min(1, maxSize - 1));
+            var safePrefix = SPECIES.maskAll(true);
+            for (int removed = 1; removed < maxSize - 1; removed++) {
+                var safeWithoutRemoved = safePrefix
+                        .and(isSafeSuffix(removed + 1))
+                        .and(isSafeStep(removed - 1, removed + 1, sizes, direction));
+                safe = safe.or(safeWithoutRemoved);
+                safePrefix = safePrefix.and(isSafeStep(removed - 1, removed, sizes, direction));
+            }
+            // without the last level
+            return safe.or(safePrefix);
+        }
+
+        private VectorMask<Integer> isSafeSuffix(int index) {
+            return IntVector.fromArray(SPECIES, safeSuffixes, index * LANES).compare(NE, 0);
+        }
+
+        /**
+         * @return whether the step between the levels at the given indices is safe - or beyond the end of a report
+         */
+        private VectorMask<Integer> isSafeStep(int index, int nextIndex, IntVector sizes, int direction) {
+            var level = IntVector.fromArray(SPECIES, columns, index * LANES);
+            var nextLevel = IntVector.fromArray(SPECIES, columns, nextIndex * LANES);
+            var step = nextLevel.sub(level).mul(direction);
+
+            return step.compare(GE, 1).and(step.compare(LE, 3)).or(sizes.compare(LE, nextIndex));
+        }
+    }
 }
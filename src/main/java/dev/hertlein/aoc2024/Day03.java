@@ -1,21 +1,87 @@
 package dev.hertlein.aoc2024;
 
 import com.google.common.base.Joiner;
+import dev.hertlein.aoc2024.lib.MappedInput;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.MatchResult;
 import java.util.regex.Pattern;
+import java.util.stream.IntStream;
 
 import static dev.hertlein.aoc2024.Day03.Accumulator.NOT_NEEDED;
 
-class Day03 implements Day<Void> {
+class Day03 implements StreamingDay<Void> {
+
+    private static final Pattern MULTIPLICATIONS = Pattern.compile("mul\\((\\d+),(\\d+)\\)");
+    private static final Pattern INSTRUCTIONS = Pattern.compile("do\\(\\)|don't\\(\\)|mul\\((\\d+),(\\d+)\\)");
+
+    // below, the overhead of forking doesn't pay off
+    static final int PARALLEL_THRESHOLD = 1 << 20;
+    static final int MIN_CHUNK_SIZE = 1 << 16;
+
+    /**
+     * How the instructions are found: by regular expressions on all lines joined, or by an {@link InstructionScanner}
+     * going through the lines character by character - for corrupted memory of several GB. In parallel, chunks of the
+     * memory are scanned by all cores of the fork/join pool. Automatically, memory of at least
+     * {@link #PARALLEL_THRESHOLD} characters is scanned in parallel.
+     */
+    enum Mode {
+        REGEX, SCANNER, PARALLEL, AUTOMATIC
+    }
+
+    private final Mode mode;
+
+    Day03() {
+        this(Mode.AUTOMATIC);
+    }
+
+    Day03(Mode mode) {
+        this.mode = mode;
+    }
 
     @Override
     public Object part1(List<String> inputLines, Void v) {
+        var lines = MappedInput.viewsOf(inputLines);
+        return isParallelFor(lines) ? Chunk.parallelScanOf(lines).sumOfProducts() : StreamingDay.super.part1(inputLines, v);
+    }
+
+    @Override
+    public Object part2(List<String> inputLines, Void v) {
+        var lines = MappedInput.viewsOf(inputLines);
+        return isParallelFor(lines) ? Chunk.parallelScanOf(lines).sumIfEnabled() : StreamingDay.super.part2(inputLines, v);
+    }
+
+    private boolean isParallelFor(List<? extends CharSequence> lines) {
+        return mode == Mode.PARALLEL
+                || (mode == Mode.AUTOMATIC && lines.stream().mapToLong(CharSequence::length).sum() >= PARALLEL_THRESHOLD);
+    }
+
+    @Override
+    public LineConsumer part1Consumer(Void v) {
+        if (mode == Mode.REGEX) {
+            var inputLines = new ArrayList<String>();
+            return LineConsumer.of(line -> inputLines.add(line.toString()), () -> sumOfMultiplications(inputLines));
+        }
+        var scanner = new InstructionScanner();
+        return LineConsumer.of(scanner::scan, () -> scanner.chunk().sumOfProducts());
+    }
+
+    @Override
+    public LineConsumer part2Consumer(Void v) {
+        if (mode == Mode.REGEX) {
+            var inputLines = new ArrayList<String>();
+            return LineConsumer.of(line -> inputLines.add(line.toString()), () -> sumOfEnabledMultiplications(inputLines));
+        }
+        var scanner = new InstructionScanner();
+        return LineConsumer.of(scanner::scan, () -> scanner.chunk().sumIfEnabled());
+    }
+
+    private static long sumOfMultiplications(List<String> inputLines) {
         var joinedLines = Joiner.on("").join(inputLines);
-        Pattern regex = Pattern.compile("mul\\((\\d+),(\\d+)\\)");
 
-        return regex
+        return MULTIPLICATIONS
                 .matcher(joinedLines)
                 .results()
                 .map(Multiplication::of)
@@ -23,12 +89,10 @@ class Day03 implements Day<Void> {
                 .sum();
     }
 
-    @Override
-    public Object part2(List<String> inputLines, Void v) {
+    private static long sumOfEnabledMultiplications(List<String> inputLines) {
         var joinedLines = Joiner.on("").join(inputLines);
-        Pattern regex = Pattern.compile("do\\(\\)|don't\\(\\)|mul\\((\\d+),(\\d+)\\)");
 
-        return regex
+        return INSTRUCTIONS
                 .matcher(joinedLines)
                 .results()
                 .reduce(Accumulator.empty(),
@@ -74,4 +138,254 @@ class Day03 implements Day<Void> {
             return multiplicand * multiplier;
         }
     }
+
+    /**
+     * The result of scanning a chunk of the memory for both states it may start in: with multiplications enabled or
+     * disabled, as that depends on the <code>do()</code> and <code>don't()</code> in the chunks before. Chunks are
+     * combined in order by {@link #then(Chunk)}, which is associative - so they can be scanned and reduced in parallel.
+     *
+     * @param lastToggle the last <code>do()</code> or <code>don't()</code> in the chunk, deciding the state after it
+     */
+    record Chunk(long sumOfProducts, long sumIfEnabled, long sumIfDisabled, Toggle lastToggle) {
+
+        static final Chunk EMPTY = new Chunk(0, 0, 0, Toggle.NONE);
+
+        enum Toggle {
+            NONE, DO, DONT
+        }
+
+        /**
+         * Scans chunks of roughly equal size in parallel - a chunk may start or end within a line, as one huge line is
+         * just as likely as many short ones.
+         */
+        static Chunk parallelScanOf(List<? extends CharSequence> lines) {
+            var totalSize = lines.stream().mapToLong(CharSequence::length).sum();
+            var chunkSize = Math.max(MIN_CHUNK_SIZE, totalSize / (4L * ForkJoinPool.getCommonPoolParallelism()));
+
+            return parallelScanOf(lines, (int) Math.min(chunkSize, Integer.MAX_VALUE));
+        }
+
+        static Chunk parallelScanOf(List<? extends CharSequence> lines, int chunkSize) {
+            var starts = chunkStartsOf(lines, chunkSize);
+
+            return IntStream.range(0, starts.size() - 1)
+                    .parallel()
+                    .mapToObj(index -> scan(lines, starts.get(index), starts.get(index + 1)))
+                    .reduce(EMPTY, Chunk::then);
+        }
+
+        Chunk then(Chunk next) {
+            return new Chunk(
+                    sumOfProducts + next.sumOfProducts,
+                    sumIfEnabled + (isEnabledAfter(true) ? next.sumIfEnabled : next.sumIfDisabled),
+                    sumIfDisabled + (isEnabledAfter(false) ? next.sumIfEnabled : next.sumIfDisabled),
+                    next.lastToggle == Toggle.NONE ? lastToggle : next.lastToggle
+            );
+        }
+
+        private boolean isEnabledAfter(boolean isEnabledBefore) {
+            return switch (lastToggle) {
+                case NONE -> isEnabledBefore;
+                case DO -> true;
+                case DONT -> false;
+            };
+        }
+
+        /**
+         * An instruction belongs to the chunk it starts in, so it's scanned beyond the end of the chunk until it's
+         * complete or broken. The next chunk skips it without further ado: none of its characters starts an instruction.
+         */
+        private static Chunk scan(List<? extends CharSequence> lines, Position from, Position to) {
+            var scanner = new InstructionScanner();
+            for (int line = from.line; line <= to.line && line < lines.size(); line++) {
+                var chars = lines.get(line);
+                scanner.scan(chars, line == from.line ? from.offset : 0, line == to.line ? to.offset : chars.length());
+            }
+            for (int line = to.line, offset = to.offset; line < lines.size(); line++, offset = 0) {
+                var chars = lines.get(line);
+                for (int index = offset; index < chars.length(); index++) {
+                    if (!scanner.scanContinuation(chars.charAt(index))) {
+                        return scanner.chunk();
+                    }
+                }
+            }
+            return scanner.chunk();
+        }
+
+        /**
+         * @return the start of every chunk, followed by the end of the last one
+         */
+        private static List<Position> chunkStartsOf(List<? extends CharSequence> lines, int chunkSize) {
+            var starts = new ArrayList<Position>();
+            starts.add(new Position(0, 0));
+            var untilNextStart = chunkSize;
+            for (int line = 0; line < lines.size(); line++) {
+                var length = lines.get(line).length();
+                var offset = 0;
+                while (length - offset >= untilNextStart) {
+                    offset += untilNextStart;
+                    starts.add(new Position(line, offset));
+                    untilNextStart = chunkSize;
+                }
+                untilNextStart -= length - offset;
+            }
+            starts.add(new Position(lines.size(), 0));
+            return starts;
+        }
+
+        private record Position(int line, int offset) {
+        }
+    }
+
+    /**
+     * Finds <code>mul(a,b)</code>, <code>do()</code> and <code>don't()</code> character by character, without joining
+     * the lines: an instruction may continue on the next line, as the state of the scanner is kept between them.
+     * <p>
+     * No character inside an instruction starts another one - only 'm' and 'd' do. So when a character doesn't continue
+     * the instruction scanned so far, it's just scanned again as the potential start of the next one. Thus every
+     * character is looked at about once, and nothing is allocated per instruction.
+     */
+    static final class InstructionScanner {
+        private static final int NONE = 0;
+        private static final int M = 1;
+        private static final int MU = 2;
+        private static final int MUL = 3;
+        private static final int MUL_OPENED = 4;
+        private static final int MULTIPLICAND = 5;
+        private static final int COMMA = 6;
+        private static final int MULTIPLIER = 7;
+        private static final int D = 8;
+        private static final int DO = 9;
+        private static final int DO_OPENED = 10;
+        private static final int DON = 11;
+        private static final int DON_APOSTROPHE = 12;
+        private static final int DONT = 13;
+        private static final int DONT_OPENED = 14;
+
+        private int state = NONE;
+        private long multiplicand;
+        private long multiplier;
+        private Chunk.Toggle lastToggle = Chunk.Toggle.NONE;
+        private long sumOfProducts;
+        private long sumIfEnabled;
+        private long sumIfDisabled;
+
+        InstructionScanner scan(CharSequence chars) {
+            return scan(chars, 0, chars.length());
+        }
+
+        InstructionScanner scan(CharSequence chars, int from, int to) {
+            for (int index = from; index < to; index++) {
+                scan(chars.charAt(index));
+            }
+            return this;
+        }
+
+        /**
+         * Continues the instruction scanned so far, but doesn't start another one.
+         *
+         * @return whether the instruction is still incomplete after the character
+         */
+        boolean scanContinuation(char c) {
+            if (state == NONE) {
+                return false;
+            }
+            scan(c);
+            // only a new instruction starts with those
+            if (state == M || state == D) {
+                state = NONE;
+            }
+            return state != NONE;
+        }
+
+        /**
+         * @return the products of all characters scanned so far, for both states they may have been scanned in
+         */
+        Chunk chunk() {
+            return new Chunk(sumOfProducts, sumIfEnabled, sumIfDisabled, lastToggle);
+        }
+
+        private void scan(char c) {
+            state = switch (state) {
+                case M -> c == 'u' ? MU : start(c);
+                case MU -> c == 'l' ? MUL : start(c);
+                case MUL -> c == '(' ? MUL_OPENED : start(c);
+                case MUL_OPENED -> {
+                    if (isDigit(c)) {
+                        multiplicand = c - '0';
+                        yield MULTIPLICAND;
+                    }
+                    yield start(c);
+                }
+                case MULTIPLICAND -> {
+                    if (isDigit(c)) {
+                        multiplicand = multiplicand * 10 + (c - '0');
+                        yield MULTIPLICAND;
+                    }
+                    yield c == ',' ? COMMA : start(c);
+                }
+                case COMMA -> {
+                    if (isDigit(c)) {
+                        multiplier = c - '0';
+                        yield MULTIPLIER;
+                    }
+                    yield start(c);
+                }
+                case MULTIPLIER -> {
+                    if (isDigit(c)) {
+                        multiplier = multiplier * 10 + (c - '0');
+                        yield MULTIPLIER;
+                    }
+                    if (c == ')') {
+                        multiply();
+                        yield NONE;
+                    }
+                    yield start(c);
+                }
+                case D -> c == 'o' ? DO : start(c);
+                case DO -> c == '(' ? DO_OPENED : c == 'n' ? DON : start(c);
+                case DO_OPENED -> {
+                    if (c == ')') {
+                        lastToggle = Chunk.Toggle.DO;
+                        yield NONE;
+                    }
+                    yield start(c);
+                }
+                case DON -> c == '\'' ? DON_APOSTROPHE : start(c);
+                case DON_APOSTROPHE -> c == 't' ? DONT : start(c);
+                case DONT -> c == '(' ? DONT_OPENED : start(c);
+                case DONT_OPENED -> {
+                    if (c == ')') {
+                        lastToggle = Chunk.Toggle.DONT;
+                        yield NONE;
+                    }
+                    yield start(c);
+                }
+                default -> start(c);
+            };
+        }
+
+        private static int start(char c) {
+            return switch (c) {
+                case 'm' -> M;
+                case 'd' -> D;
+                default -> NONE;
+            };
+        }
+
+        private void multiply() {
+            var product = multiplicand * multiplier;
+            sumOfProducts += product;
+            if (lastToggle != Chunk.Toggle.DONT) {
+                sumIfEnabled += product;
+            }
+            if (lastToggle == Chunk.Toggle.DO) {
+                sumIfDisabled += product;
+            }
+        }
+
+        private static boolean isDigit(char c) {
+            return c >= '0' && c <= '9';
+        }
+    }
 }
@@ -1,6 +1,9 @@
 package dev.hertlein.aoc2024;
 
 import com.google.common.base.Joiner;
+import dev.hertlein.aoc2024.lib.Grid;
+import dev.hertlein.aoc2024.lib.GridSearch;
+import dev.hertlein.aoc2024.lib.GridSearch.Stencil;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -8,16 +11,60 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
-class Day04 implements Day<Void> {
+class Day04 implements StreamingDay<Void> {
+
+    private static final GridSearch XMAS_SEARCH = GridSearch.of(List.of("XMAS"), List.of());
+    private static final GridSearch CROSSED_MAS_SEARCH = GridSearch.of(List.of(), List.of(
+            Stencil.of("M.S", ".A.", "M.S"),
+            Stencil.of("S.M", ".A.", "S.M"),
+            Stencil.of("M.M", ".A.", "S.S"),
+            Stencil.of("S.S", ".A.", "M.M")));
+
+    /**
+     * How the words are found: as {@link Word}s collected from every cell, just counted by a {@link WordSearch} - for
+     * word searches of 50k x 50k letters, or by the general {@link GridSearch} - which finds any number of words and
+     * stencils at once.
+     */
+    enum Mode {
+        WORDS, COUNTING, GRID_SEARCH
+    }
+
+    private final Mode mode;
+
+    Day04() {
+        this(Mode.COUNTING);
+    }
+
+    Day04(Mode mode) {
+        this.mode = mode;
+    }
 
     @Override
-    public Object part1(List<String> inputLines, Void v) {
-        return XMAS.of(inputLines).countWords();
+    public LineConsumer part1Consumer(Void v) {
+        if (mode == Mode.WORDS) {
+            var inputLines = new ArrayList<String>();
+            return LineConsumer.of(line -> inputLines.add(line.toString()), () -> XMAS.of(inputLines).countWords());
+        }
+        if (mode == Mode.GRID_SEARCH) {
+            var sweep = XMAS_SEARCH.sweep();
+            return LineConsumer.of(sweep::add, sweep::totalCount);
+        }
+        var wordSearch = new WordSearch(WordSearch::countXMAS);
+        return LineConsumer.of(wordSearch::add, wordSearch::count);
     }
 
     @Override
-    public Object part2(List<String> inputLines, Void v) {
-        return CrossedMAS.of(inputLines).countWords();
+    public LineConsumer part2Consumer(Void v) {
+        if (mode == Mode.WORDS) {
+            var inputLines = new ArrayList<String>();
+            return LineConsumer.of(line -> inputLines.add(line.toString()), () -> CrossedMAS.of(inputLines).countWords());
+        }
+        if (mode == Mode.GRID_SEARCH) {
+            var sweep = CROSSED_MAS_SEARCH.sweep();
+            return LineConsumer.of(sweep::add, sweep::totalCount);
+        }
+        var wordSearch = new WordSearch(WordSearch::countCrossedMAS);
+        return LineConsumer.of(wordSearch::add, wordSearch::count);
     }
 
     record XMAS(List<Word> words) {
@@ -29,14 +76,15 @@ class Day04 implements Day<Void> {
 
         static XMAS of(List<String> inputLines) {
             var xmasWords = new ArrayList<Word>();
+            var grid = gridOf(inputLines);
 
-            CharInDirection<Integer, Integer, Integer, Character> horizontally = (y, x, i) -> charAt(inputLines, y, x + i);
-            CharInDirection<Integer, Integer, Integer, Character> vertically = (y, x, i) -> charAt(inputLines, y + i, x);
-            CharInDirection<Integer, Integer, Integer, Character> diagonallyRight = (y, x, i) -> charAt(inputLines, y + i, x + i);
-            CharInDirection<Integer, Integer, Integer, Character> diagonallyLeft = (y, x, i) -> charAt(inputLines, y + i, x - i);
+            CharInDirection<Integer, Integer, Integer, Character> horizontally = (y, x, i) -> charAt(grid, y, x + i);
+            CharInDirection<Integer, Integer, Integer, Character> vertically = (y, x, i) -> charAt(grid, y + i, x);
+            CharInDirection<Integer, Integer, Integer, Character> diagonallyRight = (y, x, i) -> charAt(grid, y + i, x + i);
+            CharInDirection<Integer, Integer, Integer, Character> diagonallyLeft = (y, x, i) -> charAt(grid, y + i, x - i);
 
-            for (int y = 0; y < inputLines.size(); y++) {
-                for (int x = 0; x < inputLines.get(y).length(); x++) {
+            for (int y = 0; y < grid.getHeight(); y++) {
+                for (int x = 0; x < grid.getWidth(); x++) {
 
                     for (var direction : List.of(horizontally, vertically, diagonallyRight, diagonallyLeft)) {
                         var word = createWordWithCharsIn(direction, y, x);
@@ -62,14 +110,15 @@ class Day04 implements Day<Void> {
 
         static CrossedMAS of(List<String> inputLines) {
             var crossWords = new ArrayList<Word>();
+            var grid = gridOf(inputLines);
 
-            for (int y = 0; y < inputLines.size(); y++) {
-                for (int x = 0; x < inputLines.get(y).length(); x++) {
-                    char topLeft = charAt(inputLines, y, x);
-                    char topRight = charAt(inputLines, y, x + 2);
-                    char center = charAt(inputLines, y + 1, x + 1);
-                    char bottomLeft = charAt(inputLines, y + 2, x);
-                    char bottomRight = charAt(inputLines, y + 2, x + 2);
+            for (int y = 0; y < grid.getHeight(); y++) {
+                for (int x = 0; x < grid.getWidth(); x++) {
+                    char topLeft = charAt(grid, y, x);
+                    char topRight = charAt(grid, y, x + 2);
+                    char center = charAt(grid, y + 1, x + 1);
+                    char bottomLeft = charAt(grid, y + 2, x);
+                    char bottomRight = charAt(grid, y + 2, x + 2);
 
                     Word word = Word.of(topLeft, topRight, center, bottomLeft, bottomRight);
 
@@ -111,13 +160,108 @@ class Day04 implements Day<Void> {
         }
     }
 
-    private static char charAt(List<String> inputLines, int y, int x) {
-        if (y < 0 || x < 0) {
-            return '.';
+    /**
+     * Counts words right on a {@link Grid}, comparing its bytes in place: an XMAS is looked for in all eight directions
+     * from every 'X', an X-MAS around every 'A'.
+     * <p>
+     * The grid is built band by band of {@link #BAND_HEIGHT} rows, so a word search of any height can be streamed through
+     * it. Every band includes the rows above and below it that its words may reach into, but only words starting within
+     * the band are counted.
+     */
+    static final class WordSearch {
+        static final int BAND_HEIGHT = 1024;
+        // the rows above or below an anchor a word may reach into
+        private static final int REACH = Word.LENGTH - 1;
+
+        @FunctionalInterface
+        interface Counter {
+            long count(Grid grid, int fromY, int toY);
+        }
+
+        private final Counter counter;
+        private final int bandHeight;
+        private final List<String> rows = new ArrayList<>();
+        // the first row of the current band; the rows before are the last ones of the band before
+        private int bandStart;
+        private long count;
+
+        WordSearch(Counter counter) {
+            this(counter, BAND_HEIGHT);
         }
-        if (y >= inputLines.size() || x >= inputLines.get(y).length()) {
-            return '.';
+
+        WordSearch(Counter counter, int bandHeight) {
+            this.counter = counter;
+            this.bandHeight = bandHeight;
         }
-        return inputLines.get(y).charAt(x);
+
+        void add(CharSequence row) {
+            rows.add(row.toString());
+            if (rows.size() == bandStart + bandHeight + REACH) {
+                count += counter.count(gridOf(rows), bandStart, bandStart + bandHeight);
+
+                var nextBandStart = bandStart + bandHeight;
+                var keptFrom = Math.max(0, nextBandStart - REACH);
+                rows.subList(0, keptFrom).clear();
+                bandStart = nextBandStart - keptFrom;
+            }
+        }
+
+        long count() {
+            return count + counter.count(gridOf(rows), bandStart, rows.size());
+        }
+
+        static long countXMAS(Grid grid, int fromY, int toY) {
+            var count = 0L;
+            for (int y = fromY; y < toY; y++) {
+                for (int index = grid.index(0, y), end = index + grid.getWidth(); index < end; index++) {
+                    if (grid.get(index) == 'X') {
+                        count += countMASFrom(grid, index);
+                    }
+                }
+            }
+            return count;
+        }
+
+        private static int countMASFrom(Grid grid, int index) {
+            var count = 0;
+            for (var offset : grid.allOffsets()) {
+                if (grid.get(index + offset) == 'M'
+                        && grid.get(index + 2 * offset) == 'A'
+                        && grid.get(index + 3 * offset) == 'S') {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        static long countCrossedMAS(Grid grid, int fromY, int toY) {
+            var topLeft = grid.offset(-1, -1);
+            var topRight = grid.offset(1, -1);
+
+            var count = 0L;
+            for (int y = fromY; y < toY; y++) {
+                for (int index = grid.index(0, y), end = index + grid.getWidth(); index < end; index++) {
+                    if (grid.get(index) == 'A'
+                            && isMS(grid.get(index + topLeft), grid.get(index - topLeft))
+                            && isMS(grid.get(index + topRight), grid.get(index - topRight))) {
+                        count++;
+                    }
+                }
+            }
+            return count;
+        }
+
+        private static boolean isMS(byte oneEnd, byte otherEnd) {
+            return (oneEnd == 'M' && otherEnd == 'S') || (oneEnd == 'S' && otherEnd == 'M');
+        }
+    }
+
+    private static Grid gridOf(List<String> inputLines) {
+        // the border is wide enough for every word starting within the grid
+        return Grid.of(inputLines, Word.LENGTH - 1);
+    }
+
+    private static char charAt(Grid grid, int y, int x) {
+        return (char) grid.get(x, y);
     }
 }
\ No newline at end of file
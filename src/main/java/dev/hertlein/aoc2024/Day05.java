@@ -1,10 +1,12 @@
 package dev.hertlein.aoc2024;
 
+import dev.hertlein.aoc2024.lib.MappedInput;
 import lombok.RequiredArgsConstructor;
 
 import java.util.*;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static dev.hertlein.aoc2024.Day05.PrintQueue.PageUpdates.sumOfMiddlePageNumbersOf;
@@ -13,16 +15,343 @@ import static java.util.Map.entry;
 import static java.util.function.Predicate.not;
 import static java.util.stream.Gatherers.windowSliding;
 
-class Day05 implements Day<Void> {
+class Day05 implements StreamingDay<Void> {
+
+    // below, the overhead of forking doesn't pay off
+    static final int PARALLEL_THRESHOLD = 1 << 14;
+    static final int BATCH_SIZE = 1 << 10;
+
+    /**
+     * How the updates are checked and fixed: with {@link PrintQueue.Page}s looked up in a map of the rules and sorted by
+     * a comparator, or by bit tests on a {@link RuleIndex} - for rules on thousands of pages and millions of updates. In
+     * parallel, the rules are indexed once and batches of updates are checked by all cores of the fork/join pool.
+     * Automatically, inputs of at least {@link #PARALLEL_THRESHOLD} lines are checked in parallel.
+     */
+    enum Mode {
+        RECORDS, BITSET, PARALLEL, AUTOMATIC
+    }
+
+    private final Mode mode;
+
+    Day05() {
+        this(Mode.AUTOMATIC);
+    }
+
+    Day05(Mode mode) {
+        this.mode = mode;
+    }
 
     @Override
     public Object part1(List<String> inputLines, Void v) {
-        return new PrintQueue(inputLines).sumOfMiddlePageNumbersOfInitiallyOrderedUpdates();
+        var lines = MappedInput.viewsOf(inputLines);
+        return isParallelFor(lines)
+                ? IndexedPrintQueue.parallelSumOfMiddlePageNumbers(lines, false)
+                : StreamingDay.super.part1(inputLines, v);
     }
 
     @Override
     public Object part2(List<String> inputLines, Void v) {
-        return new PrintQueue(inputLines).sumOfMiddlePageNumbersOfFixedMisorderedUpdates();
+        var lines = MappedInput.viewsOf(inputLines);
+        return isParallelFor(lines)
+                ? IndexedPrintQueue.parallelSumOfMiddlePageNumbers(lines, true)
+                : StreamingDay.super.part2(inputLines, v);
+    }
+
+    private boolean isParallelFor(List<? extends CharSequence> lines) {
+        return mode == Mode.PARALLEL || (mode == Mode.AUTOMATIC && lines.size() >= PARALLEL_THRESHOLD);
+    }
+
+    @Override
+    public LineConsumer part1Consumer(Void v) {
+        if (mode == Mode.RECORDS) {
+            var inputLines = new ArrayList<String>();
+            return LineConsumer.of(line -> inputLines.add(line.toString()),
+                    () -> new PrintQueue(inputLines).sumOfMiddlePageNumbersOfInitiallyOrderedUpdates());
+        }
+        var printQueue = new IndexedPrintQueue(false);
+        return LineConsumer.of(printQueue::add, printQueue::sumOfMiddlePageNumbers);
+    }
+
+    @Override
+    public LineConsumer part2Consumer(Void v) {
+        if (mode == Mode.RECORDS) {
+            var inputLines = new ArrayList<String>();
+            return LineConsumer.of(line -> inputLines.add(line.toString()),
+                    () -> new PrintQueue(inputLines).sumOfMiddlePageNumbersOfFixedMisorderedUpdates());
+        }
+        var printQueue = new IndexedPrintQueue(true);
+        return LineConsumer.of(printQueue::add, printQueue::sumOfMiddlePageNumbers);
+    }
+
+    /**
+     * The print queue read line by line: the rules are collected into a {@link RuleIndex} up to the empty line, every
+     * update after it is checked - or fixed - right away.
+     * <p>
+     * Given all lines at once, the updates are independent of each other once the rules are indexed - so batches of them
+     * are summed up in parallel, each by an {@link Update} of its own, sharing the index.
+     */
+    static final class IndexedPrintQueue {
+
+        private final boolean isFixing;
+        private RuleIndex.Builder rulesBuilder = RuleIndex.builder();
+        private Update update;
+        private long sumOfMiddlePageNumbers;
+
+        IndexedPrintQueue(boolean isFixing) {
+            this.isFixing = isFixing;
+        }
+
+        void add(CharSequence line) {
+            if (line.isEmpty()) {
+                if (update == null) {
+                    update = new Update(rulesBuilder.build());
+                    rulesBuilder = null;
+                }
+            } else if (update == null) {
+                rulesBuilder.add(line);
+            } else {
+                sumOfMiddlePageNumbers += middlePageNumberOf(update.parse(line), isFixing);
+            }
+        }
+
+        long sumOfMiddlePageNumbers() {
+            return sumOfMiddlePageNumbers;
+        }
+
+        static long parallelSumOfMiddlePageNumbers(List<? extends CharSequence> lines, boolean isFixing) {
+            return parallelSumOfMiddlePageNumbers(lines, isFixing, BATCH_SIZE);
+        }
+
+        static long parallelSumOfMiddlePageNumbers(List<? extends CharSequence> lines, boolean isFixing, int batchSize) {
+            var rulesBuilder = RuleIndex.builder();
+            var firstUpdate = 0;
+            while (firstUpdate < lines.size() && !lines.get(firstUpdate).isEmpty()) {
+                rulesBuilder.add(lines.get(firstUpdate++));
+            }
+            var rules = rulesBuilder.build();
+            var from = firstUpdate;
+            var numberOfBatches = (lines.size() - from + batchSize - 1) / batchSize;
+
+            return IntStream.range(0, numberOfBatches)
+                    .parallel()
+                    .mapToLong(batch -> {
+                        var update = new Update(rules);
+                        var sumOfMiddlePageNumbers = 0L;
+                        var to = Math.min(from + (batch + 1) * batchSize, lines.size());
+                        for (int index = from + batch * batchSize; index < to; index++) {
+                            var line = lines.get(index);
+                            if (!line.isEmpty()) {
+                                sumOfMiddlePageNumbers += middlePageNumberOf(update.parse(line), isFixing);
+                            }
+                        }
+                        return sumOfMiddlePageNumbers;
+                    })
+                    .sum();
+        }
+
+        /**
+         * @return the page in the middle of an update to be summed up - or 0, if the update isn't of interest
+         */
+        private static int middlePageNumberOf(Update update, boolean isFixing) {
+            if (!isFixing) {
+                return update.isOrderedCorrectly() ? update.pageInTheMiddle() : 0;
+            }
+            return update.isOrderedCorrectly() ? 0 : update.pageInTheMiddleOfFixedOrder();
+        }
+    }
+
+    /**
+     * The page order rules as a dense bit matrix: for every rule <code>first|second</code>, the bit of the second page is
+     * set in the row of the first one. Pages are numbered densely in the order they occur in the rules, so the matrix
+     * takes n<sup>2</sup> bits for n pages - about 12 MB for 10<sup>4</sup> pages.
+     * <p>
+     * The index is immutable once built, so it can be shared by any number of {@link Update}s.
+     */
+    static final class RuleIndex {
+
+        static final int NO_PAGE = -1;
+
+        // the ids of the pages by their numbers, NO_PAGE for pages without rules
+        private final int[] ids;
+        private final int wordsPerRow;
+        private final long[] followers;
+
+        private RuleIndex(int[] ids, int wordsPerRow, long[] followers) {
+            this.ids = ids;
+            this.wordsPerRow = wordsPerRow;
+            this.followers = followers;
+        }
+
+        static Builder builder() {
+            return new Builder();
+        }
+
+        int idOf(int pageNumber) {
+            return pageNumber < ids.length ? ids[pageNumber] : NO_PAGE;
+        }
+
+        /**
+         * @return whether there's a rule for the first page to be printed before the second one, by their ids
+         */
+        boolean isFollowedBy(int first, int second) {
+            return first != NO_PAGE && second != NO_PAGE
+                    && (followers[first * wordsPerRow + (second >>> 6)] & (1L << second)) != 0;
+        }
+
+        static final class Builder {
+
+            // the pairs of page numbers of the rules
+            private int[] rules = new int[64];
+            private int size;
+            private int maxPageNumber = -1;
+
+            private Builder() {
+            }
+
+            /**
+             * @param line a rule like <code>47|53</code>
+             */
+            void add(CharSequence line) {
+                var separator = -1;
+                for (int index = 0; index < line.length() && separator < 0; index++) {
+                    if (line.charAt(index) == '|') {
+                        separator = index;
+                    }
+                }
+                if (separator < 0) {
+                    throw new IllegalArgumentException("Not a page order rule: " + line);
+                }
+                if (size + 2 > rules.length) {
+                    rules = Arrays.copyOf(rules, rules.length * 2);
+                }
+                rules[size++] = pageNumberOf(line, 0, separator);
+                rules[size++] = pageNumberOf(line, separator + 1, line.length());
+                maxPageNumber = Math.max(maxPageNumber, Math.max(rules[size - 2], rules[size - 1]));
+            }
+
+            RuleIndex build() {
+                var ids = new int[maxPageNumber + 1];
+                Arrays.fill(ids, NO_PAGE);
+                var numberOfPages = 0;
+                for (int index = 0; index < size; index++) {
+                    if (ids[rules[index]] == NO_PAGE) {
+                        ids[rules[index]] = numberOfPages++;
+                    }
+                }
+
+                var wordsPerRow = (numberOfPages + Long.SIZE - 1) / Long.SIZE;
+                if ((long) numberOfPages * wordsPerRow > Integer.MAX_VALUE - 8) {
+                    throw new IllegalArgumentException("Too many pages for a rule index: " + numberOfPages);
+                }
+                var followers = new long[numberOfPages * wordsPerRow];
+                for (int index = 0; index < size; index += 2) {
+                    var first = ids[rules[index]];
+                    var second = ids[rules[index + 1]];
+                    followers[first * wordsPerRow + (second >>> 6)] |= 1L << second;
+                }
+                return new RuleIndex(ids, wordsPerRow, followers);
+            }
+        }
+    }
+
+    /**
+     * A single update, parsed into arrays of page numbers and their ids in a {@link RuleIndex} - reused for every line,
+     * so checking an update doesn't allocate.
+     */
+    static final class Update {
+
+        private final RuleIndex rules;
+        int[] pageNumbers = new int[32];
+        private int[] ids = new int[32];
+        int size;
+
+        Update(RuleIndex rules) {
+            this.rules = rules;
+        }
+
+        /**
+         * @param line page numbers separated by commas, like <code>75,47,61,53,29</code>
+         */
+        Update parse(CharSequence line) {
+            size = 0;
+            var from = 0;
+            while (from < line.length()) {
+                var to = from;
+                while (to < line.length() && line.charAt(to) != ',') {
+                    to++;
+                }
+                if (size == pageNumbers.length) {
+                    pageNumbers = Arrays.copyOf(pageNumbers, size * 2);
+                    ids = Arrays.copyOf(ids, size * 2);
+                }
+                pageNumbers[size] = pageNumberOf(line, from, to);
+                ids[size] = rules.idOf(pageNumbers[size]);
+                size++;
+                from = to + 1;
+            }
+            return this;
+        }
+
+        int pageInTheMiddle() {
+            return pageNumbers[size / 2];
+        }
+
+        /**
+         * Like {@link PrintQueue.PageUpdate#isOrderedCorrectly()}: there must be a rule for every page and the page next
+         * to it.
+         */
+        boolean isOrderedCorrectly() {
+            for (int index = 1; index < size; index++) {
+                if (!rules.isFollowedBy(ids[index - 1], ids[index])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return the page in the middle of the update in the order of the rules, without sorting the update: it's the
+         * page with as many pages of the update to be printed before it as after it
+         * @throws IllegalArgumentException if the rules don't order the pages of the update completely
+         */
+        int pageInTheMiddleOfFixedOrder() {
+            for (int index = 0; index < size; index++) {
+                if (numberOfPredecessors(index) == size / 2) {
+                    return pageNumbers[index];
+                }
+            }
+            throw new IllegalArgumentException("The rules don't order the update " + this);
+        }
+
+        private int numberOfPredecessors(int index) {
+            var numberOfPredecessors = 0;
+            for (int other = 0; other < size; other++) {
+                if (rules.isFollowedBy(ids[other], ids[index])) {
+                    numberOfPredecessors++;
+                }
+            }
+            return numberOfPredecessors;
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(Arrays.copyOf(pageNumbers, size));
+        }
+    }
+
+    private static int pageNumberOf(CharSequence line, int from, int to) {
+        if (from >= to) {
+            throw new IllegalArgumentException("Missing page number in: " + line);
+        }
+        var pageNumber = 0;
+        for (int index = from; index < to; index++) {
+            var digit = Character.digit(line.charAt(index), 10);
+            if (digit < 0) {
+                throw new IllegalArgumentException("Not a page number: " + line.subSequence(from, to));
+            }
+            pageNumber = pageNumber * 10 + digit;
+        }
+        return pageNumber;
     }
 
     static class PrintQueue {
@@ -48,11 +377,11 @@ class Day05 implements Day<Void> {
 
         record PageOrderRules(Map<Page, Set<Page>> pageToItsFollowers) {
 
-            static PageOrderRules of(Stream<String> inputLines) {
-                Pattern regex = Pattern.compile("(\\d+)\\|(\\d+)");
+            private static final Pattern REGEX = Pattern.compile("(\\d+)\\|(\\d+)");
 
+            static PageOrderRules of(Stream<String> inputLines) {
                 var pageToItsFollowers = inputLines
-                        .flatMap(line -> regex.matcher(line).results())
+                        .flatMap(line -> REGEX.matcher(line).results())
                         .map(matchResult -> entry(Page.of(matchResult.group(1)), Page.of(matchResult.group(2))))
                         .collect(Collectors.groupingBy(Map.Entry::getKey, Collectors.mapping(Map.Entry::getValue, Collectors.toSet())));
 
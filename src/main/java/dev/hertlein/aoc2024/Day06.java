@@ -1,24 +1,50 @@
 package dev.hertlein.aoc2024;
 
-import com.google.common.collect.Sets;
-import lombok.EqualsAndHashCode;
-import lombok.Getter;
-import lombok.RequiredArgsConstructor;
+import dev.hertlein.aoc2024.lib.Grid;
+import dev.hertlein.aoc2024.lib.Metrics;
 
 import java.util.*;
-import java.util.function.Function;
+import java.util.concurrent.RecursiveTask;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 class Day06 implements Day<Void> {
 
+    static final int MAX_CANDIDATES_PER_TASK = 16;
+
+    /**
+     * How the guard is simulated: step by step through a {@link Lab}, or from obstruction to obstruction by a
+     * {@link JumpTable} - for labs of thousands of positions squared. For every new obstruction, the jump table simulates
+     * the guard from right in front of it, as the patrol path up to there stays the same.
+     */
+    enum Mode {
+        STEPS, JUMP_TABLE
+    }
+
+    private final Mode mode;
+
+    Day06() {
+        this(Mode.JUMP_TABLE);
+    }
+
+    Day06(Mode mode) {
+        this.mode = mode;
+    }
+
     @Override
     public Object part1(List<String> inputLines, Void v) {
+        if (mode == Mode.JUMP_TABLE) {
+            return (long) JumpTable.of(new Lab(inputLines)).patrolledPositions().size();
+        }
         return new Lab(inputLines).patrolPath().length();
     }
 
     @Override
     public Object part2(List<String> inputLines, Void v) {
+        if (mode == Mode.JUMP_TABLE) {
+            return JumpTable.of(new Lab(inputLines)).countObstructionsLettingGuardGetStuck();
+        }
         Lab initialLab = new Lab(inputLines);
 
         return initialLab.patrolPath().stream().parallel()
@@ -27,173 +53,435 @@ class Day06 implements Day<Void> {
                 .count();
     }
 
-    @EqualsAndHashCode
+    /**
+     * A lab with an additional obstruction is an overlay of the lab it was created from: it shares the grid and the
+     * read-only bitmap of its obstructions, and only knows the index of that single obstruction. So creating one takes
+     * constant time and memory, and labs simulated in parallel don't copy anything.
+     */
     static class Lab {
-        private final Set<Coordinate> obstructions;
-        private final int maxY;
-        private final int maxX;
-        private Guard guard;
-
-        private Lab(int maxY, int maxX, Set<Coordinate> obstructions, GuardPosition guardPosition) {
-            this.maxY = maxY;
-            this.maxX = maxX;
-            this.obstructions = Set.copyOf(obstructions);
-            this.guard = new Guard(guardPosition);
+        private static final char OBSTRUCTION = '#';
+        private static final String GUARD_DIRECTIONS = "^>v<";
+        private static final int NO_ADDITIONAL_OBSTRUCTION = -1;
+        private static final Metrics.Counter STEPS = Metrics.counter("Day06.steps");
+        private static final Metrics.Histogram STEPS_PER_PATROL = Metrics.histogram("Day06.stepsPerPatrol");
+
+        private final Grid grid;
+        // one bit per index of the grid, set for the obstructions of the initial lab
+        private final long[] obstructions;
+        private final int additionalObstruction;
+        private final int guardStart;
+        private final int guardDirection;
+
+        private Lab(Grid grid, long[] obstructions, int additionalObstruction, int guardStart, int guardDirection) {
+            this.grid = grid;
+            this.obstructions = obstructions;
+            this.additionalObstruction = additionalObstruction;
+            this.guardStart = guardStart;
+            this.guardDirection = guardDirection;
         }
 
         Lab(List<String> inputLines) {
-            Set<Coordinate> obstructions = new HashSet<>();
-            this.maxY = inputLines.size();
-            this.maxX = inputLines.getFirst().length();
-
-            for (int y = 0; y < inputLines.size(); y++) {
-                for (int x = 0; x < inputLines.get(y).length(); x++) {
-                    var symbol = new Symbol(inputLines.get(y).charAt(x));
-
-                    if (symbol.isObstruction()) {
-                        obstructions.add(new Coordinate(x, y));
-                    } else if (symbol.isGuard()) {
-                        this.guard = new Guard(new GuardPosition(new Coordinate(x, y), symbol.toGuardDirection()));
-                    }
+            this.grid = Grid.of(inputLines);
+            this.obstructions = new long[(grid.capacity() + Long.SIZE - 1) / Long.SIZE];
+            this.additionalObstruction = NO_ADDITIONAL_OBSTRUCTION;
+
+            for (int index = 0; index < grid.capacity(); index++) {
+                if (grid.get(index) == OBSTRUCTION) {
+                    obstructions[index >>> 6] |= 1L << index;
                 }
             }
-            this.obstructions = Set.copyOf(obstructions);
+
+            var direction = 0;
+            while (direction < GUARD_DIRECTIONS.length() && grid.indexOf(GUARD_DIRECTIONS.charAt(direction)) == -1) {
+                direction++;
+            }
+            this.guardDirection = direction;
+            this.guardStart = grid.indexOf(GUARD_DIRECTIONS.charAt(direction));
         }
 
         PatrolPath patrolPath() {
-            return guard.patrolPath();
+            return new Guard().patrolPath();
         }
 
         Lab newLabWithObstructionAt(Coordinate coordinate) {
-            return new Lab(
-                    this.maxY,
-                    this.maxX,
-                    Sets.union(this.obstructions, Set.of(coordinate)),
-                    this.guard.guardPositions.getFirst());
+            return new Lab(grid, obstructions, grid.index(coordinate.x, coordinate.y), guardStart, guardDirection);
         }
 
-        private boolean isWithinLab(GuardPosition guardPosition) {
-            return guardPosition.coordinate.y >= 0
-                    && guardPosition.coordinate.y < maxY
-                    && guardPosition.coordinate.x >= 0
-                    && guardPosition.coordinate.x < maxX;
+        private boolean isWithinLab(int index) {
+            return grid.get(index) != Grid.OUTSIDE;
         }
 
-        private boolean isObstruction(Coordinate coordinate) {
-            return obstructions.contains(coordinate);
+        private boolean isObstruction(int index) {
+            return index == additionalObstruction || (obstructions[index >>> 6] & (1L << index)) != 0;
         }
 
-        @EqualsAndHashCode
-        class Guard {
-            private final List<GuardPosition> guardPositions;
-
-            Guard(GuardPosition firstPosition) {
-                this.guardPositions = new ArrayList<>();
-                this.guardPositions.add(firstPosition);
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Lab other)
+                    || guardStart != other.guardStart
+                    || guardDirection != other.guardDirection
+                    || grid.getWidth() != other.grid.getWidth()
+                    || grid.getHeight() != other.grid.getHeight()) {
+                return false;
             }
+            return IntStream.range(0, grid.capacity()).allMatch(index -> isObstruction(index) == other.isObstruction(index));
+        }
 
-            private PatrolPath patrolPath() {
-                var currentPosition = guardPositions.getLast();
-                var peek = currentPosition.moveForward();
+        @Override
+        public int hashCode() {
+            return Objects.hash(guardStart, guardDirection, grid.getWidth(), grid.getHeight());
+        }
+
+        /**
+         * A guard position is packed into an <code>int</code>: the index within the grid times four plus the direction.
+         */
+        private class Guard {
+            private int[] guardPositions = new int[64];
+            private int numberOfGuardPositions;
 
-                while (isWithinLab(peek)) {
-                    if (isObstruction(peek.coordinate)) {
-                        peek = currentPosition.turnRight();
+            private PatrolPath patrolPath() {
+                var offsets = grid.orthogonalOffsets();
+                var position = guardStart;
+                var direction = guardDirection;
+                add(position, direction);
+
+                var peekPosition = position + offsets[direction];
+                var peekDirection = direction;
+
+                var steps = 0;
+                while (isWithinLab(peekPosition)) {
+                    steps++;
+                    if (isObstruction(peekPosition)) {
+                        peekPosition = position;
+                        peekDirection = (direction + 1) % offsets.length;
                     } else {
-                        currentPosition = peek;
-                        guardPositions.add(currentPosition);
-                        peek = currentPosition.moveForward();
+                        position = peekPosition;
+                        direction = peekDirection;
+                        add(position, direction);
+                        peekPosition = position + offsets[direction];
                     }
 
-                    if (wasAlreadyVisited(peek)) {
+                    if (wasAlreadyVisited(peekPosition, peekDirection)) {
+                        record(steps);
                         return PatrolPath.STUCK;
                     }
                 }
-                return PatrolPath.of(guardPositions);
+                record(steps);
+                return PatrolPath.of(Arrays.stream(guardPositions, 0, numberOfGuardPositions)
+                        .map(guardPosition -> guardPosition / 4)
+                        .mapToObj(index -> new Coordinate(grid.x(index), grid.y(index))));
             }
 
-            private boolean wasAlreadyVisited(GuardPosition nextPosition) {
-                return guardPositions.contains(nextPosition);
+            private static void record(int steps) {
+                STEPS.add(steps);
+                STEPS_PER_PATROL.record(steps);
+            }
+
+            private void add(int position, int direction) {
+                if (numberOfGuardPositions == guardPositions.length) {
+                    guardPositions = Arrays.copyOf(guardPositions, numberOfGuardPositions * 2);
+                }
+                guardPositions[numberOfGuardPositions++] = position * 4 + direction;
+            }
+
+            private boolean wasAlreadyVisited(int position, int direction) {
+                var guardPosition = position * 4 + direction;
+                for (int i = 0; i < numberOfGuardPositions; i++) {
+                    if (guardPositions[i] == guardPosition) {
+                        return true;
+                    }
+                }
+                return false;
             }
         }
     }
 
-    private record GuardPosition(Coordinate coordinate, Direction direction) {
+    /**
+     * For every position and direction of the guard, the position in front of the next obstruction - so the guard is
+     * simulated by jumping from obstruction to obstruction. The jump table is immutable, it's shared by the simulations
+     * of all additional obstructions: a jump passing the additional obstruction just ends in front of it.
+     * <p>
+     * A guard state is packed into an <code>int</code> like in {@link Lab}: the index within the grid times four plus the
+     * direction.
+     */
+    static final class JumpTable {
+        private static final Metrics.Counter JUMPS = Metrics.counter("Day06.jumps");
+        private static final Metrics.Histogram JUMPS_PER_PATROL = Metrics.histogram("Day06.jumpsPerPatrol");
+
+        private final Lab lab;
+        private final int[] offsets;
+        // by guard state: the last position before the next obstruction - or before leaving the lab, if the bit is set
+        private final int[] stops;
+        private final long[] exits;
+
+        private JumpTable(Lab lab) {
+            this.lab = lab;
+            this.offsets = lab.grid.orthogonalOffsets();
+            this.stops = new int[lab.grid.capacity() * 4];
+            this.exits = new long[(stops.length + Long.SIZE - 1) / Long.SIZE];
+
+            for (int direction = 0; direction < offsets.length; direction++) {
+                var offset = offsets[direction];
+                // the jump from the next position in that direction is known before the jump from the position itself
+                var from = offset < 0 ? 0 : lab.grid.capacity() - 1;
+                var step = offset < 0 ? 1 : -1;
+                for (int position = from; position >= 0 && position < lab.grid.capacity(); position += step) {
+                    if (!lab.isWithinLab(position) || lab.isObstruction(position)) {
+                        continue;
+                    }
+                    var state = position * 4 + direction;
+                    var next = position + offset;
+                    if (!lab.isWithinLab(next)) {
+                        stops[state] = position;
+                        exits[state >>> 6] |= 1L << state;
+                    } else if (lab.isObstruction(next)) {
+                        stops[state] = position;
+                    } else {
+                        var nextState = next * 4 + direction;
+                        stops[state] = stops[nextState];
+                        if ((exits[nextState >>> 6] & (1L << nextState)) != 0) {
+                            exits[state >>> 6] |= 1L << state;
+                        }
+                    }
+                }
+            }
+        }
 
-        GuardPosition turnRight() {
-            return new GuardPosition(coordinate, direction.turnRight());
+        static JumpTable of(Lab lab) {
+            return new JumpTable(lab);
         }
 
-        GuardPosition moveForward() {
-            return new GuardPosition(direction.forwardFrom(coordinate), direction);
+        int startState() {
+            return lab.guardStart * 4 + lab.guardDirection;
         }
-    }
 
-    record PatrolPath(Set<Coordinate> guardPositions) {
+        int positionOf(Coordinate coordinate) {
+            return lab.grid.index(coordinate.x, coordinate.y);
+        }
 
-        static PatrolPath STUCK = new PatrolPath(Collections.emptySet());
+        Coordinate coordinateOf(int position) {
+            return new Coordinate(lab.grid.x(position), lab.grid.y(position));
+        }
 
-        static PatrolPath of(List<GuardPosition> positions) {
-            return new PatrolPath(positions.stream().map(pos -> pos.coordinate).collect(Collectors.toSet()));
+        Visits newVisits() {
+            return new Visits(stops.length);
         }
 
-        public long length() {
-            return guardPositions.size();
+        /**
+         * @return the positions the guard patrols in the lab without an additional obstruction, in the order of their
+         * first visit - or none, if the guard gets stuck
+         */
+        PatrolledPositions patrolledPositions() {
+            var capacity = lab.grid.capacity();
+            var isPatrolled = new long[(capacity + Long.SIZE - 1) / Long.SIZE];
+            var isVisited = new long[exits.length];
+            var patrolledPositions = new PatrolledPositions();
+
+            var position = startState() / 4;
+            var direction = startState() % 4;
+            isPatrolled[position >>> 6] |= 1L << position;
+            patrolledPositions.add(position, startState());
+            while (true) {
+                var state = position * 4 + direction;
+                if ((isVisited[state >>> 6] & (1L << state)) != 0) {
+                    return new PatrolledPositions();
+                }
+                isVisited[state >>> 6] |= 1L << state;
+
+                var next = position + offsets[direction];
+                if (!lab.isWithinLab(next)) {
+                    return patrolledPositions;
+                }
+                if (lab.isObstruction(next)) {
+                    direction = (direction + 1) % offsets.length;
+                } else {
+                    if ((isPatrolled[next >>> 6] & (1L << next)) == 0) {
+                        isPatrolled[next >>> 6] |= 1L << next;
+                        patrolledPositions.add(next, state);
+                    }
+                    position = next;
+                }
+            }
         }
 
-        public Stream<Coordinate> stream() {
-            return guardPositions.stream();
+        /**
+         * Simulates an additional obstruction on every patrolled position - as obstructions off the patrol path don't
+         * change it. The simulations are forked as a {@link CandidateSearch} in the current fork/join pool - or in the
+         * common pool, if not called from within a pool.
+         */
+        long countObstructionsLettingGuardGetStuck() {
+            var patrolledPositions = patrolledPositions();
+            return new CandidateSearch(patrolledPositions, 0, patrolledPositions.size()).invoke();
         }
 
-        public boolean isStuck() {
-            return this.equals(STUCK);
+        /**
+         * Counts the stuck guards for a range of the patrolled positions, halving the range until it's small enough to be
+         * simulated in one go. Simulations take from a few jumps to thousands, so halves are forked rather than batches of
+         * a fixed size: idle workers steal the halves left over by busy ones.
+         * <p>
+         * Every range allocates {@link Visits} of its own and reuses them for all its candidates, so nothing outlives the
+         * search.
+         */
+        private final class CandidateSearch extends RecursiveTask<Long> {
+            private final PatrolledPositions candidates;
+            private final int from;
+            private final int to;
+
+            private CandidateSearch(PatrolledPositions candidates, int from, int to) {
+                this.candidates = candidates;
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected Long compute() {
+                if (to - from <= MAX_CANDIDATES_PER_TASK) {
+                    var visits = newVisits();
+                    var count = 0L;
+                    for (int index = from; index < to; index++) {
+                        if (isStuck(candidates.positions[index], candidates.statesBefore[index], visits)) {
+                            count++;
+                        }
+                    }
+                    return count;
+                }
+                var middle = (from + to) >>> 1;
+                var firstHalf = new CandidateSearch(candidates, from, middle).fork();
+                var secondHalf = new CandidateSearch(candidates, middle, to).compute();
+                return firstHalf.join() + secondHalf;
+            }
         }
-    }
 
-    record Coordinate(int x, int y) {
+        /**
+         * @param obstruction the position of the additional obstruction
+         * @param start       the state of the guard to start the simulation from - any state on the patrol path before
+         *                    the guard would get to the additional obstruction
+         */
+        boolean isStuck(int obstruction, int start, Visits visits) {
+            visits.clear();
+            var position = start / 4;
+            var direction = start % 4;
+            var jumps = 0;
+
+            while (true) {
+                jumps++;
+                var state = position * 4 + direction;
+                var offset = offsets[direction];
+                var stop = stops[state];
+                var isExit = (exits[state >>> 6] & (1L << state)) != 0;
+
+                var isPassingObstruction = offset > 0
+                        ? position < obstruction && obstruction <= stop
+                        : stop <= obstruction && obstruction < position;
+                if (isPassingObstruction && (obstruction - position) % offset == 0) {
+                    stop = obstruction - offset;
+                    isExit = false;
+                }
+                if (isExit) {
+                    record(jumps);
+                    return false;
+                }
+
+                if (!visits.add(stop * 4 + direction)) {
+                    record(jumps);
+                    return true;
+                }
+                position = stop;
+                direction = (direction + 1) % offsets.length;
+            }
+        }
+
+        private static void record(int jumps) {
+            JUMPS.add(jumps);
+            JUMPS_PER_PATROL.record(jumps);
+        }
     }
 
-    private record Symbol(char value) {
+    /**
+     * The positions patrolled by the guard, each with the state of the guard right before getting there for the first
+     * time.
+     */
+    static final class PatrolledPositions {
+        private int[] positions = new int[64];
+        private int[] statesBefore = new int[64];
+        private int size;
+
+        private void add(int position, int stateBefore) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+                statesBefore = Arrays.copyOf(statesBefore, size * 2);
+            }
+            positions[size] = position;
+            statesBefore[size] = stateBefore;
+            size++;
+        }
 
-        boolean isGuard() {
-            return Direction.IDENTIFIERS.containsKey(value);
+        int size() {
+            return size;
         }
 
-        Direction toGuardDirection() {
-            return Direction.IDENTIFIERS.get(value);
+        int position(int index) {
+            return positions[index];
+        }
+    }
+
+    /**
+     * The guard states visited in one simulation, as a bitset over all states. Only the states set are cleared for the
+     * next simulation, so reusing the bitset is cheap however large the lab is.
+     */
+    static final class Visits {
+        private final long[] bits;
+        private int[] states = new int[64];
+        private int size;
+
+        private Visits(int numberOfStates) {
+            this.bits = new long[(numberOfStates + Long.SIZE - 1) / Long.SIZE];
         }
 
-        boolean isObstruction() {
-            return value == '#';
+        /**
+         * @return whether the state wasn't visited before
+         */
+        boolean add(int state) {
+            if ((bits[state >>> 6] & (1L << state)) != 0) {
+                return false;
+            }
+            bits[state >>> 6] |= 1L << state;
+            if (size == states.length) {
+                states = Arrays.copyOf(states, size * 2);
+            }
+            states[size++] = state;
+            return true;
+        }
+
+        void clear() {
+            for (int i = 0; i < size; i++) {
+                bits[states[i] >>> 6] = 0;
+            }
+            size = 0;
         }
     }
 
-    @Getter
-    @RequiredArgsConstructor
-    private enum Direction {
-        NORTH('^'), SOUTH('v'), WEST('<'), EAST('>');
+    record PatrolPath(Set<Coordinate> guardPositions) {
+
+        static PatrolPath STUCK = new PatrolPath(Collections.emptySet());
 
-        private final char identifier;
+        static PatrolPath of(Stream<Coordinate> positions) {
+            return new PatrolPath(positions.collect(Collectors.toSet()));
+        }
 
-        static final Map<Character, Direction> IDENTIFIERS = Arrays.stream(Direction.values())
-                .collect(Collectors.toMap(Direction::getIdentifier, Function.identity()));
+        public long length() {
+            return guardPositions.size();
+        }
 
-        Direction turnRight() {
-            return switch (this) {
-                case NORTH -> Direction.EAST;
-                case SOUTH -> Direction.WEST;
-                case WEST -> Direction.NORTH;
-                case EAST -> Direction.SOUTH;
-            };
+        public Stream<Coordinate> stream() {
+            return guardPositions.stream();
         }
 
-        Coordinate forwardFrom(Coordinate currentPosition) {
-            return switch (this) {
-                case NORTH -> new Coordinate(currentPosition.x, currentPosition.y - 1);
-                case SOUTH -> new Coordinate(currentPosition.x, currentPosition.y + 1);
-                case WEST -> new Coordinate(currentPosition.x - 1, currentPosition.y);
-                case EAST -> new Coordinate(currentPosition.x + 1, currentPosition.y);
-            };
+        public boolean isStuck() {
+            return this.equals(STUCK);
         }
     }
+
+    record Coordinate(int x, int y) {
+    }
 }
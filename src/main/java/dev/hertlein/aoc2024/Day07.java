@@ -1,21 +1,82 @@
 package dev.hertlein.aoc2024;
 
+import dev.hertlein.aoc2024.lib.MappedInput;
+
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
+import java.util.stream.StreamSupport;
 
 import static dev.hertlein.aoc2024.Day07.Operator.*;
 
-class Day07 implements Day<Void> {
+class Day07 implements StreamingDay<Void> {
+
+    // below, the overhead of forking doesn't pay off
+    static final int PARALLEL_THRESHOLD = 1 << 12;
+
+    /**
+     * How the equations are solved: forwards, trying all operators from the first operand on - or backwards from the
+     * test result by a {@link ReverseSolver}, which prunes all operators that can't lead to the test result. In parallel,
+     * the {@link ParsedEquations} are solved backwards by all cores of the fork/join pool. Automatically, inputs of at
+     * least {@link #PARALLEL_THRESHOLD} equations are solved in parallel.
+     */
+    enum Mode {
+        FORWARD, REVERSE, PARALLEL, AUTOMATIC
+    }
+
+    private final Mode mode;
+
+    Day07() {
+        this(Mode.AUTOMATIC);
+    }
+
+    Day07(Mode mode) {
+        this.mode = mode;
+    }
 
     @Override
     public Object part1(List<String> inputLines, Void v) {
-        return Equations.of(inputLines).calibrationResultWith(Set.of(ADD, MULTIPLY));
+        var lines = MappedInput.viewsOf(inputLines);
+        return isParallelFor(lines)
+                ? ParsedEquations.of(lines).parallelCalibrationResultWith(Set.of(ADD, MULTIPLY))
+                : StreamingDay.super.part1(inputLines, v);
     }
 
     @Override
     public Object part2(List<String> inputLines, Void v) {
-        return Equations.of(inputLines).calibrationResultWith(Set.of(ADD, MULTIPLY, CONCAT));
+        var lines = MappedInput.viewsOf(inputLines);
+        return isParallelFor(lines)
+                ? ParsedEquations.of(lines).parallelCalibrationResultWith(Set.of(ADD, MULTIPLY, CONCAT))
+                : StreamingDay.super.part2(inputLines, v);
+    }
+
+    private boolean isParallelFor(List<? extends CharSequence> lines) {
+        return mode == Mode.PARALLEL || (mode == Mode.AUTOMATIC && lines.size() >= PARALLEL_THRESHOLD);
+    }
+
+    @Override
+    public LineConsumer part1Consumer(Void v) {
+        return calibrationResultWith(Set.of(ADD, MULTIPLY));
+    }
+
+    @Override
+    public LineConsumer part2Consumer(Void v) {
+        return calibrationResultWith(Set.of(ADD, MULTIPLY, CONCAT));
+    }
+
+    private LineConsumer calibrationResultWith(Set<Operator> operators) {
+        if (mode != Mode.FORWARD) {
+            var solver = new ReverseSolver(operators);
+            return LineConsumer.summing(line -> solver.parse(line).isTestResultPossiblyCorrect() ? solver.testResult() : 0);
+        }
+        return LineConsumer.summing(line -> {
+            var equation = Equation.of(line);
+            return equation.isTestResultPossiblyCorrectWith(operators) ? equation.testResult() : 0;
+        });
     }
 
     record Equations(List<Equation> equations) {
@@ -37,8 +98,8 @@ class Day07 implements Day<Void> {
 
     record Equation(long testResult, List<Long> operands) {
 
-        static Equation of(String inputLine) {
-            var testResultAndOperands = inputLine.split(": ");
+        static Equation of(CharSequence inputLine) {
+            var testResultAndOperands = inputLine.toString().split(": ");
 
             var testResult = Long.parseLong(testResultAndOperands[0]);
             var operands = Arrays.stream(testResultAndOperands[1].split(" "))
@@ -70,24 +131,266 @@ class Day07 implements Day<Void> {
         }
     }
 
+    /**
+     * An equation solved backwards: the last operand is taken off the test result by the inverse of every operator,
+     * as long as that's possible - a sum must be at least the operand, a product must be divisible by it and a
+     * concatenation must end with its digits. So most operators are pruned right away, instead of exploring all
+     * 3<sup>n</sup> combinations of them.
+     * <p>
+     * The solver is reused for every line, so solving an equation doesn't allocate. Operands are expected to be
+     * non-negative, like in the puzzle.
+     */
+    static final class ReverseSolver {
+
+        private final Operator[] operators;
+        private long testResult;
+        long[] operands = new long[16];
+        int size;
+
+        ReverseSolver(Set<Operator> operators) {
+            this.operators = operators.toArray(Operator[]::new);
+        }
+
+        /**
+         * @param line an equation like <code>3267: 81 40 27</code>
+         */
+        ReverseSolver parse(CharSequence line) {
+            size = 0;
+            var number = 0L;
+            var isInNumber = false;
+            var isTestResult = true;
+            for (int index = 0; index <= line.length(); index++) {
+                var c = index < line.length() ? line.charAt(index) : ' ';
+                if (c >= '0' && c <= '9') {
+                    number = number * 10 + (c - '0');
+                    isInNumber = true;
+                } else if (isInNumber) {
+                    if (isTestResult) {
+                        testResult = number;
+                        isTestResult = false;
+                    } else {
+                        if (size == operands.length) {
+                            operands = Arrays.copyOf(operands, size * 2);
+                        }
+                        operands[size++] = number;
+                    }
+                    number = 0;
+                    isInNumber = false;
+                }
+            }
+            if (size == 0) {
+                throw new IllegalArgumentException("Not an equation: " + line);
+            }
+            return this;
+        }
+
+        long testResult() {
+            return testResult;
+        }
+
+        boolean isTestResultPossiblyCorrect() {
+            return isPossiblyResultOf(operators, operands, 0, size, testResult);
+        }
+
+        /**
+         * @return whether the operands from index <code>from</code> up to - not including - index <code>to</code> can
+         * be combined to the given result
+         */
+        static boolean isPossiblyResultOf(Operator[] operators, long[] operands, int from, int to, long result) {
+            if (to - from == 1) {
+                return result == operands[from];
+            }
+            for (var operator : operators) {
+                var operand1 = operator.unapply(result, operands[to - 1]);
+                if (operand1 == Operator.ANY_OPERAND) {
+                    return true;
+                }
+                if (operand1 != Operator.NO_OPERAND && isPossiblyResultOf(operators, operands, from, to - 1, operand1)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * All equations parsed into flat arrays, to be solved in parallel: the operands of equation <code>i</code> are
+     * <code>operands[starts[i]]</code> up to <code>operands[starts[i + 1]]</code>.
+     * <p>
+     * The equations are split into chunks of about the same number of operands by an {@link EquationSpliterator}.
+     * The last operator of an equation of at least {@link #MIN_OPERANDS_TO_FORK} operands is chosen in parallel, too -
+     * so a single long equation doesn't keep one core busy while all others are done.
+     */
+    record ParsedEquations(long[] testResults, int[] starts, long[] operands) {
+
+        static final int MIN_EQUATIONS_PER_CHUNK = 64;
+        static final int MIN_OPERANDS_TO_FORK = 16;
+
+        static ParsedEquations of(List<? extends CharSequence> lines) {
+            // just for parsing
+            var solver = new ReverseSolver(Set.of());
+            var testResults = new long[lines.size()];
+            var starts = new int[lines.size() + 1];
+            var operands = new long[lines.size() * 8];
+            for (int index = 0; index < lines.size(); index++) {
+                solver.parse(lines.get(index));
+                testResults[index] = solver.testResult();
+                starts[index + 1] = starts[index] + solver.size;
+                if (starts[index + 1] > operands.length) {
+                    operands = Arrays.copyOf(operands, Math.max(operands.length * 2, starts[index + 1]));
+                }
+                System.arraycopy(solver.operands, 0, operands, starts[index], solver.size);
+            }
+            return new ParsedEquations(testResults, starts, operands);
+        }
+
+        int size() {
+            return testResults.length;
+        }
+
+        long parallelCalibrationResultWith(Set<Operator> operators) {
+            return parallelCalibrationResultWith(operators, MIN_EQUATIONS_PER_CHUNK);
+        }
+
+        long parallelCalibrationResultWith(Set<Operator> operators, int minEquationsPerChunk) {
+            var operatorArray = operators.toArray(Operator[]::new);
+
+            return StreamSupport.intStream(new EquationSpliterator(0, size(), minEquationsPerChunk), true)
+                    .filter(index -> isTestResultPossiblyCorrect(operatorArray, index))
+                    .mapToLong(index -> testResults[index])
+                    .sum();
+        }
+
+        private boolean isTestResultPossiblyCorrect(Operator[] operators, int index) {
+            var from = starts[index];
+            var to = starts[index + 1];
+            if (to - from < MIN_OPERANDS_TO_FORK) {
+                return ReverseSolver.isPossiblyResultOf(operators, operands, from, to, testResults[index]);
+            }
+            var choices = new ArrayList<ForkJoinTask<Boolean>>();
+            for (var operator : operators) {
+                var operand1 = operator.unapply(testResults[index], operands[to - 1]);
+                if (operand1 == Operator.ANY_OPERAND) {
+                    return true;
+                }
+                if (operand1 != Operator.NO_OPERAND) {
+                    choices.add(ForkJoinTask.adapt(() ->
+                            ReverseSolver.isPossiblyResultOf(operators, operands, from, to - 1, operand1)));
+                }
+            }
+            return ForkJoinTask.invokeAll(choices).stream().anyMatch(ForkJoinTask::join);
+        }
+
+        /**
+         * Splits a range of equations in halves of about the same number of operands, down to a minimum number of
+         * equations per chunk.
+         */
+        private final class EquationSpliterator implements Spliterator.OfInt {
+            private int from;
+            private final int to;
+            private final int minEquationsPerChunk;
+
+            private EquationSpliterator(int from, int to, int minEquationsPerChunk) {
+                this.from = from;
+                this.to = to;
+                this.minEquationsPerChunk = minEquationsPerChunk;
+            }
+
+            @Override
+            public OfInt trySplit() {
+                if (to - from < 2 * minEquationsPerChunk) {
+                    return null;
+                }
+                var middleOperand = (starts[from] + starts[to]) >>> 1;
+                var middle = Arrays.binarySearch(starts, from, to, middleOperand);
+                middle = Math.clamp(middle < 0 ? -middle - 1 : middle, from + minEquationsPerChunk, to - minEquationsPerChunk);
+
+                var firstHalf = new EquationSpliterator(from, middle, minEquationsPerChunk);
+                from = middle;
+                return firstHalf;
+            }
+
+            @Override
+            public boolean tryAdvance(IntConsumer action) {
+                if (from >= to) {
+                    return false;
+                }
+                action.accept(from++);
+                return true;
+            }
+
+            @Override
+            public long estimateSize() {
+                return to - from;
+            }
+
+            @Override
+            public int characteristics() {
+                return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+            }
+        }
+    }
+
     enum Operator {
         ADD {
             @Override
             long apply(long operand1, long operand2) {
                 return operand1 + operand2;
             }
+
+            @Override
+            long unapply(long result, long operand2) {
+                return result >= operand2 ? result - operand2 : NO_OPERAND;
+            }
         }, MULTIPLY {
             @Override
             long apply(long operand1, long operand2) {
                 return operand1 * operand2;
             }
+
+            @Override
+            long unapply(long result, long operand2) {
+                if (operand2 == 0) {
+                    return result == 0 ? ANY_OPERAND : NO_OPERAND;
+                }
+                return result % operand2 == 0 ? result / operand2 : NO_OPERAND;
+            }
         }, CONCAT {
             @Override
             long apply(long operand1, long operand2) {
-                return Long.parseLong("" + operand1 + operand2);
+                return operand1 * powerOfTenAbove(operand2) + operand2;
+            }
+
+            @Override
+            long unapply(long result, long operand2) {
+                var powerOfTen = powerOfTenAbove(operand2);
+                return result % powerOfTen == operand2 ? result / powerOfTen : NO_OPERAND;
             }
         };
 
+        static final long NO_OPERAND = -1;
+        static final long ANY_OPERAND = -2;
+        private static final long MAX_POWER_OF_TEN = 1_000_000_000_000_000_000L;
+
         abstract long apply(long operand1, long operand2);
+
+        /**
+         * The inverse of {@link #apply(long, long)} for non-negative operands.
+         *
+         * @return the first operand, which the operator combines with the second one to the given result -
+         * {@link #NO_OPERAND} if there is none, {@link #ANY_OPERAND} if every operand would do
+         */
+        abstract long unapply(long result, long operand2);
+
+        /**
+         * @return the power of ten to shift an operand by, so that another one fits into its last digits
+         */
+        private static long powerOfTenAbove(long operand) {
+            var powerOfTen = 10L;
+            while (powerOfTen <= operand && powerOfTen < MAX_POWER_OF_TEN) {
+                powerOfTen *= 10;
+            }
+            return powerOfTen;
+        }
     }
 }
@@ -1,7 +1,11 @@
 package dev.hertlein.aoc2024;
 
-import java.util.*;
-import java.util.stream.Collectors;
+import dev.hertlein.aoc2024.lib.Grid;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 class Day08 implements Day<Void> {
@@ -10,118 +14,106 @@ class Day08 implements Day<Void> {
     public Object part1(List<String> inputLines, Void v) {
         var map = AntennaMap.of(inputLines);
 
-        return map.findAntinodes(map::findSimple)
-                .distinct()
-                .count();
+        return map.countDistinctAntinodes(map::findSimple);
     }
 
     @Override
     public Object part2(List<String> inputLines, Void v) {
         var map = AntennaMap.of(inputLines);
 
-        return map.findAntinodes(map::findResonantHarmonic)
-                .distinct()
-                .count();
+        return map.countDistinctAntinodes(map::findResonantHarmonic);
     }
 
+    /**
+     * Antennas and antinodes are addressed by their index within the grid.
+     */
     record AntennaMap(
-            int maxX,
-            int maxY,
-            List<Antenna> antennas) {
+            Grid grid,
+            List<int[]> antennasByFrequency) {
 
         static AntennaMap of(List<String> inputLines) {
-            var antennas = new ArrayList<Antenna>();
+            var grid = Grid.of(inputLines);
+            var antennasByFrequency = new HashMap<Byte, IntStream.Builder>();
 
-            for (int y = 0; y < inputLines.size(); y++) {
-                for (int x = 0; x < inputLines.get(y).length(); x++) {
+            for (int y = 0; y < grid.getHeight(); y++) {
+                for (int x = 0; x < grid.getWidth(); x++) {
 
-                    var symbol = inputLines.get(y).charAt(x);
-                    if (Antenna.isAntenna(symbol)) {
-                        antennas.add(new Antenna(new Coordinate(x, y), symbol));
+                    var index = grid.index(x, y);
+                    if (isAntenna(grid.get(index))) {
+                        antennasByFrequency.computeIfAbsent(grid.get(index), _ -> IntStream.builder()).add(index);
                     }
                 }
             }
-            return new AntennaMap(inputLines.getFirst().length(), inputLines.size(), antennas);
+            return new AntennaMap(grid, antennasByFrequency.values().stream().map(antennas -> antennas.build().toArray()).toList());
         }
 
-        private boolean isWithinMap(Antinode antinode) {
-            return antinode.coordinate.x >= 0 &&
-                    antinode.coordinate.x < maxX &&
-                    antinode.coordinate.y >= 0 &&
-                    antinode.coordinate.y < maxY;
+        private static boolean isAntenna(byte symbol) {
+            return symbol != '.' && symbol != '#';
         }
 
-        Stream<Antinode> findAntinodes(AntinodeFinder finder) {
-            return antennas.stream()
-                    .collect(Collectors.groupingBy(antenna -> antenna.frequency))
-                    .values()
-                    .stream()
-                    .map(antennasOfSameFrequency ->
-                            findAntinodesForAntennasWithSameFrequency(
-                                    finder,
-                                    new HashSet<>(),
-                                    antennasOfSameFrequency
-                            ))
-                    .flatMap(Collection::stream);
-        }
+        long countDistinctAntinodes(AntinodeFinder finder) {
+            var isAntinode = new boolean[grid.capacity()];
 
-        private Set<Antinode> findAntinodesForAntennasWithSameFrequency(AntinodeFinder finder,
-                                                                        Set<Antinode> antinodes,
-                                                                        List<Antenna> remainingAntennas) {
-            if (remainingAntennas.isEmpty()) {
-                return antinodes;
+            for (var antennas : antennasByFrequency) {
+                findAntinodes(finder, antennas, antinode -> isAntinode[antinode] = true);
             }
+            return IntStream.range(0, isAntinode.length).filter(index -> isAntinode[index]).count();
+        }
 
-            var thisAntenna = remainingAntennas.getFirst();
-            List<Antenna> otherAntennas = remainingAntennas.subList(1, remainingAntennas.size());
-
-            Set<Antinode> newAntinodes = otherAntennas.stream()
-                    .flatMap(otherAntenna -> finder.find(thisAntenna, otherAntenna))
-                    .filter(this::isWithinMap)
-                    .collect(Collectors.toSet());
-
-            antinodes.addAll(newAntinodes);
-
-            return findAntinodesForAntennasWithSameFrequency(
-                    finder,
-                    antinodes,
-                    otherAntennas
-            );
+        /**
+         * @return the antinodes of every frequency, without duplicates within a frequency
+         */
+        Stream<Antinode> findAntinodes(AntinodeFinder finder) {
+            return antennasByFrequency.stream()
+                    .flatMap(antennas -> {
+                        var antinodes = IntStream.builder();
+                        findAntinodes(finder, antennas, antinodes);
+
+                        return antinodes.build()
+                                .distinct()
+                                .mapToObj(antinode -> Antinode.of(grid.x(antinode), grid.y(antinode)));
+                    });
         }
 
-        Stream<Antinode> findSimple(Antenna thisAntenna, Antenna otherAntenna) {
-            var distance1 = thisAntenna.distanceTo(otherAntenna);
-            var distance2 = otherAntenna.distanceTo(thisAntenna);
-            return Stream.of(
-                    otherAntenna.plus(distance1.times2()),
-                    thisAntenna.plus(distance2.times2()));
+        private void findAntinodes(AntinodeFinder finder, int[] antennas, IntConsumer antinodes) {
+            for (int i = 0; i < antennas.length; i++) {
+                for (int j = i + 1; j < antennas.length; j++) {
+                    finder.find(antennas[i], antennas[j], antinodes);
+                }
+            }
         }
 
-        Stream<Antinode> findResonantHarmonic(Antenna thisAntenna, Antenna otherAntenna) {
-            Set<Antinode> antinodes = new HashSet<>();
-            var distance1 = thisAntenna.distanceTo(otherAntenna);
-            var distance2 = otherAntenna.distanceTo(thisAntenna);
+        void findSimple(int thisAntenna, int otherAntenna, IntConsumer antinodes) {
+            var dx = grid.x(thisAntenna) - grid.x(otherAntenna);
+            var dy = grid.y(thisAntenna) - grid.y(otherAntenna);
+
+            addIfWithinMap(grid.x(thisAntenna) + dx, grid.y(thisAntenna) + dy, antinodes);
+            addIfWithinMap(grid.x(otherAntenna) - dx, grid.y(otherAntenna) - dy, antinodes);
+        }
 
-            var antinode1 = otherAntenna.plus(distance1);
-            var antinode2 = thisAntenna.plus(distance2);
+        void findResonantHarmonic(int thisAntenna, int otherAntenna, IntConsumer antinodes) {
+            var dx = grid.x(thisAntenna) - grid.x(otherAntenna);
+            var dy = grid.y(thisAntenna) - grid.y(otherAntenna);
 
-            while (isWithinMap(antinode1)) {
-                antinodes.add(antinode1);
-                antinode1 = antinode1.plus(distance1);
+            for (int x = grid.x(thisAntenna), y = grid.y(thisAntenna); grid.isInside(x, y); x += dx, y += dy) {
+                antinodes.accept(grid.index(x, y));
             }
+            for (int x = grid.x(otherAntenna), y = grid.y(otherAntenna); grid.isInside(x, y); x -= dx, y -= dy) {
+                antinodes.accept(grid.index(x, y));
+            }
+        }
 
-            while (isWithinMap(antinode2)) {
-                antinodes.add(antinode2);
-                antinode2 = antinode2.plus(distance2);
+        private void addIfWithinMap(int x, int y, IntConsumer antinodes) {
+            if (grid.isInside(x, y)) {
+                antinodes.accept(grid.index(x, y));
             }
-            return antinodes.stream();
         }
     }
 
     @FunctionalInterface
     interface AntinodeFinder {
 
-        Stream<Antinode> find(Antenna thisAntenna, Antenna otherAntenna);
+        void find(int thisAntenna, int otherAntenna, IntConsumer antinodes);
     }
 
     record Antinode(Coordinate coordinate) {
@@ -129,40 +121,8 @@ class Day08 implements Day<Void> {
         static Antinode of(int x, int y) {
             return new Antinode(new Coordinate(x, y));
         }
-
-        Antinode plus(Vector vector) {
-            return new Antinode(coordinate.plus(vector));
-        }
-    }
-
-    record Antenna(Coordinate coordinate, char frequency) {
-
-        static boolean isAntenna(char c) {
-            return c != '.' && c != '#';
-        }
-
-        Vector distanceTo(Antenna other) {
-            return new Vector(
-                    this.coordinate.x - other.coordinate.x,
-                    this.coordinate.y - other.coordinate.y);
-        }
-
-        Antinode plus(Vector vector) {
-            return new Antinode(coordinate.plus(vector));
-        }
-    }
-
-    record Vector(int x, int y) {
-
-        Vector times2() {
-            return new Vector(x * 2, y * 2);
-        }
     }
 
     record Coordinate(int x, int y) {
-
-        Coordinate plus(Vector vector) {
-            return new Coordinate(this.x + vector.x, this.y + vector.y);
-        }
     }
 }
@@ -1,14 +1,9 @@
 package dev.hertlein.aoc2024;
 
-import dev.hertlein.aoc2024.Day10.TopologyMap.HikingPoint;
-import lombok.AllArgsConstructor;
-import lombok.Getter;
-import lombok.ToString;
-import org.apache.commons.lang3.tuple.Pair;
+import dev.hertlein.aoc2024.lib.Grid;
 
-import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.List;
+import java.util.stream.IntStream;
 
 class Day10 implements Day<Void> {
 
@@ -22,150 +17,87 @@ class Day10 implements Day<Void> {
         return new TopologyMap(inputLines).sumOfTrailheadsRatings();
     }
 
-    @AllArgsConstructor
     static class TopologyMap {
+        private static final char TRAIL_HEAD = '0';
+        private static final char TRAIL_END = '9';
 
-        private final Map<Coordinate, HikingPoint> availableHikingPoints;
+        private final Grid heights;
 
         TopologyMap(List<String> inputLines) {
-            var points = new HashMap<Coordinate, HikingPoint>();
-
-            for (int y = 0; y < inputLines.size(); y++) {
-                for (int x = 0; x < inputLines.get(y).length(); x++) {
-                    var height = inputLines.get(y).charAt(x);
-                    if (height != '.') {
-                        var coordinate = new Coordinate(x, y);
-                        points.put(coordinate, new HikingPoint(coordinate, height));
-                    }
-                }
-            }
-            this.availableHikingPoints = Map.copyOf(points);
+            this.heights = Grid.of(inputLines);
         }
 
         long sumOfTrailheadsScores() {
-            return findTrailHeads().mapToLong(HikingPoint::score).sum();
+            // reached trail ends are marked with the index of the trail head, so no clearing is needed between trail heads
+            var reachedBy = new int[heights.capacity()];
+            var stack = new int[heights.capacity()];
+
+            return findTrailHeads()
+                    .mapToLong(trailHead -> score(trailHead, reachedBy, stack))
+                    .sum();
         }
 
         long sumOfTrailheadsRatings() {
-            return findTrailHeads().mapToLong(HikingPoint::rating).sum();
+            var ratings = ratings();
+            return findTrailHeads().mapToLong(trailHead -> ratings[trailHead]).sum();
         }
 
-        private Stream<HikingPoint> findTrailHeads() {
-            return availableHikingPoints.values().stream().filter(HikingPoint::isTrailHead);
+        private IntStream findTrailHeads() {
+            return IntStream.range(0, heights.capacity()).filter(index -> heights.get(index) == TRAIL_HEAD);
         }
 
-        @AllArgsConstructor
-        @Getter
-        @ToString
-        class HikingPoint {
-
-            private final Coordinate coordinate;
-            private final int height;
-
-            HikingPoint(Coordinate coordinate, char height) {
-                this(coordinate, Character.getNumericValue(height));
-            }
-
-            boolean isTrailHead() {
-                return height == 0;
-            }
-
-            boolean isTrailEnd() {
-                return height == 9;
-            }
-
-            private int heightIncreaseTo(HikingPoint other) {
-                return other.height - this.height;
-            }
-
-            boolean isHeightIncreaseBy1To(HikingPoint other) {
-                return heightIncreaseTo(other) == 1;
-            }
-
-            long score() {
-                return findTrailEnds(Set.of(this)).size();
-            }
-
-            long rating() {
-                var start = List.of(new HikingTrail(List.of(this)));
-                return findTrails(start).stream().distinct().count();
-            }
-
-            private Set<HikingPoint> findTrailEnds(Set<HikingPoint> hikingPoints) {
-                if (hikingPoints.stream().allMatch(HikingPoint::isTrailEnd)) {
-                    return hikingPoints;
+        private long score(int trailHead, int[] reachedBy, int[] stack) {
+            var mark = trailHead + 1;
+            var score = 0L;
+            var size = 0;
+            stack[size++] = trailHead;
+            reachedBy[trailHead] = mark;
+
+            while (size > 0) {
+                var current = stack[--size];
+                if (heights.get(current) == TRAIL_END) {
+                    score++;
+                    continue;
                 }
-
-                var nextHikingPoints = hikingPoints.stream()
-                        .flatMap(HikingPoint::nextPoints)
-                        .collect(Collectors.toSet());
-
-                return findTrailEnds(nextHikingPoints);
-            }
-
-            private List<HikingTrail> findTrails(List<HikingTrail> trails) {
-                if (trails.stream().allMatch(HikingTrail::hasEnded)) {
-                    return trails;
+                for (var offset : heights.orthogonalOffsets()) {
+                    var next = current + offset;
+                    if (reachedBy[next] != mark && isHeightIncreaseBy1(current, next)) {
+                        reachedBy[next] = mark;
+                        stack[size++] = next;
+                    }
                 }
-
-                var spawnedTrails = trails.stream()
-                        .map(trail -> Pair.of(trail, trail.lastPoint()))
-                        .map(trailAndLastPoint -> Pair.of(trailAndLastPoint.getLeft(), trailAndLastPoint.getRight().nextPoints()))
-                        .flatMap(trailAndNextPoints -> trailAndNextPoints.getLeft().spawnTrailsWith(trailAndNextPoints.getRight()))
-                        .toList();
-
-                return findTrails(spawnedTrails);
             }
-
-            private Stream<HikingPoint> nextPoints() {
-                return Direction.valuesAsStream()
-                        .map(direction -> direction.next(coordinate))
-                        .map(availableHikingPoints::get)
-                        .filter(Objects::nonNull)
-                        .filter(this::isHeightIncreaseBy1To);
-            }
-        }
-    }
-
-    record HikingTrail(List<HikingPoint> points) {
-
-        Stream<HikingTrail> spawnTrailsWith(Stream<HikingPoint> points) {
-            return points.map(this::newTrailWithAppended);
+            return score;
         }
 
-        HikingTrail newTrailWithAppended(HikingPoint point) {
-            return new HikingTrail(Stream.concat(
-                            points.stream(),
-                            Stream.of(point))
-                    .toList());
-        }
-
-        HikingPoint lastPoint() {
-            return points.getLast();
-        }
-
-        boolean hasEnded() {
-            return points.getLast().isTrailEnd();
-        }
-    }
-
-    record Coordinate(int x, int y) {
-    }
-
-    enum Direction {
-        NORTH, SOUTH, WEST, EAST;
-
-        Coordinate next(Coordinate current) {
-            return switch (this) {
-                case NORTH -> new Coordinate(current.x, current.y - 1);
-                case SOUTH -> new Coordinate(current.x, current.y + 1);
-                case WEST -> new Coordinate(current.x - 1, current.y);
-                case EAST -> new Coordinate(current.x + 1, current.y);
-            };
+        /**
+         * The rating of a point is the number of trails from there to any trail end, so it is the sum of the ratings of its
+         * next points. Evaluating the points from the highest to the lowest lets each point see the final ratings of its next points.
+         */
+        private long[] ratings() {
+            var ratings = new long[heights.capacity()];
+
+            for (char height = TRAIL_END; height >= TRAIL_HEAD; height--) {
+                for (int index = 0; index < heights.capacity(); index++) {
+                    if (heights.get(index) != height) {
+                        continue;
+                    }
+                    if (height == TRAIL_END) {
+                        ratings[index] = 1;
+                    } else {
+                        for (var offset : heights.orthogonalOffsets()) {
+                            if (isHeightIncreaseBy1(index, index + offset)) {
+                                ratings[index] += ratings[index + offset];
+                            }
+                        }
+                    }
+                }
+            }
+            return ratings;
         }
 
-        static Stream<Direction> valuesAsStream() {
-            return Arrays.stream(Direction.values());
+        private boolean isHeightIncreaseBy1(int from, int to) {
+            return heights.get(to) == heights.get(from) + 1;
         }
     }
 }
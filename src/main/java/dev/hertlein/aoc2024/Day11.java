@@ -3,6 +3,7 @@ package dev.hertlein.aoc2024;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import dev.hertlein.aoc2024.lib.Metrics;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
@@ -26,11 +27,14 @@ class Day11 implements Day<Void> {
     @RequiredArgsConstructor
     static class Stones {
 
+        private static final Metrics.CacheCounter CACHE = Metrics.cacheCounter("Day11.cache");
+
         private final LoadingCache<BlinksAndStone, StonesCount> loadingCache =
                 CacheBuilder.newBuilder().build(new CacheLoader<>() {
                     @Override
                     @NonNull
                     public StonesCount load(@NonNull BlinksAndStone blinksAndStone) {
+                        CACHE.miss();
                         return blink(blinksAndStone.blinks, blinksAndStone.stone);
                     }
                 });
@@ -52,6 +56,7 @@ class Day11 implements Day<Void> {
 
         @SneakyThrows
         private StonesCount blinkUsingCache(Blinks blinks, Stone stone) {
+            CACHE.lookup();
             return loadingCache.get(new BlinksAndStone(blinks, stone));
         }
 
@@ -1,11 +1,9 @@
 package dev.hertlein.aoc2024;
 
-import lombok.AllArgsConstructor;
+import dev.hertlein.aoc2024.lib.Grid;
 
-import java.util.*;
-import java.util.stream.Collectors;
-
-import static java.util.function.Predicate.not;
+import java.util.ArrayList;
+import java.util.List;
 
 class Day12 implements Day<Void> {
 
@@ -21,19 +19,10 @@ class Day12 implements Day<Void> {
 
     static class Garden {
 
-        private final Map<Coordinate, Plant> allPlants;
+        private final Grid plants;
 
         Garden(List<String> inputLines) {
-            var gardenPlants = new HashMap<Coordinate, Plant>();
-
-            for (int y = 0; y < inputLines.size(); y++) {
-                for (int x = 0; x < inputLines.get(y).length(); x++) {
-                    var coordinate = new Coordinate(x, y);
-                    var plant = new Plant(coordinate, inputLines.get(y).charAt(x));
-                    gardenPlants.put(coordinate, plant);
-                }
-            }
-            this.allPlants = gardenPlants;
+            this.plants = Grid.of(inputLines);
         }
 
         long fenceCost() {
@@ -45,157 +34,84 @@ class Day12 implements Day<Void> {
         }
 
         List<PlantRegion> regions() {
-            var plantsToCheck = new ArrayList<>(allPlants.values());
             var regions = new ArrayList<PlantRegion>();
-
-            while (!plantsToCheck.isEmpty()) {
-                Plant plantToCheck = plantsToCheck.getFirst();
-                var region = new PlantRegion();
-                fillRegionWithPlantsOfSameType(plantToCheck, region);
-                plantsToCheck.removeAll(region.plants);
-                regions.add(region);
+            var isInAnyRegion = new boolean[plants.capacity()];
+            var stack = new int[plants.capacity()];
+
+            for (int y = 0; y < plants.getHeight(); y++) {
+                for (int x = 0; x < plants.getWidth(); x++) {
+                    var index = plants.index(x, y);
+                    if (!isInAnyRegion[index]) {
+                        regions.add(fillRegionWithPlantsOfSameType(index, isInAnyRegion, stack));
+                    }
+                }
             }
             return regions;
         }
 
-        void fillRegionWithPlantsOfSameType(Plant plant, PlantRegion plantRegion) {
-            var neighboursOfSameType = plant.coordinate.neighbours().stream()
-                    .map(allPlants::get)
-                    .filter(Objects::nonNull)
-                    .filter(neighbour -> neighbour.type == plant.type)
-                    .filter(not(plantRegion::contains))
-                    .toList();
-
-            if (plantRegion.contains(plant) && neighboursOfSameType.isEmpty()) {
-                return;
-            }
-
-            plantRegion.addPlant(plant);
-            for (var nextPlant : neighboursOfSameType) {
-                fillRegionWithPlantsOfSameType(nextPlant, plantRegion);
-            }
-        }
-
-        @AllArgsConstructor
-        class PlantRegion {
-            private Set<Plant> plants;
-
-            PlantRegion() {
-                this(new HashSet<>());
-            }
-
-            long fenceCostWithBulkDiscount() {
-                long area = area();
-                long sides = numberOfSides();
-                return area * sides;
-            }
-
-            long fenceCost() {
-                return area() * perimeter();
-            }
-
-            long area() {
-                return plants.size();
-            }
-
-            long perimeter() {
-                return plants.stream()
-                        .reduce(0L,
-                                (perimeter, plant) -> perimeter + Coordinate.MAX_NEIGHBOURS - neighboursInSameRegionOf(plant),
-                                Long::sum);
-            }
-
-            long numberOfSides() {
-                // number of sides in a polygon equals the number of corners
-                return numberOfCorners();
-            }
-
-            long numberOfCorners() {
-                var cornerCandidates = plants.stream()
-                        .flatMap(plant -> plant.coordinate.corners().stream())
-                        .collect(Collectors.toSet());
-
-                var corners = 0;
-                for (var cornerCandidate : cornerCandidates) {
-                    var arePlantsInSameRegionAdjacent = cornerCandidate
-                            .connectedCoordinates()
-                            .stream().map(this::contains)
-                            .toList();
-                    var numberOfAdjacentPlantsInSameRegion = arePlantsInSameRegionAdjacent.stream().filter(b -> b).count();
-
-                    if (numberOfAdjacentPlantsInSameRegion == 1) {
-                        corners++;
-                    }
-                    if (numberOfAdjacentPlantsInSameRegion == 2) {
-                        if (areOpposing(arePlantsInSameRegionAdjacent)) {
-                            // Opposing plants count as two corners.
-                            corners = corners + 2;
-                        }
-                    }
-                    if (numberOfAdjacentPlantsInSameRegion == 3) {
-                        corners++;
+        private PlantRegion fillRegionWithPlantsOfSameType(int start, boolean[] isInAnyRegion, int[] stack) {
+            var type = plants.get(start);
+            long area = 0;
+            long perimeter = 0;
+            long corners = 0;
+
+            var size = 0;
+            stack[size++] = start;
+            isInAnyRegion[start] = true;
+
+            while (size > 0) {
+                var plant = stack[--size];
+                area++;
+                corners += cornersOf(plant);
+
+                for (var offset : plants.orthogonalOffsets()) {
+                    var neighbour = plant + offset;
+                    if (plants.get(neighbour) != type) {
+                        perimeter++;
+                    } else if (!isInAnyRegion[neighbour]) {
+                        isInAnyRegion[neighbour] = true;
+                        stack[size++] = neighbour;
                     }
                 }
-                return corners;
-            }
-
-            boolean contains(Plant plant) {
-                return plants.contains(plant);
-            }
-
-            private boolean contains(Coordinate coordinate) {
-                return plants.stream().anyMatch(plant -> plant.coordinate.equals(coordinate));
-            }
-
-            void addPlant(Plant plant) {
-                plants.add(plant);
-            }
-
-            private boolean areOpposing(List<Boolean> adjacentPlants) {
-                return adjacentPlants.equals(List.of(true, false, true, false))
-                        || adjacentPlants.equals(List.of(false, true, false, true));
             }
+            return new PlantRegion(area, perimeter, corners);
+        }
 
-            private long neighboursInSameRegionOf(Plant plant) {
-                return plant.coordinate.neighbours().stream().map(allPlants::get).filter(this::contains).count();
+        private int cornersOf(int plant) {
+            var type = plants.get(plant);
+            var offsets = plants.orthogonalOffsets();
+            var corners = 0;
+
+            for (int i = 0; i < offsets.length; i++) {
+                var side1 = plants.get(plant + offsets[i]) == type;
+                var side2 = plants.get(plant + offsets[(i + 1) % offsets.length]) == type;
+                var diagonal = plants.get(plant + offsets[i] + offsets[(i + 1) % offsets.length]) == type;
+
+                if (!side1 && !side2) {
+                    // outer corner
+                    corners++;
+                } else if (side1 && side2 && !diagonal) {
+                    // inner corner
+                    corners++;
+                }
             }
+            return corners;
         }
     }
 
-    private static final double CORNER_ADJUSTMENT = 0.5;
-
-    record Coordinate(int x, int y) {
-        static final int MAX_NEIGHBOURS = 4;
+    record PlantRegion(long area, long perimeter, long numberOfCorners) {
 
-        List<Coordinate> neighbours() {
-            return List.of(
-                    new Coordinate(x - 1, y),
-                    new Coordinate(x + 1, y),
-                    new Coordinate(x, y - 1),
-                    new Coordinate(x, y + 1)
-            );
+        long fenceCost() {
+            return area * perimeter;
         }
 
-        List<PlantCorner> corners() {
-            return List.of(
-                    new PlantCorner(x - CORNER_ADJUSTMENT, y - CORNER_ADJUSTMENT),
-                    new PlantCorner(x + CORNER_ADJUSTMENT, y - CORNER_ADJUSTMENT),
-                    new PlantCorner(x + CORNER_ADJUSTMENT, y + CORNER_ADJUSTMENT),
-                    new PlantCorner(x - CORNER_ADJUSTMENT, y + CORNER_ADJUSTMENT));
+        long fenceCostWithBulkDiscount() {
+            return area * numberOfSides();
         }
-    }
-
-    record Plant(Coordinate coordinate, char type) {
-    }
-
-    record PlantCorner(double x, double y) {
 
-        List<Coordinate> connectedCoordinates() {
-            return List.of(
-                    new Coordinate((int) (x - CORNER_ADJUSTMENT), (int) (y - CORNER_ADJUSTMENT)),
-                    new Coordinate((int) (x + CORNER_ADJUSTMENT), (int) (y - CORNER_ADJUSTMENT)),
-                    new Coordinate((int) (x + CORNER_ADJUSTMENT), (int) (y + CORNER_ADJUSTMENT)),
-                    new Coordinate((int) (x - CORNER_ADJUSTMENT), (int) (y + CORNER_ADJUSTMENT)));
+        long numberOfSides() {
+            // number of sides in a polygon equals the number of corners
+            return numberOfCorners;
         }
     }
 }
@@ -5,35 +5,34 @@ import lombok.RequiredArgsConstructor;
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.Function;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Pattern;
-import java.util.stream.Gatherers;
 
 import static dev.hertlein.aoc2024.Day13.ButtonType.A;
 import static dev.hertlein.aoc2024.Day13.ButtonType.B;
 import static java.util.Collections.emptyList;
-import static java.util.function.Predicate.not;
 
-class Day13 implements Day<Void> {
+class Day13 implements StreamingDay<Void> {
 
     @Override
-    public Object part1(List<String> inputLines, Void v) {
-        return fewestTokensToSpendForPrizes(inputLines, 0L);
+    public LineConsumer part1Consumer(Void v) {
+        return fewestTokensToSpendForPrizes(0L);
     }
 
     @Override
-    public Object part2(List<String> inputLines, Void v) {
-        return fewestTokensToSpendForPrizes(inputLines, 10_000_000_000_000L);
+    public LineConsumer part2Consumer(Void v) {
+        return fewestTokensToSpendForPrizes(10_000_000_000_000L);
     }
 
-    private long fewestTokensToSpendForPrizes(List<String> inputLines, long prizeAdjustment) {
-        return inputLines.stream()
-                .filter(not(String::isEmpty))
-                .gather(Gatherers.windowFixed(3))
-                .map(machineInput -> ClawMachine.of(machineInput, prizeAdjustment))
-                .map(ClawMachine::tryWinPrize)
-                .filter(not(PushesOfButtons::none))
-                .mapToLong(PushesOfButtons::tokens)
-                .sum();
+    private LineConsumer fewestTokensToSpendForPrizes(long prizeAdjustment) {
+        var tokens = new LongAdder();
+        var clawMachines = LineConsumer.blocksOf(3, machineInput -> {
+            var pushes = ClawMachine.of(machineInput, prizeAdjustment).tryWinPrize();
+            if (!pushes.none()) {
+                tokens.add(pushes.tokens());
+            }
+        });
+        return LineConsumer.of(clawMachines, tokens::sum);
     }
 
     record ClawMachine(Prize prize, Button buttonA, Button buttonB) {
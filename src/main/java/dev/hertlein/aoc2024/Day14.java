@@ -1,18 +1,16 @@
 package dev.hertlein.aoc2024;
 
+import dev.hertlein.aoc2024.lib.Grid;
+import dev.hertlein.aoc2024.lib.Metrics;
 import lombok.Data;
-import lombok.RequiredArgsConstructor;
 
-import java.util.*;
-import java.util.function.Function;
+import java.util.Arrays;
+import java.util.List;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 import static dev.hertlein.aoc2024.Day14.AreaSize;
-import static java.util.function.Predicate.not;
-import static java.util.stream.Collectors.toMap;
-import static java.util.stream.Collectors.toSet;
 
 class Day14 implements Day<AreaSize> {
 
@@ -21,6 +19,12 @@ class Day14 implements Day<AreaSize> {
 
     // trial & error: "most of the robots should arrange themselves into a picture of a Christmas tree"
     private final static int THRESHOLD_FOR_CONNECTED_ROBOTS_FORMING_CHRISTMAS_TREE = 200;
+    private final static Metrics.Counter SECONDS_SIMULATED = Metrics.counter("Day14.secondsSimulated");
+    private final static Metrics.Counter ROBOT_MOVES = Metrics.counter("Day14.robotMoves");
+
+    private final static char EMPTY = '.';
+    private final static char ROBOT = '#';
+    private final static char CONNECTED_ROBOT = 'o';
 
     @Override
     public Object part1(List<String> inputLines, AreaSize areaSize) {
@@ -58,10 +62,15 @@ class Day14 implements Day<AreaSize> {
         }
 
         long findChristmasTree(AreaSize areaSize) {
+            var area = Grid.filled(areaSize.x, areaSize.y, EMPTY);
+            var stack = new int[area.capacity()];
+
             for (int second = 1; second < Integer.MAX_VALUE; second++) {
                 this.robots.forEach(robot -> robot.navigate(areaSize, 1));
+                SECONDS_SIMULATED.increment();
+                ROBOT_MOVES.add(robots.size());
 
-                if (sizeOfLargestAreaWithConnectedRobots() >= THRESHOLD_FOR_CONNECTED_ROBOTS_FORMING_CHRISTMAS_TREE) {
+                if (sizeOfLargestAreaWithConnectedRobots(area, stack) >= THRESHOLD_FOR_CONNECTED_ROBOTS_FORMING_CHRISTMAS_TREE) {
                     printImage(areaSize);
                     return second;
                 }
@@ -70,75 +79,71 @@ class Day14 implements Day<AreaSize> {
         }
 
         long sizeOfLargestAreaWithConnectedRobots() {
-            Map<Position, Robot> robotPositions = robots.stream()
-                    .collect(toMap(
-                            Robot::getCurrentPosition,
-                            Function.identity(),
-                            (r1, _) -> r1));
-
-            var robotsToCheck = new ArrayList<>(robotPositions.values());
-            var areasOfConnectedRobots = new ArrayList<ConnectedRobotsArea>();
-
-            while (!robotsToCheck.isEmpty()) {
-                var robotToCheck = robotsToCheck.getFirst();
-                var area = new ConnectedRobotsArea();
-                fillAreaWithConnectedRobots(area, robotToCheck, robotPositions);
-                robotsToCheck.removeAll(area.robots);
-                areasOfConnectedRobots.add(area);
+            var width = robots.stream().mapToInt(Robot::getX).max().orElse(0) + 1;
+            var height = robots.stream().mapToInt(Robot::getY).max().orElse(0) + 1;
+            var area = Grid.filled(width, height, EMPTY);
+
+            return sizeOfLargestAreaWithConnectedRobots(area, new int[area.capacity()]);
+        }
+
+        /**
+         * Expects an empty area and leaves it empty again - resetting only the cells of the robots is much cheaper than
+         * clearing the whole area every second.
+         */
+        private long sizeOfLargestAreaWithConnectedRobots(Grid area, int[] stack) {
+            for (var robot : robots) {
+                area.set(robot.x, robot.y, ROBOT);
             }
-            return areasOfConnectedRobots
-                    .stream()
-                    .mapToLong(ConnectedRobotsArea::size)
-                    .max()
-                    .orElse(0L);
-        }
-
-        private void fillAreaWithConnectedRobots(ConnectedRobotsArea connectedRobots, Robot robot, Map<Position, Robot> robotPositions) {
-            var neighbours = robot
-                    .currentPosition
-                    .neighbours()
-                    .stream()
-                    .map(robotPositions::get)
-                    .filter(Objects::nonNull)
-                    .filter(not(connectedRobots::contains))
-                    .collect(toSet());
-
-            if (connectedRobots.contains(robot) && neighbours.isEmpty()) {
-                return;
+
+            long largestArea = 0;
+            for (var robot : robots) {
+                var start = area.index(robot.x, robot.y);
+                if (area.get(start) == ROBOT) {
+                    largestArea = Math.max(largestArea, fillAreaWithConnectedRobots(area, start, stack));
+                }
             }
 
-            connectedRobots.add(robot);
-            for (var next : neighbours) {
-                fillAreaWithConnectedRobots(connectedRobots, next, robotPositions);
+            for (var robot : robots) {
+                area.set(robot.x, robot.y, EMPTY);
             }
+            return largestArea;
         }
 
-        private void printImage(AreaSize size) {
-            var positionsOfRobots = robots.stream()
-                    .map(Robot::getCurrentPosition)
-                    .collect(toSet());
-
-            StringBuilder sb = new StringBuilder();
-            for (int y = 0; y < size.y; y++) {
-                for (int x = 0; x < size.x; x++) {
-                    if (positionsOfRobots.contains(new Position(x, y))) {
-                        sb.append("#");
-                    } else {
-                        sb.append(".");
+        private long fillAreaWithConnectedRobots(Grid area, int start, int[] stack) {
+            long connectedRobots = 0;
+            var size = 0;
+            stack[size++] = start;
+            area.set(start, CONNECTED_ROBOT);
+
+            while (size > 0) {
+                var current = stack[--size];
+                connectedRobots++;
+
+                for (var offset : area.orthogonalOffsets()) {
+                    var neighbour = current + offset;
+                    if (area.get(neighbour) == ROBOT) {
+                        area.set(neighbour, CONNECTED_ROBOT);
+                        stack[size++] = neighbour;
                     }
                 }
-                sb.append("\r\n");
             }
-            System.out.println(sb);
+            return connectedRobots;
+        }
+
+        private void printImage(AreaSize size) {
+            var area = Grid.filled(size.x, size.y, EMPTY);
+            robots.forEach(robot -> area.set(robot.x, robot.y, ROBOT));
+
+            System.out.println(area.toString().replace("\n", "\r\n"));
         }
 
         Stream<Quadrant> splitIntoQuadrants(AreaSize size) {
             var quadrantSize = new AreaSize(size.x / 2, size.y / 2);
 
-            Predicate<Robot> upperLeft = robot -> robot.currentPosition.x < quadrantSize.x & robot.currentPosition.y < quadrantSize.y;
-            Predicate<Robot> upperRight = robot -> robot.currentPosition.x > quadrantSize.x & robot.currentPosition.y < quadrantSize.y;
-            Predicate<Robot> lowerLeft = robot -> robot.currentPosition.x < quadrantSize.x & robot.currentPosition.y > quadrantSize.y;
-            Predicate<Robot> lowerRight = robot -> robot.currentPosition.x > quadrantSize.x & robot.currentPosition.y > quadrantSize.y;
+            Predicate<Robot> upperLeft = robot -> robot.x < quadrantSize.x & robot.y < quadrantSize.y;
+            Predicate<Robot> upperRight = robot -> robot.x > quadrantSize.x & robot.y < quadrantSize.y;
+            Predicate<Robot> lowerLeft = robot -> robot.x < quadrantSize.x & robot.y > quadrantSize.y;
+            Predicate<Robot> lowerRight = robot -> robot.x > quadrantSize.x & robot.y > quadrantSize.y;
 
             return Stream.of(upperLeft, upperRight, lowerLeft, lowerRight)
                     .map(predicate -> new Quadrant(robots.stream().filter(predicate).toList()));
@@ -152,47 +157,33 @@ class Day14 implements Day<AreaSize> {
         }
     }
 
-    @RequiredArgsConstructor
-    static class ConnectedRobotsArea {
-        private final Set<Robot> robots;
-
-        ConnectedRobotsArea() {
-            this.robots = new HashSet<>();
-        }
-
-        void add(Robot robot) {
-            this.robots.add(robot);
-        }
-
-        boolean contains(Robot robot) {
-            return robots.contains(robot);
-        }
-
-        int size() {
-            return robots.size();
-        }
-    }
-
     @Data
     static class Robot {
         private final Velocity velocity;
-        private Position currentPosition;
+        private int x;
+        private int y;
 
         Robot(String line) {
             var split = line.split("\\s");
-            this.currentPosition = Position.of(split[0]);
+            var position = Position.of(split[0]);
+            this.x = position.x;
+            this.y = position.y;
             this.velocity = Velocity.of(split[1]);
         }
 
         Robot(Position position) {
-            this.currentPosition = position;
+            this.x = position.x;
+            this.y = position.y;
             this.velocity = null;
         }
 
+        Position getCurrentPosition() {
+            return new Position(x, y);
+        }
+
         void navigate(AreaSize areaSize, int times) {
-            var x = currentPosition.x + velocity.x * times;
-            var y = currentPosition.y + velocity.y * times;
-            currentPosition = new Position(x, y).wrapAround(areaSize);
+            x = Math.floorMod(x + velocity.x * times, areaSize.x);
+            y = Math.floorMod(y + velocity.y * times, areaSize.y);
         }
     }
 
@@ -208,20 +199,6 @@ class Day14 implements Day<AreaSize> {
                 throw new IllegalArgumentException("No position found in '%s'".formatted(input));
             }
         }
-
-        Position wrapAround(AreaSize size) {
-            return new Position(((x % size.x) + size.x) % size.x,
-                    ((y % size.y) + size.y) % size.y);
-        }
-
-        List<Position> neighbours() {
-            return List.of(
-                    new Position(x - 1, y),
-                    new Position(x + 1, y),
-                    new Position(x, y - 1),
-                    new Position(x, y + 1)
-            );
-        }
     }
 
     record Velocity(int x, int y) {
@@ -1,17 +1,19 @@
 package dev.hertlein.aoc2024;
 
+import dev.hertlein.aoc2024.lib.Grid;
+import dev.hertlein.aoc2024.lib.MappedInput;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
-import java.util.*;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 
 import static dev.hertlein.aoc2024.Day15.ObstructionType.*;
 import static java.util.Arrays.asList;
 import static java.util.Arrays.stream;
-import static java.util.Collections.emptySet;
-import static java.util.function.Predicate.not;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toMap;
 
@@ -21,59 +23,53 @@ class Day15 implements Day<Void> {
 
     @Override
     public Object part1(List<String> inputLines, Void v) {
-        var warehouseInput = inputLines.stream()
-                .takeWhile(not(String::isEmpty))
-                .toList();
-        var movementInput = inputLines.stream()
-                .dropWhile(not(String::isEmpty))
-                .dropWhile(String::isEmpty)
-                .toList();
+        var lines = MappedInput.viewsOf(inputLines);
+        var separator = indexOfFirstEmpty(lines);
 
-        var warehouse = new Warehouse(warehouseInput);
-        var movements = Movements.of(movementInput);
+        var warehouse = new Warehouse(lines.subList(0, separator));
+        var movements = Movements.of(lines.subList(separator, lines.size()));
 
         return warehouse.sumOfBoxGPSCoordinatesAfter(movements);
     }
 
     @Override
     public Object part2(List<String> inputLines, Void v) {
-        var warehouseInput = inputLines.stream()
-                .takeWhile(not(String::isEmpty))
-                .toList();
-        var movementInput = inputLines.stream()
-                .dropWhile(not(String::isEmpty))
-                .dropWhile(String::isEmpty)
-                .toList();
+        var lines = MappedInput.viewsOf(inputLines);
+        var separator = indexOfFirstEmpty(lines);
 
-        var warehouse = new Warehouse(warehouseInput).scaleUp();
-        var movements = Movements.of(movementInput);
+        var warehouse = new Warehouse(lines.subList(0, separator)).scaleUp();
+        var movements = Movements.of(lines.subList(separator, lines.size()));
 
         return warehouse.sumOfBoxGPSCoordinatesAfter(movements);
     }
 
-    @AllArgsConstructor
-    @Getter
+    private static int indexOfFirstEmpty(List<? extends CharSequence> lines) {
+        return IntStream.range(0, lines.size())
+                .filter(index -> lines.get(index).isEmpty())
+                .findFirst()
+                .orElse(lines.size());
+    }
+
     static class Warehouse {
-        private final int maxX;
-        private final int maxY;
-        private final Map<Coordinate, ObstructionType> obstructions;
-        private Robot robot;
-
-        Warehouse(List<String> inputLines) {
-            obstructions = new HashMap<>();
-            maxY = inputLines.size();
-            maxX = inputLines.getFirst().length();
-
-            for (int y = 0; y < inputLines.size(); y++) {
-                for (int x = 0; x < inputLines.get(y).length(); x++) {
-                    char symbol = inputLines.get(y).charAt(x);
-                    if (ObstructionType.isObstruction(symbol)) {
-                        obstructions.put(new Coordinate(x, y), ObstructionType.of(symbol));
-                    } else if (Robot.isRobot(symbol)) {
-                        robot = new Robot(new Coordinate(x, y));
-                    }
-                }
-            }
+        private final Grid grid;
+        @Getter
+        private final Robot robot;
+
+        // buffers for pushing boxes, reused for every movement
+        private final int[] boxesToMove;
+        private final byte[] typesOfBoxesToMove;
+        private final int[] collectedInPush;
+        private int push;
+
+        Warehouse(List<? extends CharSequence> inputLines) {
+            grid = Grid.of(inputLines);
+            var robotPosition = grid.indexOf(Robot.IDENTIFIER);
+            grid.set(robotPosition, EMPTY_IDENTIFIER);
+            robot = new Robot(robotPosition);
+
+            boxesToMove = new int[grid.capacity()];
+            typesOfBoxesToMove = new byte[grid.capacity()];
+            collectedInPush = new int[grid.capacity()];
         }
 
         Warehouse scaleUp() {
@@ -102,15 +98,13 @@ class Day15 implements Day<Void> {
         public String toString() {
             StringBuilder sb = new StringBuilder();
 
-            for (int y = 0; y < maxY; y++) {
-                for (int x = 0; x < maxX; x++) {
-                    var coordinate = new Coordinate(x, y);
-                    if (robot.position.equals(coordinate)) {
+            for (int y = 0; y < grid.getHeight(); y++) {
+                for (int x = 0; x < grid.getWidth(); x++) {
+                    var position = grid.index(x, y);
+                    if (robot.position == position) {
                         sb.append(robot);
-                    } else if (obstructions.containsKey(coordinate)) {
-                        sb.append(obstructions.get(coordinate).toString());
                     } else {
-                        sb.append(EMPTY_IDENTIFIER);
+                        sb.append((char) grid.get(position));
                     }
                 }
                 sb.append("\n");
@@ -121,90 +115,95 @@ class Day15 implements Day<Void> {
         long sumOfBoxGPSCoordinatesAfter(Movements movements) {
             movements.values.forEach(robot::move);
 
-            return obstructions
-                    .entrySet()
-                    .stream()
-                    .filter(obstruction -> obstruction.getValue() == BOX || obstruction.getValue() == WIDE_BOX_OPEN)
-                    .map(Map.Entry::getKey)
-                    .mapToLong(position -> position.x + position.y * 100L)
-                    .sum();
+            long sum = 0;
+            for (int y = 0; y < grid.getHeight(); y++) {
+                for (int x = 0; x < grid.getWidth(); x++) {
+                    var obstruction = grid.get(x, y);
+                    if (obstruction == BOX.identifier || obstruction == WIDE_BOX_OPEN.identifier) {
+                        sum += x + y * 100L;
+                    }
+                }
+            }
+            return sum;
+        }
+
+        private boolean isObstruction(int position) {
+            return ObstructionType.isObstruction((char) grid.get(position));
+        }
+
+        /**
+         * Collects all boxes pushed by the box at the given position. If none of them hits a wall, all of them are moved.
+         */
+        private boolean tryPushBoxes(int firstBox, int offset) {
+            push++;
+            var numberOfBoxes = 0;
+            numberOfBoxes = collect(firstBox, numberOfBoxes);
+
+            for (int i = 0; i < numberOfBoxes; i++) {
+                var box = boxesToMove[i];
+                var type = grid.get(box);
+
+                if (type == WIDE_BOX_OPEN.identifier) {
+                    numberOfBoxes = collect(box + 1, numberOfBoxes);
+                } else if (type == WIDE_BOX_CLOSE.identifier) {
+                    numberOfBoxes = collect(box - 1, numberOfBoxes);
+                }
+
+                var next = grid.get(box + offset);
+                if (next == WALL.identifier) {
+                    // Hit a wall: no boxes moveable
+                    return false;
+                } else if (ObstructionType.isBoxOrWideBox((char) next)) {
+                    numberOfBoxes = collect(box + offset, numberOfBoxes);
+                }
+            }
+
+            for (int i = 0; i < numberOfBoxes; i++) {
+                typesOfBoxesToMove[i] = grid.get(boxesToMove[i]);
+                grid.set(boxesToMove[i], EMPTY_IDENTIFIER);
+            }
+            for (int i = 0; i < numberOfBoxes; i++) {
+                grid.set(boxesToMove[i] + offset, (char) typesOfBoxesToMove[i]);
+            }
+            return true;
+        }
+
+        private int collect(int box, int numberOfBoxes) {
+            if (collectedInPush[box] == push) {
+                return numberOfBoxes;
+            }
+            collectedInPush[box] = push;
+            boxesToMove[numberOfBoxes] = box;
+            return numberOfBoxes + 1;
         }
 
         @AllArgsConstructor
-        @Getter
         class Robot {
             private static final char IDENTIFIER = '@';
 
-            private Coordinate position;
+            private int position;
 
             static boolean isRobot(char identifier) {
                 return identifier == IDENTIFIER;
             }
 
             void move(Movement movement) {
-                var nextCoordinate = movement.forwardFrom(position);
-                if (!obstructions.containsKey(nextCoordinate)) {
+                var offset = movement.offsetIn(grid);
+                var nextPosition = position + offset;
+
+                if (!isObstruction(nextPosition)) {
                     // Hit an empty position --> robot moves
-                    position = nextCoordinate;
+                    position = nextPosition;
+                } else if (grid.get(nextPosition) == WALL.identifier) {
+                    // Hit a wall --> robot stays in position
+                } else if (tryPushBoxes(nextPosition, offset)) {
+                    // Hit a box --> robot moves together with the boxes
+                    position = nextPosition;
                 } else {
-                    var nextObstruction = obstructions.get(nextCoordinate);
-                    if (nextObstruction == WALL) {
-                        // Hit a wall --> robot stays in position
-                    } else if (nextObstruction.isBoxOrWideBox()) {
-                        // Hit a box --> robot tries to move boxes
-                        List<Obstruction> boxesToMove = new ArrayList<>();
-                        boxesToMove.add(new Obstruction(nextCoordinate, nextObstruction));
-
-                        var moveableBoxes = findMoveableBoxes(movement, boxesToMove, new HashSet<>());
-                        if (!moveableBoxes.isEmpty()) {
-                            for (var box : moveableBoxes) {
-                                obstructions.remove(box.position());
-                            }
-                            for (var box : moveableBoxes) {
-                                obstructions.put(movement.forwardFrom(box.position()), box.type());
-                            }
-                            position = nextCoordinate;
-                        } else {
-                            // Hit a wall when robot was trying to move boxes --> robot stays in position
-                        }
-                    }
+                    // Hit a wall when robot was trying to move boxes --> robot stays in position
                 }
             }
 
-            private Set<Obstruction> findMoveableBoxes(Movement movement,
-                                                       List<Obstruction> obstructionsToMove,
-                                                       Set<Obstruction> moveableBoxes) {
-                if (obstructionsToMove.isEmpty()) {
-                    return moveableBoxes;
-                }
-
-                var currentObstruction = obstructionsToMove.removeFirst();
-
-                if (currentObstruction.type() == WALL) {
-                    // Hit a wall: no boxes moveable
-                    return emptySet();
-                }
-
-                if (!moveableBoxes.contains(currentObstruction)) {
-                    moveableBoxes.add(currentObstruction);
-
-                    if (currentObstruction.type == ObstructionType.WIDE_BOX_OPEN) {
-                        obstructionsToMove.add(new Obstruction(currentObstruction.position.rightOf(), WIDE_BOX_CLOSE));
-                    }
-                    if (currentObstruction.type == ObstructionType.WIDE_BOX_CLOSE) {
-                        obstructionsToMove.add(new Obstruction(currentObstruction.position.leftOf(), WIDE_BOX_OPEN));
-                    }
-
-                    var nextCoordinate = movement.forwardFrom(currentObstruction.position());
-                    var nextObstruction = obstructions.get(nextCoordinate);
-
-                    if (nextObstruction != null) {
-                        obstructionsToMove.add(new Obstruction(nextCoordinate, nextObstruction));
-                    }
-                }
-                return findMoveableBoxes(movement, obstructionsToMove, moveableBoxes);
-            }
-
             @Override
             public String toString() {
                 return Character.toString(IDENTIFIER);
@@ -212,9 +211,6 @@ class Day15 implements Day<Void> {
         }
     }
 
-    record Obstruction(Coordinate position, ObstructionType type) {
-    }
-
     @RequiredArgsConstructor
     @Getter
     enum ObstructionType {
@@ -241,8 +237,8 @@ class Day15 implements Day<Void> {
             return IDENTIFIERS.get(identifier) == BOX;
         }
 
-        boolean isBoxOrWideBox() {
-            return this == BOX || this == WIDE_BOX_OPEN || this == WIDE_BOX_CLOSE;
+        static boolean isBoxOrWideBox(char identifier) {
+            return identifier == BOX.identifier || identifier == WIDE_BOX_OPEN.identifier || identifier == WIDE_BOX_CLOSE.identifier;
         }
 
         @Override
@@ -251,23 +247,11 @@ class Day15 implements Day<Void> {
         }
     }
 
-    record Coordinate(int x, int y) {
-
-        Coordinate leftOf() {
-            return new Coordinate(x - 1, y);
-        }
-
-        Coordinate rightOf() {
-            return new Coordinate(x + 1, y);
-        }
-    }
-
     record Movements(List<Movement> values) {
 
-        static Movements of(List<String> inputLines) {
+        static Movements of(List<? extends CharSequence> inputLines) {
             var movements = inputLines.stream()
-                    .flatMap(line -> stream(line.split("")))
-                    .map(string -> string.charAt(0))
+                    .flatMap(line -> line.chars().mapToObj(character -> (char) character))
                     .map(Movement::of)
                     .toList();
             return new Movements(movements);
@@ -288,12 +272,12 @@ class Day15 implements Day<Void> {
             return Movement.IDENTIFIERS.get(value);
         }
 
-        Coordinate forwardFrom(Coordinate currentPosition) {
+        int offsetIn(Grid grid) {
             return switch (this) {
-                case UP -> new Coordinate(currentPosition.x, currentPosition.y - 1);
-                case DOWN -> new Coordinate(currentPosition.x, currentPosition.y + 1);
-                case LEFT -> new Coordinate(currentPosition.x - 1, currentPosition.y);
-                case RIGHT -> new Coordinate(currentPosition.x + 1, currentPosition.y);
+                case UP -> grid.offset(0, -1);
+                case DOWN -> grid.offset(0, 1);
+                case LEFT -> grid.offset(-1, 0);
+                case RIGHT -> grid.offset(1, 0);
             };
         }
     }
@@ -1,19 +1,16 @@
 package dev.hertlein.aoc2024;
 
-import dev.hertlein.aoc2024.Day16.Maze.Reindeer;
-import lombok.Getter;
-import lombok.RequiredArgsConstructor;
+import dev.hertlein.aoc2024.lib.Grid;
+import dev.hertlein.aoc2024.lib.LongMinHeap;
+import dev.hertlein.aoc2024.lib.Metrics;
 
-import java.util.*;
+import java.util.Arrays;
+import java.util.List;
 
-import static dev.hertlein.aoc2024.Day16.Symbol.END;
-import static dev.hertlein.aoc2024.Day16.Symbol.WALL;
+import static dev.hertlein.aoc2024.lib.LongMinHeap.pack;
+import static dev.hertlein.aoc2024.lib.LongMinHeap.payloadOf;
+import static dev.hertlein.aoc2024.lib.LongMinHeap.priorityOf;
 import static java.lang.Integer.MAX_VALUE;
-import static java.util.Arrays.stream;
-import static java.util.Collections.emptySet;
-import static java.util.function.Function.identity;
-import static java.util.stream.Collectors.toMap;
-import static java.util.stream.Collectors.toSet;
 
 class Day16 implements Day<Void> {
 
@@ -27,239 +24,150 @@ class Day16 implements Day<Void> {
         return new Maze(inputLines).numberOfTilesInBestPaths();
     }
 
+    /**
+     * A reindeer is encoded as <code>tile * 4 + direction</code>, with the directions being ordered like
+     * {@link Grid#orthogonalOffsets()}: north, east, south, west.
+     */
     static class Maze {
-        private final Map<Tile, Symbol> map;
-        private Reindeer start;
+        private static final char START = 'S';
+        private static final char END = 'E';
+        private static final char WALL = '#';
+        private static final int EAST = 1;
+        private static final int DIRECTIONS = 4;
+        private static final int SCORE_STEP = 1;
+        private static final int SCORE_TURN = 1000;
+        private static final Metrics.Counter QUEUE_POPS = Metrics.counter("Day16.queuePops");
+
+        private final Grid map;
+        private final int start;
 
         Maze(List<String> inputLines) {
-            map = new HashMap<>();
-
-            for (int y = 0; y < inputLines.size(); y++) {
-                for (int x = 0; x < inputLines.get(y).length(); x++) {
-                    var symbol = Symbol.of(inputLines.get(y).charAt(x));
-                    if (symbol.isPresent()) {
-                        Tile tile = new Tile(x, y);
-                        if (symbol.get() == Symbol.START) {
-                            start = new Reindeer(tile, Direction.EAST);
-                        } else {
-                            map.put(tile, symbol.get());
-                        }
-                    }
-                }
-            }
+            map = Grid.of(inputLines);
+            start = reindeer(map.indexOf(START), EAST);
         }
 
         long lowestScore() {
-            PriorityQueue<ReindeerAndScore> queue = new PriorityQueue<>();
-            Set<Reindeer> alreadySeen = new HashSet<>();
-            queue.add(new ReindeerAndScore(start, Score.empty()));
-
-            while (!queue.isEmpty()) {
-                var popped = queue.poll();
-                var symbol = map.get(popped.reindeer.tile);
+            var scores = lowestScores();
+            var end = map.indexOf(END);
 
-                if (symbol == END) {
-                    return popped.scoreValue();
-                }
-                if (!alreadySeen.contains(Reindeer.of(popped))) {
-                    if (symbol != WALL) {
-                        queue.addAll(popped.next());
-                    }
-                    alreadySeen.add(Reindeer.of(popped));
-                }
-            }
-            return 0;
+            return Arrays.stream(reindeersAt(end))
+                    .map(reindeer -> scores[reindeer])
+                    .min()
+                    .orElseThrow();
         }
 
         long numberOfTilesInBestPaths() {
-            PriorityQueue<ReindeerAndScore> queue = new PriorityQueue<>();
-            queue.add(new ReindeerAndScore(start, Score.empty()));
-
-            return findReindeersInBestPaths(queue)
-                    .stream()
-                    .map(Reindeer::tile)
-                    .collect(toSet())
-                    .size();
-        }
-
-        private Set<Reindeer> findReindeersInBestPaths(PriorityQueue<ReindeerAndScore> queue) {
-            Set<Reindeer> ends = new HashSet<>();
-            Map<Reindeer, Set<Reindeer>> backtrackMapping = new HashMap<>();
-            Map<Reindeer, Integer> lowestScorePerReindeer = new HashMap<>();
-            var bestScore = MAX_VALUE;
-
-            while (!queue.isEmpty()) {
-                var popped = queue.poll();
-                var symbol = map.get(popped.reindeer.tile);
-                var reindeer = Reindeer.of(popped);
-
-                if (popped.score().score() <= lowestScorePerReindeer.getOrDefault(reindeer, MAX_VALUE)) {
-                    if (symbol == END) {
-                        if (popped.score().score() > bestScore) {
-                            // All shortest paths are found, so no need to continue
-                            break;
-                        } else {
-                            bestScore = popped.score().score();
-                            backtrackMapping.get(reindeer).add(reindeer);
-                            ends.add(reindeer);
-                        }
-                    } else {
-                        popped.next().forEach(next -> {
-                            if (map.get(next.reindeer.tile) != WALL) {
-                                queue.add(next);
+            var scores = lowestScores();
+            var end = map.indexOf(END);
+            var bestScore = Arrays.stream(reindeersAt(end)).map(reindeer -> scores[reindeer]).min().orElseThrow();
+
+            var isInBestPath = new boolean[scores.length];
+            var queue = new int[scores.length];
+            var size = 0;
+            for (var reindeer : reindeersAt(end)) {
+                if (scores[reindeer] == bestScore) {
+                    isInBestPath[reindeer] = true;
+                    queue[size++] = reindeer;
+                }
+            }
 
-                                Reindeer nextReindeer = Reindeer.of(next);
-                                var nextScore = next.score();
-                                var lowestScore = lowestScorePerReindeer.getOrDefault(nextReindeer, MAX_VALUE);
+            // backtrack from the end: a predecessor is part of a best path, if its score plus the score of the move matches
+            while (size > 0) {
+                var reindeer = queue[--size];
+                var tile = tileOf(reindeer);
+                var direction = directionOf(reindeer);
+                var score = scores[reindeer];
 
-                                if (nextScore.score() == lowestScore) {
-                                    backtrackMapping.get(nextReindeer).add(reindeer);
-                                } else if (nextScore.score() < lowestScore) {
-                                    lowestScorePerReindeer.put(nextReindeer, nextScore.score());
+                var backward = reindeer(tile - map.orthogonalOffsets()[direction], direction);
+                var turnedFromLeft = reindeer(tile, turnLeft(direction));
+                var turnedFromRight = reindeer(tile, turnRight(direction));
 
-                                    var backtrack = new HashSet<Reindeer>();
-                                    backtrack.add(reindeer);
-                                    backtrackMapping.put(nextReindeer, backtrack);
-                                }
-                            }
-                        });
-                    }
-                }
+                size = backtrack(backward, score - SCORE_STEP, scores, isInBestPath, queue, size);
+                size = backtrack(turnedFromLeft, score - SCORE_TURN, scores, isInBestPath, queue, size);
+                size = backtrack(turnedFromRight, score - SCORE_TURN, scores, isInBestPath, queue, size);
             }
-            return backtrack(ends, backtrackMapping);
-        }
-
-        private Set<Reindeer> backtrack(Set<Reindeer> ends, Map<Reindeer, Set<Reindeer>> backtracks) {
-            var queue = new ArrayList<>(ends);
-            var reindeers = new HashSet<Reindeer>();
 
-            while (!queue.isEmpty()) {
-                var popped = queue.removeFirst();
-                for (var backtrack : backtracks.getOrDefault(popped, emptySet())) {
-                    if (!reindeers.contains(backtrack)) {
-                        reindeers.add(backtrack);
-                        queue.add(backtrack);
-                    }
+            var isTileInBestPath = new boolean[map.capacity()];
+            var tiles = 0;
+            for (int reindeer = 0; reindeer < isInBestPath.length; reindeer++) {
+                if (isInBestPath[reindeer] && !isTileInBestPath[tileOf(reindeer)]) {
+                    isTileInBestPath[tileOf(reindeer)] = true;
+                    tiles++;
                 }
             }
-            return reindeers;
+            return tiles;
         }
 
-        record Reindeer(Tile tile, Direction direction) {
-
-            static Reindeer of(ReindeerAndScore reindeerAndScore) {
-                return new Reindeer(reindeerAndScore.reindeer.tile(), reindeerAndScore.reindeer.direction());
+        private int backtrack(int predecessor, int expectedScore, int[] scores, boolean[] isInBestPath, int[] queue, int size) {
+            if (scores[predecessor] == expectedScore && !isInBestPath[predecessor]) {
+                isInBestPath[predecessor] = true;
+                queue[size++] = predecessor;
             }
+            return size;
         }
-    }
-
-    record ReindeerAndScore(Reindeer reindeer, Score score) implements Comparable<ReindeerAndScore> {
-
-        @Override
-        public int compareTo(ReindeerAndScore other) {
-            return this.score.compareTo(other.score);
-        }
-
-        int scoreValue() {
-            return score.score();
-        }
-
-        List<ReindeerAndScore> next() {
-            var forward = new ReindeerAndScore(
-                    new Reindeer(reindeer.direction.forwardFrom(reindeer.tile),
-                    reindeer.direction),
-                    score.increaseSteps()
-                    );
-            var left = new ReindeerAndScore(
-                    new Reindeer(reindeer.tile,
-                    reindeer.direction.turnLeft()),
-                    score.increaseTurns()
-                    );
-            var right = new ReindeerAndScore(
-                    new Reindeer(reindeer.tile,
-                    reindeer.direction.turnRight()),
-                    score.increaseTurns());
 
-            return List.of(forward, left, right);
-        }
-    }
+        /**
+         * Dijkstra from the start to all reachable reindeers.
+         */
+        private int[] lowestScores() {
+            var scores = new int[map.capacity() * DIRECTIONS];
+            Arrays.fill(scores, MAX_VALUE);
 
-    private record Score(int steps, int turns) implements Comparable<Score> {
+            var queue = new LongMinHeap();
+            scores[start] = 0;
+            queue.add(pack(0, start));
 
-        static Score empty() {
-            return new Score(0, 0);
-        }
+            while (!queue.isEmpty()) {
+                var popped = queue.poll();
+                QUEUE_POPS.increment();
+                var score = priorityOf(popped);
+                var reindeer = payloadOf(popped);
 
-        int maxScore() {
-            return Integer.MAX_VALUE;
-        }
+                if (score > scores[reindeer]) {
+                    continue;
+                }
+                var tile = tileOf(reindeer);
+                var direction = directionOf(reindeer);
 
-        int score() {
-            return steps + turns * 1000;
+                var forward = tile + map.orthogonalOffsets()[direction];
+                if (map.get(forward) != WALL) {
+                    visit(reindeer(forward, direction), score + SCORE_STEP, scores, queue);
+                }
+                visit(reindeer(tile, turnLeft(direction)), score + SCORE_TURN, scores, queue);
+                visit(reindeer(tile, turnRight(direction)), score + SCORE_TURN, scores, queue);
+            }
+            return scores;
         }
 
-        Score increaseSteps() {
-            return new Score(steps + 1, turns);
+        private void visit(int reindeer, int score, int[] scores, LongMinHeap queue) {
+            if (score < scores[reindeer]) {
+                scores[reindeer] = score;
+                queue.add(pack(score, reindeer));
+            }
         }
 
-        Score increaseTurns() {
-            return new Score(steps, turns + 1);
+        private static int[] reindeersAt(int tile) {
+            return new int[]{reindeer(tile, 0), reindeer(tile, 1), reindeer(tile, 2), reindeer(tile, 3)};
         }
 
-        @Override
-        public int compareTo(Score o) {
-            return this.score() - o.score();
+        private static int reindeer(int tile, int direction) {
+            return tile * DIRECTIONS + direction;
         }
-    }
-
-    @RequiredArgsConstructor
-    @Getter
-    enum Symbol {
-        START('S'), END('E'), WALL('#');
 
-        private final char identifier;
-
-        private static final Map<Character, Symbol> IDENTIFIERS = stream(Symbol.values())
-                .collect(toMap(Symbol::getIdentifier, identity()));
-
-        static Optional<Symbol> of(char value) {
-            return Optional.ofNullable(IDENTIFIERS.get(value));
+        private static int tileOf(int reindeer) {
+            return reindeer / DIRECTIONS;
         }
-    }
-
-    record Tile(int x, int y) {
-    }
-
-    @Getter
-    @RequiredArgsConstructor
-    private enum Direction {
-        NORTH(), SOUTH(), WEST(), EAST();
 
-        Direction turnRight() {
-            return switch (this) {
-                case NORTH -> Direction.EAST;
-                case SOUTH -> Direction.WEST;
-                case WEST -> Direction.NORTH;
-                case EAST -> Direction.SOUTH;
-            };
+        private static int directionOf(int reindeer) {
+            return reindeer % DIRECTIONS;
         }
 
-        Direction turnLeft() {
-            return switch (this) {
-                case NORTH -> Direction.WEST;
-                case SOUTH -> Direction.EAST;
-                case WEST -> Direction.SOUTH;
-                case EAST -> Direction.NORTH;
-            };
+        private static int turnRight(int direction) {
+            return (direction + 1) % DIRECTIONS;
         }
 
-        Tile forwardFrom(Tile tile) {
-            return switch (this) {
-                case NORTH -> new Tile(tile.x, tile.y - 1);
-                case SOUTH -> new Tile(tile.x, tile.y + 1);
-                case WEST -> new Tile(tile.x - 1, tile.y);
-                case EAST -> new Tile(tile.x + 1, tile.y);
-            };
+        private static int turnLeft(int direction) {
+            return (direction + DIRECTIONS - 1) % DIRECTIONS;
         }
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package dev.hertlein.aoc2024;
 
 import com.google.common.base.Joiner;
+import dev.hertlein.aoc2024.lib.Metrics;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import org.apache.commons.lang3.NotImplementedException;
@@ -33,6 +34,7 @@ class Day17 implements Day<Void> {
 
         private static final Pattern REGEX_REGISTER = Pattern.compile("(\\d+)");
         private static final Pattern REGEX_INSTRUCTION = Pattern.compile("(\\d)");
+        private static final Metrics.Counter INSTRUCTIONS = Metrics.counter("Day17.instructions");
 
         Computer(List<String> inputLines) {
             this.storage = Arrays.stream(Register.values())
@@ -111,6 +113,7 @@ class Day17 implements Day<Void> {
                 Integer operand = program.get(instructionPointer + 1);
 
                 result = executeInstruction(result, opcode, operand);
+                INSTRUCTIONS.increment();
                 instructionPointer = result.instructionPointer;
 
                 if (result.hasOutput()) {
@@ -1,12 +1,11 @@
 package dev.hertlein.aoc2024;
 
-import lombok.Getter;
-import lombok.RequiredArgsConstructor;
+import dev.hertlein.aoc2024.lib.Grid;
+import dev.hertlein.aoc2024.lib.Metrics;
 
-import java.util.*;
+import java.util.List;
 
 import static dev.hertlein.aoc2024.Day18.AdditionalInput;
-import static java.util.function.Predicate.not;
 
 class Day18 implements Day<AdditionalInput> {
 
@@ -35,11 +34,22 @@ class Day18 implements Day<AdditionalInput> {
 
     static class MemorySpace {
         private final static long NO_PATH_FOUND = -1;
+        private final static char SAFE = '.';
+        private final static char CORRUPTED = '#';
+        private final static Metrics.Counter QUEUE_POPS = Metrics.counter("Day18.queuePops");
+        private final static Metrics.Histogram QUEUE_POPS_PER_SEARCH = Metrics.histogram("Day18.queuePopsPerSearch");
 
         private final List<Position> corruptPositions;
         private final Position start;
         private final Position end;
 
+        // buffers for finding the way, reused by every search
+        private final Grid memory;
+        private final int[] queue;
+        private final int[] steps;
+        private final int[] seenInSearch;
+        private int search;
+
         MemorySpace(List<String> inputLines, Position start, Position end) {
             this.corruptPositions = inputLines.stream()
                     .map(line -> {
@@ -50,74 +60,72 @@ class Day18 implements Day<AdditionalInput> {
 
             this.start = start;
             this.end = end;
-        }
 
-        private boolean isWithinMemorySpace(Position position) {
-            return position.x >= start.x && position.x <= end.x && position.y >= start.y && position.y <= end.y;
+            this.memory = Grid.filled(end.x - start.x + 1, end.y - start.y + 1, SAFE);
+            this.queue = new int[memory.capacity()];
+            this.steps = new int[memory.capacity()];
+            this.seenInSearch = new int[memory.capacity()];
         }
 
-        long minimumNumberOfStepsToExit() {
-            return minimumNumberOfStepsToExit(new HashSet<>(this.corruptPositions));
+        private int indexOf(Position position) {
+            return memory.index(position.x - start.x, position.y - start.y);
         }
 
-        private long minimumNumberOfStepsToExit(Set<Position> corruptedPositions) {
-            var queue = new PriorityQueue<StepsToPosition>();
-            var alreadySeen = new HashSet<Position>();
-            queue.add(new StepsToPosition(start, 0));
+        private void corrupt(Position position) {
+            if (memory.isInside(position.x - start.x, position.y - start.y)) {
+                memory.set(indexOf(position), CORRUPTED);
+            }
+        }
 
-            while (!queue.isEmpty()) {
-                var popped = queue.poll();
+        long minimumNumberOfStepsToExit() {
+            corruptPositions.forEach(this::corrupt);
+            return minimumNumberOfStepsToExitOfCorruptedMemory();
+        }
 
-                if (popped.position.equals(end)) {
-                    return popped.steps;
+        /**
+         * Breadth-first search through the current state of the memory; cells outside the memory space are never safe.
+         */
+        private long minimumNumberOfStepsToExitOfCorruptedMemory() {
+            search++;
+            var from = indexOf(start);
+            var to = indexOf(end);
+
+            var head = 0;
+            var tail = 0;
+            queue[tail++] = from;
+            steps[from] = 0;
+            seenInSearch[from] = search;
+
+            while (head < tail) {
+                var current = queue[head++];
+                QUEUE_POPS.increment();
+
+                if (current == to) {
+                    QUEUE_POPS_PER_SEARCH.record(head);
+                    return steps[current];
                 }
 
-                var neighbours = Arrays.stream(Direction.values())
-                        .map(direction -> direction.forwardFrom(popped.position))
-                        .filter(this::isWithinMemorySpace)
-                        .filter(not(corruptedPositions::contains))
-                        .filter(not(alreadySeen::contains))
-                        .toList();
-
-                queue.addAll(neighbours.stream().map(neighbour -> new StepsToPosition(neighbour, popped.steps + 1)).toList());
-                alreadySeen.addAll(neighbours);
+                for (var offset : memory.orthogonalOffsets()) {
+                    var neighbour = current + offset;
+                    if (memory.get(neighbour) == SAFE && seenInSearch[neighbour] != search) {
+                        seenInSearch[neighbour] = search;
+                        steps[neighbour] = steps[current] + 1;
+                        queue[tail++] = neighbour;
+                    }
+                }
             }
+            QUEUE_POPS_PER_SEARCH.record(head);
             return NO_PATH_FOUND;
         }
 
         Position positionOfSpoilingByte() {
-            var candidates = new ArrayList<Position>();
-
             for (var candidate : corruptPositions) {
-                candidates.add(candidate);
-                if (minimumNumberOfStepsToExit(new HashSet<>(candidates)) == NO_PATH_FOUND) {
+                corrupt(candidate);
+                if (minimumNumberOfStepsToExitOfCorruptedMemory() == NO_PATH_FOUND) {
                     return candidate;
                 }
             }
             throw new IllegalStateException("No byte found which is blocking the path to the exit.");
         }
     }
-
-    record StepsToPosition(Position position, int steps) implements Comparable<StepsToPosition> {
-
-        @Override
-        public int compareTo(StepsToPosition other) {
-            return this.steps - other.steps;
-        }
-    }
-
-    @Getter
-    @RequiredArgsConstructor
-    private enum Direction {
-        NORTH, SOUTH, WEST, EAST;
-
-        Position forwardFrom(Position position) {
-            return switch (this) {
-                case NORTH -> new Position(position.x, position.y - 1);
-                case SOUTH -> new Position(position.x, position.y + 1);
-                case WEST -> new Position(position.x - 1, position.y);
-                case EAST -> new Position(position.x + 1, position.y);
-            };
-        }
-    }
 }
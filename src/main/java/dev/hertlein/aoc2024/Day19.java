@@ -3,6 +3,7 @@ package dev.hertlein.aoc2024;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import dev.hertlein.aoc2024.lib.Metrics;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.SneakyThrows;
@@ -31,11 +32,14 @@ class Day19 implements Day<Void> {
         private final Set<String> patterns;
         private final List<String> designs;
 
+        private static final Metrics.CacheCounter CACHE = Metrics.cacheCounter("Day19.cache");
+
         private final LoadingCache<String, Long> possibleArrangementsCache =
                 CacheBuilder.newBuilder().build(new CacheLoader<>() {
                     @Override
                     @NonNull
                     public Long load(@NonNull String design) {
+                        CACHE.miss();
                         return possibleArrangementsFor(design);
                     }
                 });
@@ -85,6 +89,7 @@ class Day19 implements Day<Void> {
                     String prefix = design.substring(0, i);
                     String rest = design.substring(i);
                     if (patterns.contains(prefix)) {
+                        CACHE.lookup();
                         count += possibleArrangementsCache.get(rest);
                     }
                 }
@@ -1,15 +1,10 @@
 package dev.hertlein.aoc2024;
 
-import lombok.AllArgsConstructor;
-import lombok.Getter;
-import lombok.RequiredArgsConstructor;
+import dev.hertlein.aoc2024.lib.Grid;
+import dev.hertlein.aoc2024.lib.Metrics;
 
-import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Stream;
-
-import static java.util.Collections.emptyMap;
-import static java.util.function.Predicate.not;
+import java.util.Arrays;
+import java.util.List;
 
 class Day20 implements Day<Day20.MinimumNumberOfPicosecondsToSave> {
 
@@ -28,156 +23,126 @@ class Day20 implements Day<Day20.MinimumNumberOfPicosecondsToSave> {
                 .numberOfCheatsSavingMoreThanWithinBounds(minimumNumberOfPicosecondsToSave.value, 2, 20);
     }
 
-    @AllArgsConstructor
     static class Racetrack {
-        private final Map<Position, Character> positions;
-        private final int maxX;
-        private final int maxY;
-        private Position start;
-        @Getter
-        private Position end;
+        private static final char WALL = '#';
+        private static final int UNREACHED = -1;
+        private static final Metrics.Counter QUEUE_POPS = Metrics.counter("Day20.queuePops");
+
+        private final Grid positions;
+        private final int start;
+        private final int end;
 
         Racetrack(List<String> inputLines) {
-            this.maxY = inputLines.size() - 1;
-            this.maxX = inputLines.getFirst().length() - 1;
-            this.positions = new TreeMap<>();
-
-            for (int y = 0; y < inputLines.size(); y++) {
-                for (int x = 0; x < inputLines.get(y).length(); x++) {
-                    var charAt = inputLines.get(y).charAt(x);
-                    var position = new Position(x, y);
-                    positions.put(position, charAt);
-                    if (charAt == 'S') {
-                        start = position;
-                    } else if (charAt == 'E') {
-                        end = position;
-                    }
-                }
-            }
+            this.positions = Grid.of(inputLines);
+            this.start = positions.indexOf('S');
+            this.end = positions.indexOf('E');
+        }
+
+        Position getEnd() {
+            return new Position(positions.x(end), positions.y(end));
         }
 
-        private boolean isWithinRacetrack(Position position) {
-            return position.y > 0
-                    && position.y < maxY
-                    && position.x > 0
-                    && position.x < maxX;
+        private boolean isWithinRacetrack(int x, int y) {
+            return y > 0
+                    && y < positions.getHeight() - 1
+                    && x > 0
+                    && x < positions.getWidth() - 1;
         }
 
-        private boolean isWall(Position position) {
-            return positions.get(position) == '#';
+        private boolean isWall(int position) {
+            return positions.get(position) == WALL;
         }
 
         private long numberOfCheatsSavingMoreThan(int picoseconds) {
-            var distancesToStartPosition = distancesToStartPosition();
+            var distances = distancesToStartPosition();
+            var cheatLength = 2;
+            int[][] cheats = {{0, cheatLength}, {0, -cheatLength}, {-cheatLength, 0}, {cheatLength, 0}};
 
             long count = 0;
-            for (var position : positions.keySet()) {
-                if (isWall(position)) {
+            for (int position = 0; position < positions.capacity(); position++) {
+                if (distances.values[position] == UNREACHED) {
                     continue;
                 }
-                count += Stream.of(
-                                new Position(position.x, position.y + 2),
-                                new Position(position.x, position.y - 2),
-                                new Position(position.x - 2, position.y),
-                                new Position(position.x + 2, position.y)
-                        )
-                        .filter(this::isWithinRacetrack)
-                        .filter(not(this::isWall))
-                        .map(candidate -> distancesToStartPosition.get(position) - distancesToStartPosition.get(candidate))
-                        .filter(savedPicoseconds -> savedPicoseconds >= (picoseconds + 2))
-                        .count();
+                for (var cheat : cheats) {
+                    count += countIfCheatSaves(distances, position, cheat[0], cheat[1], picoseconds + cheatLength);
+                }
             }
             return count;
         }
 
         private long numberOfCheatsSavingMoreThanWithinBounds(int picoseconds, int lowerBound, int upperBound) {
-            var distancesToStartPosition = distancesToStartPosition();
+            var distances = distancesToStartPosition();
 
             long count = 0;
-            for (var position : positions.keySet()) {
-                if (isWall(position)) {
+            for (int position = 0; position < positions.capacity(); position++) {
+                if (distances.values[position] == UNREACHED) {
                     continue;
                 }
-
-                var distance = new AtomicInteger(0);
-                for (int d = lowerBound; d <= upperBound; d++) {
-                    for (int distanceY = 0; distanceY <= d; distanceY++) {
-                        distance.set(d);
-                        var distanceX = distance.get() - distanceY;
-
-                        var candidates = new HashSet<Position>();
-                        candidates.add(new Position(position.x + distanceX, position.y + distanceY));
-                        candidates.add(new Position(position.x + distanceX, position.y - distanceY));
-                        candidates.add(new Position(position.x - distanceX, position.y + distanceY));
-                        candidates.add(new Position(position.x - distanceX, position.y - distanceY));
-
-                        count += candidates.stream()
-                                .filter(this::isWithinRacetrack)
-                                .filter(not(this::isWall))
-                                .map(candidate -> distancesToStartPosition.get(position) - distancesToStartPosition.get(candidate))
-                                .filter(savedPicoseconds -> savedPicoseconds >= (picoseconds + distance.get()))
-                                .count();
+                for (int distanceY = -upperBound; distanceY <= upperBound; distanceY++) {
+                    var remaining = upperBound - Math.abs(distanceY);
+                    for (int distanceX = -remaining; distanceX <= remaining; distanceX++) {
+                        var cheatLength = Math.abs(distanceX) + Math.abs(distanceY);
+                        if (cheatLength >= lowerBound) {
+                            count += countIfCheatSaves(distances, position, distanceX, distanceY, picoseconds + cheatLength);
+                        }
                     }
                 }
             }
             return count;
         }
 
-        Map<Position, Long> distancesToStartPosition() {
-            Map<Position, Long> distanceToStart = new HashMap<>();
-            var queue = new ArrayList<Position>();
-
-            queue.add(start);
-            distanceToStart.put(start, 0L);
+        private int countIfCheatSaves(Distances distances, int position, int distanceX, int distanceY, int minimumSavedPicoseconds) {
+            var x = positions.x(position) + distanceX;
+            var y = positions.y(position) + distanceY;
+            if (!isWithinRacetrack(x, y)) {
+                return 0;
+            }
+            var candidate = position + positions.offset(distanceX, distanceY);
+            if (isWall(candidate)) {
+                return 0;
+            }
+            var savedPicoseconds = distances.values[position] - distances.values[candidate];
+            return savedPicoseconds >= minimumSavedPicoseconds ? 1 : 0;
+        }
 
-            while (!queue.isEmpty()) {
-                var current = queue.removeFirst();
-                if (current.equals(end)) {
-                    return distanceToStart;
+        Distances distancesToStartPosition() {
+            var distanceToStart = new int[positions.capacity()];
+            Arrays.fill(distanceToStart, UNREACHED);
+            var queue = new int[positions.capacity()];
+            var head = 0;
+            var tail = 0;
+
+            queue[tail++] = start;
+            distanceToStart[start] = 0;
+
+            while (head < tail) {
+                var current = queue[head++];
+                QUEUE_POPS.increment();
+
+                for (var offset : positions.orthogonalOffsets()) {
+                    var neighbour = current + offset;
+                    if (!isWall(neighbour) && positions.get(neighbour) != Grid.OUTSIDE && distanceToStart[neighbour] == UNREACHED) {
+                        distanceToStart[neighbour] = distanceToStart[current] + 1;
+                        queue[tail++] = neighbour;
+                    }
                 }
+            }
+            return new Distances(this, distanceToStart);
+        }
+    }
 
-                var neighbours = Arrays.stream(Direction.values())
-                        .map(direction -> direction.forwardFrom(current))
-                        .filter(not(this::isWall))
-                        .filter(not(distanceToStart::containsKey))
-                        .toList();
+    record Distances(Racetrack racetrack, int[] values) {
 
-                neighbours.forEach(neighbour -> distanceToStart.put(neighbour, distanceToStart.get(current) + 1));
-                queue.addAll(neighbours);
-            }
-            return emptyMap();
+        long get(Position position) {
+            return values[racetrack.positions.index(position.x, position.y)];
         }
     }
 
-    private record Position(int x, int y) implements Comparable<Position> {
+    private record Position(int x, int y) {
 
         @Override
         public String toString() {
             return x + "," + y;
         }
-
-        @Override
-        public int compareTo(Position other) {
-            if (this.y == other.y) {
-                return this.x - other.x;
-            } else {
-                return this.y - other.y;
-            }
-        }
-    }
-
-    @Getter
-    @RequiredArgsConstructor
-    private enum Direction {
-        NORTH, SOUTH, WEST, EAST;
-
-        Position forwardFrom(Position position) {
-            return switch (this) {
-                case NORTH -> new Position(position.x, position.y - 1);
-                case SOUTH -> new Position(position.x, position.y + 1);
-                case WEST -> new Position(position.x - 1, position.y);
-                case EAST -> new Position(position.x + 1, position.y);
-            };
-        }
     }
 }
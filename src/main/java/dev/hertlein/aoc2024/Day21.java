@@ -4,6 +4,7 @@ import com.google.common.base.Joiner;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import dev.hertlein.aoc2024.lib.Metrics;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
@@ -43,26 +44,30 @@ class Day21 implements Day<Void> {
     static class Starship {
         private static final Pattern CODE_PATTERN = Pattern.compile("(\\d{3})");
 
+        private static final Metrics.CacheCounter CACHE = Metrics.cacheCounter("Day21.cache");
+
+        // the keypads and so the lengths of their sequences are the same for all starships - they are shared by all inputs
+        private static final Map<CharacterFromTo, List<String>> SHORTEST_NUMERICAL_SEQS = shortestSequencesOn(new NumericalKeypad());
+        private static final Map<CharacterFromTo, List<String>> SHORTEST_DIRECTIONAL_SEQS = shortestSequencesOn(new DirectionalKeypad());
+
+        // one per starship and so per solve - the cached lengths are released with it
         private final LoadingCache<Pair<String, Integer>, Long> lengthOfShortestSequenceCache =
                 CacheBuilder.newBuilder().build(new CacheLoader<>() {
                     @Override
                     @NonNull
                     public Long load(@NonNull Pair<String, Integer> pair) {
+                        CACHE.miss();
                         return lengthOfShortestSequencesOnDirectionalKeypadFor(pair.getKey(), pair.getValue());
                     }
                 });
 
         private final int numberOfRobots;
-        private final Map<CharacterFromTo, List<String>> shortestNumericalSeqs;
-        private final Map<CharacterFromTo, List<String>> shortestDirectionalSeqs;
 
         Starship(int numberOfRobots) {
             this.numberOfRobots = numberOfRobots;
-            this.shortestNumericalSeqs = shortestSequencesOn(new NumericalKeypad());
-            this.shortestDirectionalSeqs = shortestSequencesOn(new DirectionalKeypad());
         }
 
-        private Map<CharacterFromTo, List<String>> shortestSequencesOn(Keypad keypad) {
+        private static Map<CharacterFromTo, List<String>> shortestSequencesOn(Keypad keypad) {
             return keypad
                     .allCombinationsOfFromTo()
                     .stream()
@@ -75,7 +80,7 @@ class Day21 implements Day<Void> {
                             fromTo -> fromTo.isDestinationReached() ? List.of("A") : shortestSequencesOn(keypad, fromTo)));
         }
 
-        private List<String> shortestSequencesOn(Keypad keypad, PositionFromTo fromTo) {
+        private static List<String> shortestSequencesOn(Keypad keypad, PositionFromTo fromTo) {
             var shortestLength = Integer.MAX_VALUE;
             var shortestSequences = new ArrayList<String>();
             var queue = new ArrayList<MovesToPosition>();
@@ -134,7 +139,7 @@ class Day21 implements Day<Void> {
                                     .chars()
                                     .mapToObj(c -> (char) c)
                                     .gather(Gatherers.windowSliding(2))
-                                    .map(fromTo -> shortestNumericalSeqs.get(new CharacterFromTo(fromTo.getFirst(), fromTo.getLast())))
+                                    .map(fromTo -> SHORTEST_NUMERICAL_SEQS.get(new CharacterFromTo(fromTo.getFirst(), fromTo.getLast())))
                                     .toList())
                     .stream()
                     .map(option -> Joiner.on("").join(option))
@@ -149,7 +154,7 @@ class Day21 implements Day<Void> {
 
             long sumOfFromToLengths = 0;
             for (var fromTo : fromTos) {
-                var sequences = shortestDirectionalSeqs.get(new CharacterFromTo(fromTo.getFirst(), fromTo.getLast()));
+                var sequences = SHORTEST_DIRECTIONAL_SEQS.get(new CharacterFromTo(fromTo.getFirst(), fromTo.getLast()));
                 if (remainingRobots == 1) {
                     sumOfFromToLengths += sequences.stream()
                             .mapToInt(String::length)
@@ -167,6 +172,7 @@ class Day21 implements Day<Void> {
 
         @SneakyThrows
         private Long getFromCacheOrPutIntoCache(String sequence, int remainingRobots) {
+            CACHE.lookup();
             return lengthOfShortestSequenceCache.get(Pair.of(sequence, remainingRobots));
         }
     }
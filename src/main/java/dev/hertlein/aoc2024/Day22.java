@@ -1,6 +1,7 @@
 package dev.hertlein.aoc2024;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.LongStream;
@@ -9,28 +10,27 @@ import static java.lang.Integer.parseInt;
 import static java.util.stream.Collectors.toMap;
 import static java.util.stream.Gatherers.windowSliding;
 
-class Day22 implements Day<Void> {
+class Day22 implements StreamingDay<Void> {
 
     @Override
-    public Object part1(List<String> inputLines, Void v) {
-        return Buyers.of(inputLines)
-                .nthSecretNumbers(2_000)
-                .stream()
-                .mapToLong(number -> number)
-                .sum();
+    public LineConsumer part1Consumer(Void v) {
+        return LineConsumer.summing(line -> Buyer.of(line).nthSecretNumber(2_000));
     }
 
     @Override
-    public Object part2(List<String> inputLines, Void v) {
-        return Buyers.of(inputLines)
-                .maxBananas(2_000);
+    public LineConsumer part2Consumer(Void v) {
+        // there are at most 19^4 price sequences, no matter how many buyers
+        var bananas = new HashMap<PriceSequence, Long>();
+        return LineConsumer.of(
+                line -> Buyer.of(line).priceChanges(2_000).forEach((sequence, price) -> bananas.merge(sequence, price, Long::sum)),
+                () -> bananas.values().stream().mapToLong(number -> number).max().orElseThrow());
     }
 
     record Buyers(List<Buyer> buyers) {
 
         static Buyers of(List<String> input) {
             return new Buyers(input.stream()
-                    .map(initialNumber -> new Buyer(parseInt(initialNumber)))
+                    .map(Buyer::of)
                     .toList());
         }
 
@@ -63,6 +63,10 @@ class Day22 implements Day<Void> {
 
     record Buyer(long initialNumber) {
 
+        static Buyer of(CharSequence initialNumber) {
+            return new Buyer(parseInt(initialNumber, 0, initialNumber.length(), 10));
+        }
+
         long nthSecretNumber(int nth) {
             return LongStream.range(0, nth)
                     .reduce(initialNumber, (acc, _) -> Calculator.nextNumber(acc));
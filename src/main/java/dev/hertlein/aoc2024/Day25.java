@@ -2,39 +2,47 @@ package dev.hertlein.aoc2024;
 
 import com.google.common.collect.Streams;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static dev.hertlein.aoc2024.Day25.Type.KEY;
 import static dev.hertlein.aoc2024.Day25.Type.LOCK;
 import static java.util.Arrays.asList;
 import static java.util.Arrays.fill;
-import static java.util.function.Predicate.not;
-import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Gatherers.windowFixed;
 
-class Day25 implements Day<Void> {
+class Day25 implements StreamingDay<Void> {
 
     @Override
-    public Integer part1(List<String> inputLines, Void v) {
-        return Schematics.of(inputLines).numberOfFittingLockKeyPairs();
+    public LineConsumer part1Consumer(Void v) {
+        var schematics = Schematics.empty();
+        return LineConsumer.of(schematics.consumer(), schematics::numberOfFittingLockKeyPairs);
     }
 
     @Override
-    public Object part2(List<String> inputLines, Void v) {
+    public LineConsumer part2Consumer(Void v) {
         // No part 2 for day 25
-        return 0L;
+        return LineConsumer.of(_ -> {
+        }, () -> 0L);
     }
 
     record Schematics(List<Schematic> keys, List<Schematic> locks) {
 
         static Schematics of(List<String> inputLines) {
-            var keysAndLocks = inputLines.stream()
-                    .filter(not(String::isEmpty))
-                    .gather(windowFixed(7))
-                    .map(Schematic::of)
-                    .collect(groupingBy(Schematic::type));
+            var schematics = empty();
+            inputLines.forEach(schematics.consumer());
+            return schematics;
+        }
+
+        static Schematics empty() {
+            return new Schematics(new ArrayList<>(), new ArrayList<>());
+        }
 
-            return new Schematics(keysAndLocks.get(KEY), keysAndLocks.get(LOCK));
+        Consumer<CharSequence> consumer() {
+            return LineConsumer.blocksOf(7, schematicInput -> {
+                var schematic = Schematic.of(schematicInput);
+                (schematic.type == KEY ? keys : locks).add(schematic);
+            });
         }
 
         int numberOfFittingLockKeyPairs() {
@@ -0,0 +1,308 @@
+package dev.hertlein.aoc2024;
+
+import com.sun.management.ThreadMXBean;
+import dev.hertlein.aoc2024.lib.InputReader;
+import dev.hertlein.aoc2024.lib.Metrics;
+import dev.hertlein.aoc2024.lib.ResultCache;
+import lombok.SneakyThrows;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Runs both parts of all days within one JVM and reports wall time, CPU time and allocated bytes of every part.
+ * <p>
+ * Every part is a task of its own, so with a concurrent execution the whole run takes about as long as the slowest part.
+ * The task hands the part to a fork/join pool of its own, so parallel streams of the part run in that pool, too.
+ * CPU time and allocated bytes are taken from the {@link ThreadMXBean} of every thread of that pool, when it terminates.
+ * The {@link Execution} only chooses the threads dispatching the parts, the pool of every part has one thread per core.
+ * <p>
+ * With a result cache directory, results are taken from a {@link ResultCache} shared by all runs, so only parts with
+ * changed inputs are solved again.
+ * <p>
+ * With the system property <code>aoc.metrics=true</code>, the {@link Metrics} of all days are reported, too.
+ * <p>
+ * Usage: <code>Runner [fixed[:threads]|virtual|sequential] [challenge|sample] [result cache directory]</code>
+ */
+class Runner {
+
+    private static final int FIRST_DAY = 1;
+    private static final int LAST_DAY = 25;
+    private static final long NOT_AVAILABLE = -1;
+    private static final long RESULT_CACHE_MAX_BYTES = 16 * 1024 * 1024;
+
+    private final ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final Inputs inputs;
+    private final Optional<ResultCache> resultCache;
+
+    Runner(Inputs inputs) {
+        this(inputs, Optional.empty());
+    }
+
+    Runner(Inputs inputs, Optional<ResultCache> resultCache) {
+        this.inputs = inputs;
+        this.resultCache = resultCache;
+    }
+
+    public static void main(String[] args) {
+        var execution = Execution.of(args.length > 0 ? args[0] : "fixed");
+        var inputs = Inputs.of(args.length > 1 ? args[1] : "challenge");
+        var resultCache = Optional.of(args)
+                .filter(arguments -> arguments.length > 2)
+                .map(arguments -> new ResultCache(Path.of(arguments[2]), RESULT_CACHE_MAX_BYTES));
+        var report = new Runner(inputs, resultCache).run(execution);
+
+        System.out.println(report);
+        if (Metrics.isEnabled()) {
+            System.out.println(Metrics.report());
+        }
+        if (report.hasFailures()) {
+            System.exit(1);
+        }
+    }
+
+    Report run(Execution execution) {
+        var start = System.nanoTime();
+
+        try (var executor = execution.newExecutor()) {
+            var measurements = discoverDays()
+                    .stream()
+                    .flatMap(day -> Stream.of(1, 2)
+                            .filter(part -> inputs.isSolvable(day, part))
+                            .map(part -> executor.submit(() -> measure(day, part))))
+                    .toList()
+                    .stream()
+                    .map(Runner::join)
+                    .toList();
+
+            return new Report(execution, measurements, Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    static List<Day<Object>> discoverDays() {
+        return IntStream.rangeClosed(FIRST_DAY, LAST_DAY)
+                .mapToObj(Runner::dayOf)
+                .flatMap(Optional::stream)
+                .toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    static Optional<Day<Object>> dayOf(int day) {
+        try {
+            var dayClass = Class.forName("%s.Day%02d".formatted(Day.class.getPackageName(), day));
+            if (!Day.class.isAssignableFrom(dayClass)) {
+                return Optional.empty();
+            }
+            return Optional.of((Day<Object>) dayClass.getDeclaredConstructor().newInstance());
+        } catch (ReflectiveOperationException e) {
+            return Optional.empty();
+        }
+    }
+
+    @SneakyThrows
+    private static Measurement join(Future<Measurement> future) {
+        return future.get();
+    }
+
+    private Measurement measure(Day<Object> day, int part) {
+        var dayName = day.getClass().getSimpleName();
+        var threads = new MeasuredThreads();
+
+        Object result;
+        long wallTime;
+        // closing waits for all threads of the pool to terminate - and so to add their measurements
+        try (var pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), threads, null, false)) {
+            var inputLines = inputs.reader.apply(day);
+            var additionalInput = inputs.additionalInputs.get(day.getClass());
+            var solvingDay = resultCache.<Day<Object>>map(cache -> new CachingDay<>(day, cache)).orElse(day);
+
+            var wallTimeBefore = System.nanoTime();
+            result = pool
+                    .submit(() -> part == 1
+                            ? solvingDay.part1(inputLines, additionalInput)
+                            : solvingDay.part2(inputLines, additionalInput))
+                    .get();
+            wallTime = System.nanoTime() - wallTimeBefore;
+        } catch (ExecutionException e) {
+            return Measurement.failed(dayName, part, e.getCause());
+        } catch (Throwable e) {
+            // errors as well, e.g. a StackOverflowError of one part shouldn't abort the whole run
+            return Measurement.failed(dayName, part, e);
+        }
+        return new Measurement(dayName, part, String.valueOf(result), wallTime, threads.cpuTime(), threads.allocatedBytes());
+    }
+
+    /**
+     * Creates the threads of the fork/join pool of a part and sums up their CPU time and allocated bytes.
+     */
+    private class MeasuredThreads implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+
+        private final LongAdder cpuTime = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final AtomicBoolean isNotAvailable = new AtomicBoolean();
+
+        @Override
+        public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+            return new ForkJoinWorkerThread(pool) {
+
+                @Override
+                protected void onTermination(Throwable exception) {
+                    add(cpuTime, threadMXBean.getCurrentThreadCpuTime());
+                    add(allocatedBytes, threadMXBean.getCurrentThreadAllocatedBytes());
+                    super.onTermination(exception);
+                }
+            };
+        }
+
+        private void add(LongAdder sum, long value) {
+            if (value == NOT_AVAILABLE) {
+                isNotAvailable.set(true);
+            }
+            sum.add(value);
+        }
+
+        long cpuTime() {
+            return isNotAvailable.get() ? NOT_AVAILABLE : cpuTime.sum();
+        }
+
+        long allocatedBytes() {
+            return isNotAvailable.get() ? NOT_AVAILABLE : allocatedBytes.sum();
+        }
+    }
+
+    record Inputs(
+            String name,
+            Function<Day<?>, List<String>> reader,
+            Map<Class<?>, Object> additionalInputs,
+            Map<Class<?>, Set<Integer>> unsolvableParts) {
+
+        static final Inputs CHALLENGE = new Inputs(
+                "challenge",
+                InputReader::mapChallengeInputFor,
+                Map.of(
+                        Day14.class, new Day14.AreaSize(101, 103),
+                        Day18.class, new Day18.AdditionalInput(new Day18.Position(0, 0), new Day18.Position(70, 70), 1024),
+                        Day20.class, new Day20.MinimumNumberOfPicosecondsToSave(100)),
+                Map.of());
+
+        // some parts can't be solved for their samples - like in the tests of those days, Day16 has its samples in the test
+        static final Inputs SAMPLE = new Inputs(
+                "sample",
+                InputReader::mapSampleInputFor,
+                Map.of(
+                        Day14.class, new Day14.AreaSize(11, 7),
+                        Day18.class, new Day18.AdditionalInput(new Day18.Position(0, 0), new Day18.Position(6, 6), 12),
+                        Day20.class, new Day20.MinimumNumberOfPicosecondsToSave(2)),
+                Map.of(
+                        Day14.class, Set.of(2),
+                        Day16.class, Set.of(1, 2),
+                        Day17.class, Set.of(2),
+                        Day21.class, Set.of(2),
+                        Day24.class, Set.of(2)));
+
+        static Inputs of(String value) {
+            return switch (value) {
+                case "challenge" -> CHALLENGE;
+                case "sample" -> SAMPLE;
+                default -> throw new IllegalArgumentException("Unknown inputs '%s'".formatted(value));
+            };
+        }
+
+        boolean isSolvable(Day<?> day, int part) {
+            return !unsolvableParts.getOrDefault(day.getClass(), Set.of()).contains(part);
+        }
+    }
+
+    record Execution(String name, int threads) {
+
+        static Execution of(String value) {
+            var nameAndThreads = value.split(":");
+            var threads = nameAndThreads.length > 1
+                    ? Integer.parseInt(nameAndThreads[1])
+                    : Runtime.getRuntime().availableProcessors();
+
+            return switch (nameAndThreads[0]) {
+                case "sequential" -> new Execution("sequential", 1);
+                case "virtual" -> new Execution("virtual", 0);
+                case "fixed" -> new Execution("fixed", threads);
+                default -> throw new IllegalArgumentException("Unknown execution '%s'".formatted(value));
+            };
+        }
+
+        ExecutorService newExecutor() {
+            return switch (name) {
+                case "sequential" -> Executors.newSingleThreadExecutor();
+                case "virtual" -> Executors.newVirtualThreadPerTaskExecutor();
+                default -> Executors.newFixedThreadPool(threads);
+            };
+        }
+    }
+
+    record Measurement(String day, int part, String result, long wallTime, long cpuTime, long allocatedBytes, String failure) {
+
+        Measurement(String day, int part, String result, long wallTime, long cpuTime, long allocatedBytes) {
+            this(day, part, result, wallTime, cpuTime, allocatedBytes, null);
+        }
+
+        static Measurement failed(String day, int part, Throwable exception) {
+            return new Measurement(day, part, null, NOT_AVAILABLE, NOT_AVAILABLE, NOT_AVAILABLE, exception.toString());
+        }
+
+        boolean hasFailed() {
+            return failure != null;
+        }
+
+        @Override
+        public String toString() {
+            if (hasFailed()) {
+                return "%-6s %4d  failed: %s".formatted(day, part, failure);
+            }
+            return "%-6s %4d  %-48s %12s %12s %14s".formatted(
+                    day, part, result, millis(wallTime), millis(cpuTime), megabytes(allocatedBytes));
+        }
+
+        private static String millis(long nanos) {
+            return nanos == NOT_AVAILABLE ? "n/a" : "%.1f".formatted(nanos / 1_000_000.0);
+        }
+
+        private static String megabytes(long bytes) {
+            return bytes == NOT_AVAILABLE ? "n/a" : "%.1f".formatted(bytes / (1024.0 * 1024.0));
+        }
+    }
+
+    record Report(Execution execution, List<Measurement> measurements, Duration wallTime) {
+
+        boolean hasFailures() {
+            return measurements.stream().anyMatch(Measurement::hasFailed);
+        }
+
+        @Override
+        public String toString() {
+            var header = "%-6s %4s  %-48s %12s %12s %14s".formatted(
+                    "Day", "Part", "Result", "Wall [ms]", "CPU [ms]", "Alloc [MB]");
+            var sumOfWallTimes = measurements.stream()
+                    .filter(measurement -> !measurement.hasFailed())
+                    .mapToLong(Measurement::wallTime)
+                    .sum();
+            var footer = "Execution: %s - total wall time: %d ms, sum of wall times of all parts: %d ms".formatted(
+                    execution.name, wallTime.toMillis(), Duration.ofNanos(sumOfWallTimes).toMillis());
+
+            return Stream.of(Stream.of(header), measurements.stream().map(Measurement::toString), Stream.of(footer))
+                    .flatMap(Function.identity())
+                    .collect(joining("\n"));
+        }
+    }
+}
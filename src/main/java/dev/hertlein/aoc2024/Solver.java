@@ -0,0 +1,38 @@
+package dev.hertlein.aoc2024;
+
+/**
+ * Solves a single part of a single day and prints nothing but its answer - for short-lived JVMs launched per puzzle.
+ * <p>
+ * Only the classes of that day are loaded. Together with the class data sharing archive of the task
+ * <code>startupLauncher</code>, which is recorded by running all days on their sample inputs, the answer is printed
+ * without loading and linking most classes from scratch.
+ * <p>
+ * Usage: <code>Solver day part [challenge|sample]</code>
+ */
+class Solver {
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: Solver day part [challenge|sample]");
+            System.exit(2);
+        }
+        var dayNumber = Integer.parseInt(args[0]);
+        var part = Integer.parseInt(args[1]);
+        var inputs = Runner.Inputs.of(args.length > 2 ? args[2] : "challenge");
+
+        var day = Runner.dayOf(dayNumber)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown day %d".formatted(dayNumber)));
+        System.out.println(solve(day, part, inputs));
+    }
+
+    static Object solve(Day<Object> day, int part, Runner.Inputs inputs) {
+        var inputLines = inputs.reader().apply(day);
+        var additionalInput = inputs.additionalInputs().get(day.getClass());
+
+        return switch (part) {
+            case 1 -> day.part1(inputLines, additionalInput);
+            case 2 -> day.part2(inputLines, additionalInput);
+            default -> throw new IllegalArgumentException("Unknown part %d".formatted(part));
+        };
+    }
+}
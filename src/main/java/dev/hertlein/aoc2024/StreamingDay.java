@@ -0,0 +1,96 @@
+package dev.hertlein.aoc2024;
+
+import dev.hertlein.aoc2024.lib.MappedInput;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * A day solving its parts line by line, so the answers are accumulated while the input is still being read - and the
+ * lines don't need to be kept in memory.
+ * <p>
+ * Every part provides a {@link LineConsumer}, which all lines are pushed into. Its result is the answer of the part.
+ */
+public interface StreamingDay<T> extends Day<T> {
+
+    LineConsumer part1Consumer(T additionalInput);
+
+    LineConsumer part2Consumer(T additionalInput);
+
+    default Object part1(Stream<? extends CharSequence> inputLines, T additionalInput) {
+        return part1Consumer(additionalInput).consumeAll(inputLines);
+    }
+
+    default Object part2(Stream<? extends CharSequence> inputLines, T additionalInput) {
+        return part2Consumer(additionalInput).consumeAll(inputLines);
+    }
+
+    @Override
+    default Object part1(List<String> inputLines, T additionalInput) {
+        return part1(MappedInput.viewsOf(inputLines).stream(), additionalInput);
+    }
+
+    @Override
+    default Object part2(List<String> inputLines, T additionalInput) {
+        return part2(MappedInput.viewsOf(inputLines).stream(), additionalInput);
+    }
+
+    /**
+     * Consumes the lines of an input one by one. A line is only valid while it is consumed - it may be a view onto a
+     * buffer being reused for the next line.
+     */
+    interface LineConsumer extends Consumer<CharSequence> {
+
+        Object result();
+
+        default Object consumeAll(Stream<? extends CharSequence> inputLines) {
+            inputLines.forEachOrdered(this);
+            return result();
+        }
+
+        static LineConsumer of(Consumer<CharSequence> consumer, Supplier<Object> result) {
+            return new LineConsumer() {
+
+                @Override
+                public void accept(CharSequence line) {
+                    consumer.accept(line);
+                }
+
+                @Override
+                public Object result() {
+                    return result.get();
+                }
+            };
+        }
+
+        /**
+         * @return a consumer summing up a value of every line - e.g. 1 to count the lines matching a predicate
+         */
+        static LineConsumer summing(ToLongFunction<CharSequence> valueOfLine) {
+            var sum = new LongAdder();
+            return of(line -> sum.add(valueOfLine.applyAsLong(line)), sum::sum);
+        }
+
+        /**
+         * @return a consumer collecting blocks of the given number of non-empty lines - for inputs with records spanning
+         * several lines. Empty lines between the blocks are skipped.
+         */
+        static Consumer<CharSequence> blocksOf(int numberOfLines, Consumer<List<String>> blockConsumer) {
+            var block = new ArrayList<String>(numberOfLines);
+            return line -> {
+                if (!line.isEmpty()) {
+                    block.add(line.toString());
+                }
+                if (block.size() == numberOfLines) {
+                    blockConsumer.accept(List.copyOf(block));
+                    block.clear();
+                }
+            };
+        }
+    }
+}
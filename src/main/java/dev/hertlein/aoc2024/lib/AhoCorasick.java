@@ -0,0 +1,133 @@
+package dev.hertlein.aoc2024.lib;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An Aho-Corasick automaton, finding any number of words in a single pass over a text - with one transition per
+ * character, no matter how many words there are.
+ * <p>
+ * The automaton is a complete DFA: the failure links are resolved into the transitions while building it, so
+ * {@link #next(int, int)} is a single table lookup. Characters not occurring in any word share one column of the table.
+ * <p>
+ * Words are identified by their index in the list the automaton is built from. The entries of a word occurring several
+ * times in that list are matched each.
+ */
+public final class AhoCorasick {
+
+    public static final int START = 0;
+
+    private final int[] symbols;
+    private final int numberOfSymbols;
+    private final int[] transitions;
+    // the words matched in a state are matches[matchStarts[state]] up to matches[matchStarts[state + 1]]
+    private final int[] matchStarts;
+    private final int[] matches;
+
+    private AhoCorasick(int[] symbols, int numberOfSymbols, int[] transitions, int[] matchStarts, int[] matches) {
+        this.symbols = symbols;
+        this.numberOfSymbols = numberOfSymbols;
+        this.transitions = transitions;
+        this.matchStarts = matchStarts;
+        this.matches = matches;
+    }
+
+    /**
+     * @param words non-empty words of ASCII (or ISO-8859-1) characters
+     */
+    public static AhoCorasick of(List<String> words) {
+        var symbols = new int[256];
+        var numberOfSymbols = 1;
+        var maxNumberOfStates = 1;
+        for (var word : words) {
+            if (word.isEmpty()) {
+                throw new IllegalArgumentException("Words must not be empty");
+            }
+            for (var c : word.toCharArray()) {
+                if (c >= symbols.length) {
+                    throw new IllegalArgumentException("Unsupported character '%c' in '%s'".formatted(c, word));
+                }
+                if (symbols[c] == 0) {
+                    symbols[c] = numberOfSymbols++;
+                }
+            }
+            maxNumberOfStates += word.length();
+        }
+
+        // the trie of the words first, with -1 for missing transitions
+        var transitions = new int[maxNumberOfStates * numberOfSymbols];
+        Arrays.fill(transitions, -1);
+        var ownMatches = new ArrayList<List<Integer>>(List.of(new ArrayList<>()));
+        for (int index = 0; index < words.size(); index++) {
+            var state = START;
+            for (var c : words.get(index).toCharArray()) {
+                var transition = state * numberOfSymbols + symbols[c];
+                if (transitions[transition] < 0) {
+                    transitions[transition] = ownMatches.size();
+                    ownMatches.add(new ArrayList<>());
+                }
+                state = transitions[transition];
+            }
+            ownMatches.get(state).add(index);
+        }
+        var numberOfStates = ownMatches.size();
+
+        // then breadth first, so the failure link of a state is complete before the state itself
+        var failureLinks = new int[numberOfStates];
+        var allMatches = new ArrayList<List<Integer>>(ownMatches);
+        var states = new ArrayDeque<Integer>();
+        states.add(START);
+        while (!states.isEmpty()) {
+            var state = states.poll();
+            var failureLink = failureLinks[state];
+            if (state != START) {
+                var matches = new ArrayList<>(ownMatches.get(state));
+                matches.addAll(allMatches.get(failureLink));
+                allMatches.set(state, matches);
+            }
+            for (int symbol = 0; symbol < numberOfSymbols; symbol++) {
+                var transition = state * numberOfSymbols + symbol;
+                var fallback = state == START ? START : transitions[failureLink * numberOfSymbols + symbol];
+                if (transitions[transition] < 0) {
+                    transitions[transition] = fallback;
+                } else {
+                    failureLinks[transitions[transition]] = fallback;
+                    states.add(transitions[transition]);
+                }
+            }
+        }
+
+        var matchStarts = new int[numberOfStates + 1];
+        for (int state = 0; state < numberOfStates; state++) {
+            matchStarts[state + 1] = matchStarts[state] + allMatches.get(state).size();
+        }
+        var matches = allMatches.stream().flatMap(List::stream).mapToInt(Integer::intValue).toArray();
+
+        return new AhoCorasick(symbols, numberOfSymbols,
+                Arrays.copyOf(transitions, numberOfStates * numberOfSymbols), matchStarts, matches);
+    }
+
+    /**
+     * @param c a character, e.g. a byte of a {@link Grid} as unsigned value
+     */
+    public int next(int state, int c) {
+        var symbol = c < symbols.length ? symbols[c] : 0;
+        return transitions[state * numberOfSymbols + symbol];
+    }
+
+    /**
+     * @return the number of words ending with the last character passed to get into the given state
+     */
+    public int numberOfMatches(int state) {
+        return matchStarts[state + 1] - matchStarts[state];
+    }
+
+    /**
+     * @return the index of the <code>i</code>-th word ending in the given state
+     */
+    public int match(int state, int i) {
+        return matches[matchStarts[state] + i];
+    }
+}
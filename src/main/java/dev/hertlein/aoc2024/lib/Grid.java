@@ -0,0 +1,185 @@
+package dev.hertlein.aoc2024.lib;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A rectangular grid of ASCII cells, stored row by row in a flat <code>byte[]</code> and addressed by <code>int</code> indexes.
+ * <p>
+ * The grid is surrounded by a border of {@link #OUTSIDE} cells, so looking at a neighbour (or at a neighbour up to
+ * <code>border</code> cells away) never needs a bounds check. Moving into a direction is just adding one of the
+ * precomputed offsets to an index.
+ */
+@EqualsAndHashCode
+public final class Grid {
+
+    public static final byte OUTSIDE = 0;
+    // some VMs reserve header words in an array, so this is the largest length that's allocatable everywhere
+    private static final long MAX_CELLS = Integer.MAX_VALUE - 8;
+
+    @Getter
+    private final int width;
+    @Getter
+    private final int height;
+    private final int border;
+    private final int stride;
+    private final byte[] cells;
+
+    @EqualsAndHashCode.Exclude
+    private final int[] orthogonalOffsets;
+    @EqualsAndHashCode.Exclude
+    private final int[] allOffsets;
+
+    private Grid(int width, int height, int border, byte[] cells) {
+        this.width = width;
+        this.height = height;
+        this.border = border;
+        this.stride = width + 2 * border;
+        this.cells = cells;
+        this.orthogonalOffsets = new int[]{offset(0, -1), offset(1, 0), offset(0, 1), offset(-1, 0)};
+        this.allOffsets = new int[]{
+                offset(0, -1), offset(1, -1), offset(1, 0), offset(1, 1),
+                offset(0, 1), offset(-1, 1), offset(-1, 0), offset(-1, -1)};
+    }
+
+    private Grid(int width, int height, int border) {
+        this(width, height, border, new byte[cellsOf(width, height, border)]);
+    }
+
+    private static int cellsOf(int width, int height, int border) {
+        var cells = Math.multiplyExact((long) width + 2L * border, (long) height + 2L * border);
+        if (cells > MAX_CELLS) {
+            throw new IllegalArgumentException("A grid of %d x %d cells with a border of %d has %d cells, more than %d"
+                    .formatted(width, height, border, cells, MAX_CELLS));
+        }
+        return (int) cells;
+    }
+
+    public static Grid of(List<? extends CharSequence> lines) {
+        return of(lines, 1);
+    }
+
+    /**
+     * Reads a {@link MappedInput} through its {@link MappedInput#lineViews() line views}, so no line is decoded into a
+     * {@link String}.
+     */
+    public static Grid of(List<? extends CharSequence> lines, int border) {
+        if (lines instanceof MappedInput mappedInput) {
+            return of(mappedInput.lineViews(), border);
+        }
+        var grid = new Grid(lines.isEmpty() ? 0 : lines.getFirst().length(), lines.size(), border);
+
+        for (int y = 0; y < grid.height; y++) {
+            var line = lines.get(y);
+            var index = grid.index(0, y);
+            for (int x = 0; x < Math.min(grid.width, line.length()); x++) {
+                grid.cells[index + x] = (byte) line.charAt(x);
+            }
+        }
+        return grid;
+    }
+
+    public static Grid filled(int width, int height, char value) {
+        var grid = new Grid(width, height, 1);
+        grid.fill(value);
+        return grid;
+    }
+
+    public Grid copy() {
+        return new Grid(width, height, border, cells.clone());
+    }
+
+    /**
+     * @return the number of cells including the border; all indexes are below this value
+     */
+    public int capacity() {
+        return cells.length;
+    }
+
+    public int index(int x, int y) {
+        return (y + border) * stride + x + border;
+    }
+
+    public int x(int index) {
+        return index % stride - border;
+    }
+
+    public int y(int index) {
+        return index / stride - border;
+    }
+
+    public boolean isInside(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    public byte get(int index) {
+        return cells[index];
+    }
+
+    public byte get(int x, int y) {
+        return cells[index(x, y)];
+    }
+
+    public void set(int index, char value) {
+        cells[index] = (byte) value;
+    }
+
+    public void set(int x, int y, char value) {
+        set(index(x, y), value);
+    }
+
+    public void fill(char value) {
+        for (int y = 0; y < height; y++) {
+            var index = index(0, y);
+            Arrays.fill(cells, index, index + width, (byte) value);
+        }
+    }
+
+    /**
+     * @return the index of the first cell (row by row) having the given value or <code>-1</code> if there is none
+     */
+    public int indexOf(char value) {
+        for (int y = 0; y < height; y++) {
+            for (int index = index(0, y), end = index + width; index < end; index++) {
+                if (cells[index] == value) {
+                    return index;
+                }
+            }
+        }
+        return -1;
+    }
+
+    public int offset(int dx, int dy) {
+        return dy * stride + dx;
+    }
+
+    /**
+     * @return the offsets to the neighbours in the order north, east, south, west - so turning right is moving to the next
+     * element. The array is shared and must not be modified.
+     */
+    public int[] orthogonalOffsets() {
+        return orthogonalOffsets;
+    }
+
+    /**
+     * @return the offsets to all eight neighbours clockwise, starting north. The array is shared and must not be modified.
+     */
+    public int[] allOffsets() {
+        return allOffsets;
+    }
+
+    @Override
+    public String toString() {
+        var sb = new StringBuilder();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                sb.append((char) get(x, y));
+            }
+            sb.append("\n");
+        }
+        return sb.toString();
+    }
+}
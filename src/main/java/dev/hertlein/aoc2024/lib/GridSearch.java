@@ -0,0 +1,231 @@
+package dev.hertlein.aoc2024.lib;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Finds many words and stencils in a grid of letters in one sweep, row by row - so a grid of any height can be streamed
+ * through a {@link Sweep}, keeping only a few rows.
+ * <p>
+ * Words are found in all eight directions: an {@link AhoCorasick} automaton of the words and their reversals runs along
+ * every row, column, diagonal and anti-diagonal at once, with one state per line. A word is counted once per start and
+ * direction - so a palindrome is counted twice per occurrence, once in either direction.
+ * <p>
+ * Stencils are small rectangular patterns with wildcards, like the X of 'MAS'es. A stencil is only checked where the
+ * letter of the row just swept matches the first letter in the last row of the stencil.
+ */
+public final class GridSearch {
+
+    private final List<String> words;
+    private final List<Stencil> stencils;
+    private final AhoCorasick automaton;
+    // the stencils by the first letter in their last row
+    private final int[][] stencilsByAnchor = new int[256][];
+    private final int[] anchorXs;
+    private final int maxStencilHeight;
+
+    private GridSearch(List<String> words, List<Stencil> stencils) {
+        this.words = List.copyOf(words);
+        this.stencils = List.copyOf(stencils);
+        this.automaton = AhoCorasick.of(Stream.concat(
+                        words.stream(),
+                        words.stream().map(word -> new StringBuilder(word).reverse().toString()))
+                .toList());
+
+        var stencilsByAnchor = new ArrayList<List<Integer>>();
+        for (int c = 0; c < this.stencilsByAnchor.length; c++) {
+            stencilsByAnchor.add(new ArrayList<>());
+        }
+        for (int index = 0; index < stencils.size(); index++) {
+            stencilsByAnchor.get(stencils.get(index).anchor()).add(index);
+        }
+        for (int c = 0; c < this.stencilsByAnchor.length; c++) {
+            this.stencilsByAnchor[c] = stencilsByAnchor.get(c).stream().mapToInt(Integer::intValue).toArray();
+        }
+        this.anchorXs = stencils.stream().mapToInt(Stencil::anchorX).toArray();
+        this.maxStencilHeight = stencils.stream().mapToInt(Stencil::height).max().orElse(0);
+    }
+
+    public static GridSearch of(List<String> words, List<Stencil> stencils) {
+        return new GridSearch(words, stencils);
+    }
+
+    public Sweep sweep() {
+        return new Sweep();
+    }
+
+    /**
+     * A rectangular pattern of letters, matched at every position where all of its letters match. The
+     * {@link #WILDCARD} matches any letter, but not a position outside the grid.
+     *
+     * @param rows the rows of the stencil, all of the same width; the last one with a letter
+     */
+    public record Stencil(List<String> rows) {
+
+        public static final char WILDCARD = '.';
+
+        public Stencil {
+            var width = rows.isEmpty() ? 0 : rows.getFirst().length();
+            if (width == 0 || rows.stream().anyMatch(row -> row.length() != width)) {
+                throw new IllegalArgumentException("Stencil rows must be of the same non-zero width: " + rows);
+            }
+            if (rows.getLast().chars().allMatch(c -> c == WILDCARD)) {
+                throw new IllegalArgumentException("The last row of a stencil must have a letter: " + rows);
+            }
+            if (rows.stream().flatMapToInt(String::chars).anyMatch(c -> c >= 256)) {
+                throw new IllegalArgumentException("Unsupported character in stencil: " + rows);
+            }
+            rows = List.copyOf(rows);
+        }
+
+        public static Stencil of(String... rows) {
+            return new Stencil(List.of(rows));
+        }
+
+        int width() {
+            return rows.getFirst().length();
+        }
+
+        int height() {
+            return rows.size();
+        }
+
+        private int anchorX() {
+            var lastRow = rows.getLast();
+            var x = 0;
+            while (lastRow.charAt(x) == WILDCARD) {
+                x++;
+            }
+            return x;
+        }
+
+        private char anchor() {
+            return rows.getLast().charAt(anchorX());
+        }
+    }
+
+    /**
+     * The state of sweeping one grid, which the rows are added to from top to bottom. All rows are expected to be as wide
+     * as the first one.
+     */
+    public final class Sweep {
+
+        private final long[] wordCounts = new long[words.size()];
+        private final long[] stencilCounts = new long[stencils.size()];
+        private final byte[][] lastRows = new byte[maxStencilHeight][];
+        private int width = -1;
+        private int y;
+        // the state of the automaton at the end of every column, diagonal and anti-diagonal swept so far, by column
+        private int[] columns;
+        private int[] diagonals;
+        private int[] antiDiagonals;
+
+        private Sweep() {
+        }
+
+        public void add(CharSequence line) {
+            if (width < 0) {
+                width = line.length();
+                columns = new int[width];
+                diagonals = new int[width];
+                antiDiagonals = new int[width];
+            }
+            var row = rowOf(line);
+
+            if (!words.isEmpty()) {
+                sweepWords(row);
+            }
+            if (maxStencilHeight > 0) {
+                lastRows[y % maxStencilHeight] = row;
+                sweepStencils(row);
+            }
+            y++;
+        }
+
+        public long[] wordCounts() {
+            return wordCounts.clone();
+        }
+
+        public long[] stencilCounts() {
+            return stencilCounts.clone();
+        }
+
+        public long totalCount() {
+            var total = 0L;
+            for (var count : wordCounts) {
+                total += count;
+            }
+            for (var count : stencilCounts) {
+                total += count;
+            }
+            return total;
+        }
+
+        private byte[] rowOf(CharSequence line) {
+            var row = maxStencilHeight > 0 && lastRows[y % maxStencilHeight] != null
+                    ? lastRows[y % maxStencilHeight]
+                    : new byte[width];
+            for (int x = 0; x < width; x++) {
+                row[x] = x < line.length() ? (byte) line.charAt(x) : 0;
+            }
+            return row;
+        }
+
+        private void sweepWords(byte[] row) {
+            var horizontal = AhoCorasick.START;
+            // the state of the diagonal ending in the column to the left, one row above
+            var previousDiagonal = AhoCorasick.START;
+
+            for (int x = 0; x < width; x++) {
+                var c = row[x] & 0xFF;
+
+                horizontal = count(automaton.next(horizontal, c));
+                columns[x] = count(automaton.next(columns[x], c));
+
+                var diagonal = diagonals[x];
+                diagonals[x] = count(automaton.next(previousDiagonal, c));
+                previousDiagonal = diagonal;
+
+                var antiDiagonal = x + 1 < width ? antiDiagonals[x + 1] : AhoCorasick.START;
+                antiDiagonals[x] = count(automaton.next(antiDiagonal, c));
+            }
+        }
+
+        private int count(int state) {
+            for (int i = 0; i < automaton.numberOfMatches(state); i++) {
+                // the reversal of a word is matched as the word itself
+                wordCounts[automaton.match(state, i) % words.size()]++;
+            }
+            return state;
+        }
+
+        private void sweepStencils(byte[] row) {
+            for (int x = 0; x < width; x++) {
+                for (var index : stencilsByAnchor[row[x] & 0xFF]) {
+                    if (isMatching(stencils.get(index), x - anchorXs[index])) {
+                        stencilCounts[index]++;
+                    }
+                }
+            }
+        }
+
+        private boolean isMatching(Stencil stencil, int left) {
+            var top = y - stencil.height() + 1;
+            if (left < 0 || left + stencil.width() > width || top < 0) {
+                return false;
+            }
+            for (int dy = 0; dy < stencil.height(); dy++) {
+                var row = lastRows[(top + dy) % maxStencilHeight];
+                var stencilRow = stencil.rows().get(dy);
+                for (int dx = 0; dx < stencil.width(); dx++) {
+                    var c = stencilRow.charAt(dx);
+                    if (c != Stencil.WILDCARD && c != (row[left + dx] & 0xFF)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import dev.hertlein.aoc2024.Day;
 import lombok.SneakyThrows;
 import lombok.experimental.UtilityClass;
 
+import java.nio.file.Path;
 import java.util.List;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -20,6 +21,18 @@ public class InputReader {
         return readInputFor(day, "challenge");
     }
 
+    public static MappedInput mapSampleInputFor(Day day) {
+        return mapInputFor(day, "sample");
+    }
+
+    public static MappedInput mapChallengeInputFor(Day day) {
+        return mapInputFor(day, "challenge");
+    }
+
+    public static MappedInput mapInputFrom(Path path) {
+        return MappedInput.of(path);
+    }
+
     @SneakyThrows
     private static List<String> readInputFor(Day day, String type) {
         var className = classNameOf(day);
@@ -27,6 +40,15 @@ public class InputReader {
         return readInputFrom(filename);
     }
 
+    @SneakyThrows
+    private static MappedInput mapInputFor(Day day, String type) {
+        var resource = Resources.getResource(filenameFrom(classNameOf(day), type));
+        return "file".equals(resource.getProtocol())
+                ? mapInputFrom(Path.of(resource.toURI()))
+                // e.g. a resource within a jar file, which cannot be mapped
+                : MappedInput.of(Resources.toByteArray(resource));
+    }
+
     private static String classNameOf(Day day) {
         return day.getClass().getSimpleName();
     }
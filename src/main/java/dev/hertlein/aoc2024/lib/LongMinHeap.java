@@ -0,0 +1,74 @@
+package dev.hertlein.aoc2024.lib;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A binary min-heap of primitive <code>long</code>s - a {@link java.util.PriorityQueue} without boxing.
+ * <p>
+ * Priority and payload are usually packed into one value via {@link #pack(int, int)}, so the heap orders by priority first.
+ */
+public final class LongMinHeap {
+
+    private long[] values = new long[64];
+    private int size;
+
+    public static long pack(int priority, int payload) {
+        return ((long) priority << 32) | (payload & 0xFFFF_FFFFL);
+    }
+
+    public static int priorityOf(long value) {
+        return (int) (value >>> 32);
+    }
+
+    public static int payloadOf(long value) {
+        return (int) value;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void add(long value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        var index = size++;
+        while (index > 0) {
+            var parent = (index - 1) >>> 1;
+            if (values[parent] <= value) {
+                break;
+            }
+            values[index] = values[parent];
+            index = parent;
+        }
+        values[index] = value;
+    }
+
+    public long poll() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        var result = values[0];
+        var last = values[--size];
+        var index = 0;
+        var half = size >>> 1;
+        while (index < half) {
+            var child = 2 * index + 1;
+            if (child + 1 < size && values[child + 1] < values[child]) {
+                child++;
+            }
+            if (last <= values[child]) {
+                break;
+            }
+            values[index] = values[child];
+            index = child;
+        }
+        values[index] = last;
+        return result;
+    }
+}
@@ -0,0 +1,173 @@
+package dev.hertlein.aoc2024.lib;
+
+import lombok.SneakyThrows;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Puzzle input backed by a memory-mapped file.
+ * <p>
+ * Only the offsets of the lines are kept on the heap, the lines themselves are {@link Line} views onto the mapped file.
+ * Being a {@link java.util.List} of strings, it can be passed to {@link dev.hertlein.aoc2024.Day} as is:
+ * a line is decoded to a {@link String} not before it is accessed - and on every access. Solutions reading the
+ * input more than once, or character by character anyway, use the {@link #lineViews()} instead - like {@link Grid#of(List)}.
+ * <p>
+ * Like {@link InputReader}, leading and trailing whitespace of the whole input is ignored. The input is expected to be
+ * ASCII, every byte is decoded as one character (ISO-8859-1).
+ */
+public final class MappedInput extends AbstractList<String> implements RandomAccess {
+
+    private final MemorySegment segment;
+    private final long[] lineStarts;
+    private final long[] lineEnds;
+    private final int size;
+
+    private MappedInput(MemorySegment segment) {
+        this.segment = segment;
+
+        var from = 0L;
+        var to = segment.byteSize();
+        while (from < to && isWhitespace(byteAt(from))) {
+            from++;
+        }
+        while (to > from && isWhitespace(byteAt(to - 1))) {
+            to--;
+        }
+
+        var starts = new long[64];
+        var ends = new long[64];
+        var count = 0;
+        var lineStart = from;
+
+        for (long i = from; i < to; i++) {
+            var b = byteAt(i);
+            if (b == '\n' || b == '\r') {
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                    ends = Arrays.copyOf(ends, count * 2);
+                }
+                starts[count] = lineStart;
+                ends[count] = i;
+                count++;
+
+                if (b == '\r' && i + 1 < to && byteAt(i + 1) == '\n') {
+                    i++;
+                }
+                lineStart = i + 1;
+            }
+        }
+        if (lineStart < to) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count + 1);
+                ends = Arrays.copyOf(ends, count + 1);
+            }
+            starts[count] = lineStart;
+            ends[count] = to;
+            count++;
+        }
+        this.lineStarts = starts;
+        this.lineEnds = ends;
+        this.size = count;
+    }
+
+    @SneakyThrows
+    public static MappedInput of(Path path) {
+        try (var channel = FileChannel.open(path, READ)) {
+            return new MappedInput(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), Arena.ofAuto()));
+        }
+    }
+
+    /**
+     * For input that cannot be mapped, e.g. a resource within a jar file: the lines are views onto the given bytes then.
+     */
+    public static MappedInput of(byte[] bytes) {
+        return new MappedInput(MemorySegment.ofArray(bytes));
+    }
+
+    /**
+     * @return the line views of a mapped input, any other input as is
+     */
+    public static List<? extends CharSequence> viewsOf(List<String> inputLines) {
+        return inputLines instanceof MappedInput mappedInput ? mappedInput.lineViews() : inputLines;
+    }
+
+    public Line line(int index) {
+        Objects.checkIndex(index, size);
+        return new Line(segment, lineStarts[index], Math.toIntExact(lineEnds[index] - lineStarts[index]));
+    }
+
+    /**
+     * @return the lines as views onto the mapped file - the list creates a small {@link Line} per access, but never copies
+     * the content of a line
+     */
+    public List<Line> lineViews() {
+        return new LineViews();
+    }
+
+    @Override
+    public String get(int index) {
+        return line(index).toString();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private byte byteAt(long offset) {
+        return segment.get(JAVA_BYTE, offset);
+    }
+
+    private static boolean isWhitespace(byte b) {
+        // same definition as String::trim
+        return b <= ' ' && b >= 0;
+    }
+
+    /**
+     * A single line of a {@link MappedInput}, without its line terminator. No bytes are copied, unless {@link #toString()} is called.
+     */
+    public record Line(MemorySegment segment, long offset, int length) implements CharSequence {
+
+        @Override
+        public char charAt(int index) {
+            Objects.checkIndex(index, length);
+            return (char) (segment.get(JAVA_BYTE, offset + index) & 0xFF);
+        }
+
+        @Override
+        public Line subSequence(int start, int end) {
+            Objects.checkFromToIndex(start, end, length);
+            return new Line(segment, offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(segment.asSlice(offset, length).toArray(JAVA_BYTE), ISO_8859_1);
+        }
+    }
+
+    private final class LineViews extends AbstractList<Line> implements RandomAccess {
+
+        @Override
+        public Line get(int index) {
+            return line(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package dev.hertlein.aoc2024.lib;
+
+import lombok.SneakyThrows;
+import lombok.experimental.UtilityClass;
+
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Counters, gauges and histograms of the hot loops of the solutions, available through JMX as attributes of the MBean
+ * <code>dev.hertlein.aoc2024:type=Metrics</code>.
+ * <p>
+ * Metrics are disabled, unless the system property <code>aoc.metrics</code> is <code>true</code>. As that's a constant
+ * to the JIT compiler, recording a metric is eliminated completely then. Otherwise, every metric is kept in
+ * {@link LongAdder}s, so threads recording the same metric don't contend.
+ * <p>
+ * Metrics are meant to be held in static final fields - there is one metric per name, so they can't be unregistered.
+ */
+@UtilityClass
+public class Metrics {
+
+    private static final boolean ENABLED = Boolean.getBoolean("aoc.metrics");
+    private static final String OBJECT_NAME = "dev.hertlein.aoc2024:type=Metrics";
+
+    private static final Map<String, LongSupplier> VALUES = new ConcurrentHashMap<>();
+
+    static {
+        if (ENABLED) {
+            registerMBean();
+        }
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static Counter counter(String name) {
+        var counter = new Counter();
+        register(name, counter.sum::sum);
+        return counter;
+    }
+
+    public static void gauge(String name, LongSupplier value) {
+        register(name, value);
+    }
+
+    public static Histogram histogram(String name) {
+        var histogram = new Histogram();
+        register(name + ".count", histogram.count::sum);
+        register(name + ".mean", histogram::mean);
+        register(name + ".p50", () -> histogram.percentile(50));
+        register(name + ".p99", () -> histogram.percentile(99));
+        register(name + ".max", histogram.max::get);
+        return histogram;
+    }
+
+    /**
+     * Hits and misses of a cache - a miss is a lookup calling the loader of the cache, every other lookup is a hit.
+     */
+    public static CacheCounter cacheCounter(String name) {
+        var cacheCounter = new CacheCounter(counter(name + ".lookups"), counter(name + ".misses"));
+        gauge(name + ".hits", () -> cacheCounter.lookups.sum.sum() - cacheCounter.misses.sum.sum());
+        return cacheCounter;
+    }
+
+    /**
+     * @return the current values of all metrics, sorted by name
+     */
+    public static Map<String, Long> snapshot() {
+        var snapshot = new TreeMap<String, Long>();
+        VALUES.forEach((name, value) -> snapshot.put(name, value.getAsLong()));
+        return snapshot;
+    }
+
+    public static String report() {
+        return snapshot().entrySet().stream()
+                .map(metric -> "%-40s %16d".formatted(metric.getKey(), metric.getValue()))
+                .collect(joining("\n"));
+    }
+
+    private static void register(String name, LongSupplier value) {
+        if (VALUES.putIfAbsent(name, value) != null) {
+            throw new IllegalStateException("Metric '%s' is already registered".formatted(name));
+        }
+    }
+
+    @SneakyThrows
+    private static void registerMBean() {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(new MetricsMBean(), new ObjectName(OBJECT_NAME));
+    }
+
+    public static final class Counter {
+        private final LongAdder sum = new LongAdder();
+
+        private Counter() {
+        }
+
+        public void increment() {
+            if (ENABLED) {
+                sum.increment();
+            }
+        }
+
+        public void add(long value) {
+            if (ENABLED) {
+                sum.add(value);
+            }
+        }
+    }
+
+    public record CacheCounter(Counter lookups, Counter misses) {
+
+        public void lookup() {
+            lookups.increment();
+        }
+
+        public void miss() {
+            misses.increment();
+        }
+    }
+
+    /**
+     * Counts values in buckets of powers of two, so percentiles are upper bounds within a factor of two.
+     */
+    public static final class Histogram {
+        private final LongAdder[] buckets = new LongAdder[Long.SIZE + 1];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        private Histogram() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * @param value expected to be non-negative
+         */
+        public void record(long value) {
+            if (ENABLED) {
+                buckets[Long.SIZE - Long.numberOfLeadingZeros(value)].increment();
+                count.increment();
+                sum.add(value);
+                max.accumulate(value);
+            }
+        }
+
+        private long mean() {
+            var count = this.count.sum();
+            return count == 0 ? 0 : sum.sum() / count;
+        }
+
+        private long percentile(int percent) {
+            var rank = (long) Math.ceil(count.sum() * percent / 100.0);
+            var seen = 0L;
+            for (int bucket = 0; bucket < buckets.length; bucket++) {
+                seen += buckets[bucket].sum();
+                if (seen >= rank && seen > 0) {
+                    return Math.min(bucket == 0 ? 0 : (1L << bucket) - 1, max.get());
+                }
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Exposes every metric as a read-only attribute of type <code>long</code>.
+     */
+    private static final class MetricsMBean implements DynamicMBean {
+
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            var value = VALUES.get(attribute);
+            if (value == null) {
+                throw new AttributeNotFoundException(attribute);
+            }
+            return value.getAsLong();
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            var list = new AttributeList();
+            for (var attribute : attributes) {
+                var value = VALUES.get(attribute);
+                if (value != null) {
+                    list.add(new Attribute(attribute, value.getAsLong()));
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+            throw new ReflectionException(new NoSuchMethodException(actionName));
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            var attributes = snapshot().keySet().stream()
+                    .map(name -> new MBeanAttributeInfo(name, "long", name, true, false, false))
+                    .toArray(MBeanAttributeInfo[]::new);
+            return new MBeanInfo(Metrics.class.getName(), "Metrics of the hot loops of the solutions",
+                    attributes, null, null, null);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package dev.hertlein.aoc2024.lib;
+
+import lombok.SneakyThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * An on-disk store of results, one file per key - so it's shared by all runs using the same directory.
+ * <p>
+ * The total size of the files is bounded: when it's exceeded by storing a result, the least recently used results are
+ * evicted. A result counts as used when it's stored or found, as the last modified time of its file is updated then.
+ * <p>
+ * Results are stored as text: the type of the result on the first line, its value after it. Only the types of the
+ * answers - {@link Long}, {@link Integer} and {@link String} - are cached, and nothing but these is ever created from a
+ * file - so a file planted in a shared directory can't do more than fake an answer. Files are written to a temporary
+ * file and moved into place, so concurrent runs never read partial results.
+ */
+public final class ResultCache {
+
+    private static final String SUFFIX = ".result";
+    private static final Map<String, Function<String, Object>> PARSERS = Map.of(
+            Long.class.getSimpleName(), Long::valueOf,
+            Integer.class.getSimpleName(), Integer::valueOf,
+            String.class.getSimpleName(), value -> value);
+
+    private final Path directory;
+    private final long maxBytes;
+
+    @SneakyThrows
+    public ResultCache(Path directory, long maxBytes) {
+        this.directory = Files.createDirectories(directory);
+        this.maxBytes = maxBytes;
+    }
+
+    public Optional<Object> get(String key) {
+        var file = fileOf(key);
+        try {
+            var content = Files.readString(file);
+            var separator = content.indexOf('\n');
+            var parser = separator < 0 ? null : PARSERS.get(content.substring(0, separator));
+            if (parser == null) {
+                return Optional.empty();
+            }
+            var result = parser.apply(content.substring(separator + 1));
+            Files.setLastModifiedTime(file, now());
+            return Optional.of(result);
+        } catch (IOException | IllegalArgumentException e) {
+            // not cached (anymore) or written by an incompatible version - it's just a miss then
+            return Optional.empty();
+        }
+    }
+
+    @SneakyThrows
+    public void put(String key, Object result) {
+        if (result == null || !PARSERS.containsKey(result.getClass().getSimpleName())) {
+            return;
+        }
+        var temporaryFile = Files.createTempFile(directory, key, ".tmp");
+        Files.writeString(temporaryFile, result.getClass().getSimpleName() + "\n" + result);
+        Files.move(temporaryFile, fileOf(key), ATOMIC_MOVE, REPLACE_EXISTING);
+        evictLeastRecentlyUsed();
+    }
+
+    private void evictLeastRecentlyUsed() throws IOException {
+        var entries = entries();
+        var totalBytes = entries.stream().mapToLong(Entry::bytes).sum();
+
+        for (var entry : entries) {
+            if (totalBytes <= maxBytes) {
+                return;
+            }
+            Files.deleteIfExists(entry.file());
+            totalBytes -= entry.bytes();
+        }
+    }
+
+    /**
+     * @return all entries, least recently used first
+     */
+    private List<Entry> entries() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                    .map(Entry::of)
+                    .flatMap(Optional::stream)
+                    .sorted(Comparator.comparing(Entry::lastModified))
+                    .toList();
+        }
+    }
+
+    private Path fileOf(String key) {
+        return directory.resolve(key + SUFFIX);
+    }
+
+    private static FileTime now() {
+        return FileTime.fromMillis(System.currentTimeMillis());
+    }
+
+    private record Entry(Path file, FileTime lastModified, long bytes) {
+
+        static Optional<Entry> of(Path file) {
+            try {
+                return Optional.of(new Entry(file, Files.getLastModifiedTime(file), Files.size(file)));
+            } catch (IOException e) {
+                // evicted by a concurrent run meanwhile
+                return Optional.empty();
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package dev.hertlein.aoc2024;
+
+import dev.hertlein.aoc2024.lib.ResultCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static dev.hertlein.aoc2024.lib.InputReader.mapSampleInputFor;
+import static dev.hertlein.aoc2024.lib.InputReader.readSampleInputFor;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("CachingDay")
+class CachingDayTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void shouldSolveEveryPartOnlyOnceForTheSameInput() {
+        var day = new CountingDay();
+        var cachingDay = new CachingDay<>(day, new ResultCache(directory, 1024));
+
+        assertThat(cachingDay.part1(List.of("1", "2"), 10)).isEqualTo(13L);
+        assertThat(cachingDay.part1(List.of("1", "2"), 10)).isEqualTo(13L);
+        assertThat(cachingDay.part2(List.of("1", "2"), 10)).isEqualTo(13L);
+
+        assertThat(day.solved).hasValue(2);
+    }
+
+    @Test
+    void shouldSolveAgainForOtherInputLinesOrAdditionalInput() {
+        var day = new CountingDay();
+        var cachingDay = new CachingDay<>(day, new ResultCache(directory, 1024));
+
+        cachingDay.part1(List.of("1", "2"), 10);
+        cachingDay.part1(List.of("12"), 10);
+        cachingDay.part1(List.of("1", "2"), 11);
+
+        assertThat(day.solved).hasValue(3);
+    }
+
+    @Test
+    void shouldHashMappedInputLikeItsLines() {
+        var day = new Day14();
+        var cachingDay = new CachingDay<>(day, new ResultCache(directory, 1024));
+        var areaSize = new Day14.AreaSize(11, 7);
+
+        assertThat(cachingDay.keyOf(1, mapSampleInputFor(day), areaSize))
+                .isEqualTo(cachingDay.keyOf(1, readSampleInputFor(day), areaSize))
+                .isNotEqualTo(cachingDay.keyOf(1, readSampleInputFor(day), new Day14.AreaSize(101, 103)));
+    }
+
+    private static class CountingDay implements Day<Integer> {
+
+        private final AtomicInteger solved = new AtomicInteger();
+
+        @Override
+        public Object part1(List<String> inputLines, Integer additionalInput) {
+            solved.incrementAndGet();
+            return inputLines.stream().mapToLong(Long::parseLong).sum() + additionalInput;
+        }
+
+        @Override
+        public Object part2(List<String> inputLines, Integer additionalInput) {
+            return part1(inputLines, additionalInput);
+        }
+    }
+}
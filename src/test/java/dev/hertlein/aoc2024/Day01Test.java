@@ -1,17 +1,23 @@
 package dev.hertlein.aoc2024;
 
 
+import dev.hertlein.aoc2024.Day01.LocationIds;
 import dev.hertlein.aoc2024.Day01.LocationLists;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 
 import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
 
 import static dev.hertlein.aoc2024.Day.EMPTY;
 import static dev.hertlein.aoc2024.lib.InputReader.readChallengeInputFor;
 import static dev.hertlein.aoc2024.lib.InputReader.readSampleInputFor;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DisplayName("Day01")
 class Day01Test {
@@ -40,6 +46,43 @@ class Day01Test {
                 }
             }
         }
+
+        @Nested
+        @DisplayName("LocationIds")
+        class LocationIdsTests {
+
+            @Test
+            void shouldParseLinesWithoutRegex() {
+                assertThat(LocationIds.of(List.of("3   4", " 4\t3 ", "2 5")).answers())
+                        .isEqualTo(new LocationIds.Answers(3, 4 + 3));
+            }
+
+            @Test
+            void shouldRejectLinesWithoutTwoLocations() {
+                assertThatThrownBy(() -> LocationIds.of(List.of("3")))
+                        .isInstanceOf(IllegalArgumentException.class)
+                        .hasMessageContaining("No locations found");
+            }
+
+            // IDs beyond the size of a count table are sorted instead - with differences small enough for LocationLists
+            @ParameterizedTest
+            @CsvSource({"0,100", "0,100000", "2147482647,1000"})
+            void shouldAnswerLikeLocationLists(int minId, int numberOfIds) {
+                var random = new Random(numberOfIds);
+                var inputLines = IntStream.range(0, 2000)
+                        .mapToObj(_ -> "%d   %d".formatted(
+                                minId + random.nextInt(numberOfIds), minId + random.nextInt(numberOfIds)))
+                        .toList();
+                var locationLists = LocationLists.of(inputLines);
+                var expected = new LocationIds.Answers(locationLists.totalDistance(), locationLists.similarityScore());
+
+                assertThat(LocationIds.of(inputLines).answers()).isEqualTo(expected);
+                assertThat(LocationIds.of(inputLines).parallelTotalDistance()).isEqualTo(expected.totalDistance());
+                assertThat(LocationIds.of(inputLines).parallelSimilarityScore()).isEqualTo(expected.similarityScore());
+                assertThat(LocationIds.parallelOf(inputLines).parallelTotalDistance()).isEqualTo(expected.totalDistance());
+                assertThat(LocationIds.parallelOf(inputLines).parallelSimilarityScore()).isEqualTo(expected.similarityScore());
+            }
+        }
     }
 
     @Nested
@@ -50,6 +93,16 @@ class Day01Test {
             assertThat(day.part1(readSampleInputFor(day), EMPTY)).isEqualTo(11L);
         }
 
+        @Test
+        void sampleShouldBeSolvedWithBoxedLists() {
+            assertThat(new Day01(Day01.Mode.BOXED).part1(readSampleInputFor(day), EMPTY)).isEqualTo(11L);
+        }
+
+        @Test
+        void sampleShouldBeSolvedInParallel() {
+            assertThat(new Day01(Day01.Mode.PARALLEL).part1(readSampleInputFor(day), EMPTY)).isEqualTo(11L);
+        }
+
         @ChallengeTest
         void challengeShouldBeSolved() {
             assertThat(day.part1(readChallengeInputFor(day), EMPTY)).isEqualTo(2_057_374L);
@@ -64,6 +117,16 @@ class Day01Test {
             assertThat(day.part2(readSampleInputFor(day), EMPTY)).isEqualTo(31L);
         }
 
+        @Test
+        void sampleShouldBeSolvedWithBoxedLists() {
+            assertThat(new Day01(Day01.Mode.BOXED).part2(readSampleInputFor(day), EMPTY)).isEqualTo(31L);
+        }
+
+        @Test
+        void sampleShouldBeSolvedInParallel() {
+            assertThat(new Day01(Day01.Mode.PARALLEL).part2(readSampleInputFor(day), EMPTY)).isEqualTo(31L);
+        }
+
         @ChallengeTest
         void part2ShouldBeSolved() {
             assertThat(day.part2(readChallengeInputFor(day), EMPTY)).isEqualTo(23_177_084L);
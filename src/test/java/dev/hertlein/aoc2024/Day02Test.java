@@ -1,9 +1,20 @@
 package dev.hertlein.aoc2024;
 
 
+import dev.hertlein.aoc2024.Day02.Levels;
+import dev.hertlein.aoc2024.Day02.Report;
+import dev.hertlein.aoc2024.Day02.ReportBatch;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static dev.hertlein.aoc2024.Day.EMPTY;
 import static dev.hertlein.aoc2024.lib.InputReader.readChallengeInputFor;
@@ -15,6 +26,136 @@ class Day02Test {
 
     private final Day02 day = new Day02();
 
+    @Nested
+    class Units {
+
+        @Nested
+        @DisplayName("Levels")
+        class LevelsTests {
+
+            @ParameterizedTest
+            @CsvSource({
+                    "7 6 4 2 1,true,true",
+                    "1 2 7 8 9,false,false",
+                    "1 3 2 4 5,false,true",
+                    "8 6 4 4 1,false,true",
+                    "9 1 2 3,false,true",
+                    "1 2 3 9,false,true"
+            })
+            void shouldCheckSafety(String line, boolean isSafeStrictly, boolean isSafeDampened) {
+                var levels = new Levels().parse(line);
+
+                assertThat(levels.isSafeStrictly()).isEqualTo(isSafeStrictly);
+                assertThat(levels.isSafeDampened()).isEqualTo(isSafeDampened);
+            }
+
+            @Test
+            void shouldCheckLikeReport() {
+                var random = new Random(2);
+                var levels = new Levels();
+
+                for (int i = 0; i < 10_000; i++) {
+                    var line = IntStream.range(0, random.nextInt(3, 12))
+                            .mapToObj(_ -> String.valueOf(random.nextInt(1, 12)))
+                            .collect(Collectors.joining(" "));
+                    var report = Report.of(line);
+
+                    levels.parse(line);
+                    assertThat(levels.isSafeStrictly()).as(line).isEqualTo(report.isSafeStrictly());
+                    assertThat(levels.isSafeDampened()).as(line).isEqualTo(report.isSafeDampened());
+                }
+            }
+
+            @Test
+            void shouldCheckReportsWithThousandsOfLevels() {
+                var line = IntStream.range(0, 100_000)
+                        .map(index -> index == 50_000 ? 0 : index)
+                        .mapToObj(String::valueOf)
+                        .collect(Collectors.joining(" "));
+
+                assertThat(new Levels().parse(line).isSafeDampened()).isTrue();
+            }
+        }
+
+        @Nested
+        @DisplayName("ReportBatch")
+        class ReportBatchTests {
+
+            @Test
+            void shouldCountLikeLevels() {
+                var random = new Random(3);
+                var strictly = new ReportBatch(false);
+                var dampened = new ReportBatch(true);
+                var levels = new Levels();
+                var safeStrictly = 0L;
+                var safeDampened = 0L;
+
+                for (int i = 0; i < 10_000; i++) {
+                    var line = IntStream.range(0, random.nextInt(3, i % 100 == 0 ? 40 : 12))
+                            .mapToObj(_ -> String.valueOf(random.nextInt(1, 12)))
+                            .collect(Collectors.joining(" "));
+                    strictly.add(line);
+                    dampened.add(line);
+
+                    levels.parse(line);
+                    safeStrictly += levels.isSafeStrictly() ? 1 : 0;
+                    safeDampened += levels.isSafeDampened() ? 1 : 0;
+                }
+
+                assertThat(strictly.countSafeReports()).isEqualTo(safeStrictly);
+                assertThat(dampened.countSafeReports()).isEqualTo(safeDampened);
+            }
+
+            @ParameterizedTest
+            @CsvSource({
+                    "7 6 4 2 1,1,1",
+                    "1 2 7 8 9,0,0",
+                    "1 3 2 4 5,0,1",
+                    "9 1 2 3,0,1",
+                    "1 2 3 9,0,1",
+                    "1 2 3 4 5 6 7 8 9 10 11 12 13 14 15 16 17 18 19 20 0,0,1"
+            })
+            void shouldCheckSingleReport(String line, long safeStrictly, long safeDampened) {
+                var strictly = new ReportBatch(false);
+                var dampened = new ReportBatch(true);
+
+                strictly.add(line);
+                dampened.add(line);
+
+                assertThat(strictly.countSafeReports()).isEqualTo(safeStrictly);
+                assertThat(dampened.countSafeReports()).isEqualTo(safeDampened);
+            }
+
+            @ParameterizedTest
+            @ValueSource(strings = {"", "5"})
+            void shouldCheckBatchesOfReportsWithoutSteps(String line) {
+                var strictly = new ReportBatch(false);
+                var dampened = new ReportBatch(true);
+                var levels = new Levels().parse(line);
+
+                strictly.add(line);
+                dampened.add(line);
+
+                assertThat(strictly.countSafeReports()).isEqualTo(levels.isSafeStrictly() ? 1 : 0);
+                assertThat(dampened.countSafeReports()).isEqualTo(levels.isSafeDampened() ? 1 : 0);
+            }
+
+            @Test
+            void shouldCheckEmptyLineInBatch() {
+                var strictly = new ReportBatch(false);
+                var dampened = new ReportBatch(true);
+
+                for (var line : List.of("7 6 4 2 1", "", "1 3 2 4 5", "1 2 7 8 9")) {
+                    strictly.add(line);
+                    dampened.add(line);
+                }
+
+                assertThat(strictly.countSafeReports()).isEqualTo(2);
+                assertThat(dampened.countSafeReports()).isEqualTo(3);
+            }
+        }
+    }
+
     @Nested
     class Part1 {
 
@@ -23,6 +164,16 @@ class Day02Test {
             assertThat(day.part1(readSampleInputFor(day), EMPTY)).isEqualTo(2L);
         }
 
+        @Test
+        void sampleShouldBeSolvedScalar() {
+            assertThat(new Day02(Day02.Mode.SCALAR).part1(readSampleInputFor(day), EMPTY)).isEqualTo(2L);
+        }
+
+        @Test
+        void sampleShouldBeSolvedVector() {
+            assertThat(new Day02(Day02.Mode.VECTOR).part1(readSampleInputFor(day), EMPTY)).isEqualTo(2L);
+        }
+
         @ChallengeTest
         void challengeShouldBeSolved() {
             assertThat(day.part1(readChallengeInputFor(day), EMPTY)).isEqualTo(371L);
@@ -37,6 +188,16 @@ class Day02Test {
             assertThat(day.part2(readSampleInputFor(day), EMPTY)).isEqualTo(4L);
         }
 
+        @Test
+        void sampleShouldBeSolvedScalar() {
+            assertThat(new Day02(Day02.Mode.SCALAR).part2(readSampleInputFor(day), EMPTY)).isEqualTo(4L);
+        }
+
+        @Test
+        void sampleShouldBeSolvedVector() {
+            assertThat(new Day02(Day02.Mode.VECTOR).part2(readSampleInputFor(day), EMPTY)).isEqualTo(4L);
+        }
+
         @ChallengeTest
         void challengeShouldBeSolved() {
             assertThat(day.part2(readChallengeInputFor(day), EMPTY)).isEqualTo(426L);
@@ -1,9 +1,17 @@
 package dev.hertlein.aoc2024;
 
 
+import dev.hertlein.aoc2024.Day03.Chunk;
+import dev.hertlein.aoc2024.Day03.InstructionScanner;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
 
 import static dev.hertlein.aoc2024.Day.EMPTY;
 import static dev.hertlein.aoc2024.lib.InputReader.readChallengeInputFor;
@@ -18,6 +26,97 @@ class Day03Test {
     @Nested
     class Units {
 
+        @Nested
+        @DisplayName("InstructionScanner")
+        class InstructionScannerTests {
+
+            @ParameterizedTest
+            @CsvSource(delimiter = ';', value = {
+                    "mul(2,4);8;8",
+                    "mul(2,4)don't()mul(3,3);17;8",
+                    "don't()mul(2,4)do()mul(3,3);17;9",
+                    "mmul(2,4)mul(mul(3,3);17;17",
+                    "mul(2,4,mul(1,1);1;1",
+                    "mul(,4)mul(2,)mul( 2,4)mul(2,4];0;0",
+                    "mul(12345,100);1234500;1234500",
+                    "do(don't()mul(2,4)don't(do()mul(3,3);17;9"
+            })
+            void shouldSumProducts(String memory, long sumOfProducts, long sumOfEnabledProducts) {
+                var chunk = new InstructionScanner().scan(memory).chunk();
+
+                assertThat(chunk.sumOfProducts()).isEqualTo(sumOfProducts);
+                assertThat(chunk.sumIfEnabled()).isEqualTo(sumOfEnabledProducts);
+            }
+
+            @Test
+            void shouldScanInstructionsAcrossLines() {
+                var chunk = new InstructionScanner().scan("mu").scan("l(1").scan("2,3)d").scan("on't(").scan(")mul(2,2)").chunk();
+
+                assertThat(chunk.sumOfProducts()).isEqualTo(40L);
+                assertThat(chunk.sumIfEnabled()).isEqualTo(36L);
+            }
+
+            @Test
+            void shouldSumLikeRegex() {
+                var inputLines = corruptedMemory(new Random(3));
+                var regex = new Day03(Day03.Mode.REGEX);
+                var scanner = new Day03(Day03.Mode.SCANNER);
+
+                assertThat(scanner.part1(inputLines, EMPTY)).isEqualTo(regex.part1(inputLines, EMPTY));
+                assertThat(scanner.part2(inputLines, EMPTY)).isEqualTo(regex.part2(inputLines, EMPTY));
+            }
+        }
+
+        @Nested
+        @DisplayName("Chunk")
+        class ChunkTests {
+
+            @Test
+            void shouldCombineChunksForBothStates() {
+                var first = new InstructionScanner().scan("mul(1,1)don't()mul(2,2)").chunk();
+                var second = new InstructionScanner().scan("mul(3,3)do()mul(4,4)").chunk();
+
+                assertThat(first.then(second)).isEqualTo(new Chunk(30, 17, 16, Chunk.Toggle.DO));
+            }
+
+            @Test
+            void shouldCombineAssociatively() {
+                var chunks = List.of("mul(1,1)do()", "mul(2,2)", "don't()mul(3,3)", "mul(4,4)do()mul(5,5)").stream()
+                        .map(memory -> new InstructionScanner().scan(memory).chunk())
+                        .toList();
+
+                var leftFirst = chunks.get(0).then(chunks.get(1)).then(chunks.get(2).then(chunks.get(3)));
+                var rightFirst = chunks.get(0).then(chunks.get(1).then(chunks.get(2))).then(chunks.get(3));
+
+                assertThat(leftFirst).isEqualTo(rightFirst);
+            }
+
+            @ParameterizedTest
+            @CsvSource({"1", "2", "3", "7", "64", "1000", "1000000"})
+            void shouldScanInParallelLikeSequentially(int chunkSize) {
+                var inputLines = corruptedMemory(new Random(chunkSize));
+                var sequentially = new InstructionScanner();
+                inputLines.forEach(sequentially::scan);
+
+                assertThat(Chunk.parallelScanOf(inputLines, chunkSize)).isEqualTo(sequentially.chunk());
+            }
+        }
+
+        private static List<String> corruptedMemory(Random random) {
+            var tokens = List.of("mul(", "do()", "don't()", "mul", "do", "don't", "(", ")", ",", "m", "d", "x", " ");
+
+            return IntStream.range(0, 200)
+                    .mapToObj(_ -> {
+                        var line = new StringBuilder();
+                        while (line.length() < random.nextInt(200)) {
+                            line.append(random.nextInt(3) == 0
+                                    ? String.valueOf(random.nextInt(1000))
+                                    : tokens.get(random.nextInt(tokens.size())));
+                        }
+                        return line.toString();
+                    })
+                    .toList();
+        }
     }
 
     @Nested
@@ -28,6 +127,16 @@ class Day03Test {
             assertThat(day.part1(readSampleInputFor(day), EMPTY)).isEqualTo(161L);
         }
 
+        @Test
+        void sampleShouldBeSolvedByRegex() {
+            assertThat(new Day03(Day03.Mode.REGEX).part1(readSampleInputFor(day), EMPTY)).isEqualTo(161L);
+        }
+
+        @Test
+        void sampleShouldBeSolvedInParallel() {
+            assertThat(new Day03(Day03.Mode.PARALLEL).part1(readSampleInputFor(day), EMPTY)).isEqualTo(161L);
+        }
+
         @ChallengeTest
         void challengeShouldBeSolved() {
             assertThat(day.part1(readChallengeInputFor(day), EMPTY)).isEqualTo(184_122_457L);
@@ -42,6 +151,16 @@ class Day03Test {
             assertThat(day.part2(readSampleInputFor(day), EMPTY)).isEqualTo(48L);
         }
 
+        @Test
+        void sampleShouldBeSolvedByRegex() {
+            assertThat(new Day03(Day03.Mode.REGEX).part2(readSampleInputFor(day), EMPTY)).isEqualTo(48L);
+        }
+
+        @Test
+        void sampleShouldBeSolvedInParallel() {
+            assertThat(new Day03(Day03.Mode.PARALLEL).part2(readSampleInputFor(day), EMPTY)).isEqualTo(48L);
+        }
+
         @ChallengeTest
         void challengeShouldBeSolved() {
             assertThat(day.part2(readChallengeInputFor(day), EMPTY)).isEqualTo(107_862_689L);
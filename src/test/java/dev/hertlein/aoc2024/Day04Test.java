@@ -1,9 +1,18 @@
 package dev.hertlein.aoc2024;
 
 
+import dev.hertlein.aoc2024.Day04.CrossedMAS;
+import dev.hertlein.aoc2024.Day04.WordSearch;
+import dev.hertlein.aoc2024.Day04.XMAS;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
 
 import static dev.hertlein.aoc2024.Day.EMPTY;
 import static dev.hertlein.aoc2024.lib.InputReader.readChallengeInputFor;
@@ -18,6 +27,60 @@ class Day04Test {
     @Nested
     class Units {
 
+        @Nested
+        @DisplayName("WordSearch")
+        class WordSearchTests {
+
+            @Test
+            void shouldCountXMASInAllDirections() {
+                var wordSearch = new WordSearch(WordSearch::countXMAS);
+                List.of("S..S..S", ".A.A.A.", "..MMM..", "SAMXMAS", "..MMM..", ".A.A.A.", "S..S..S")
+                        .forEach(wordSearch::add);
+
+                assertThat(wordSearch.count()).isEqualTo(8L);
+            }
+
+            @Test
+            void shouldCountCrossedMAS() {
+                var wordSearch = new WordSearch(WordSearch::countCrossedMAS);
+                List.of("M.S.M", ".A.A.", "M.S.M").forEach(wordSearch::add);
+
+                assertThat(wordSearch.count()).isEqualTo(2L);
+            }
+
+            @ParameterizedTest
+            @CsvSource({"1", "2", "5", "1024"})
+            void shouldCountLikeWordsBandByBand(int bandHeight) {
+                var random = new Random(bandHeight);
+                var inputLines = IntStream.range(0, 60)
+                        .mapToObj(_ -> random.ints(40, 0, 4)
+                                .collect(StringBuilder::new, (line, i) -> line.append("XMAS".charAt(i)), StringBuilder::append)
+                                .toString())
+                        .toList();
+                var xmas = new WordSearch(WordSearch::countXMAS, bandHeight);
+                var crossedMAS = new WordSearch(WordSearch::countCrossedMAS, bandHeight);
+                inputLines.forEach(xmas::add);
+                inputLines.forEach(crossedMAS::add);
+
+                assertThat(xmas.count()).isEqualTo(XMAS.of(inputLines).countWords());
+                assertThat(crossedMAS.count()).isEqualTo(CrossedMAS.of(inputLines).countWords());
+            }
+        }
+
+        @Test
+        void gridSearchShouldCountLikeWordSearch() {
+            var random = new Random(4);
+            var inputLines = IntStream.range(0, 50)
+                    .mapToObj(_ -> random.ints(70, 0, 4)
+                            .collect(StringBuilder::new, (line, i) -> line.append("XMAS".charAt(i)), StringBuilder::append)
+                            .toString())
+                    .toList();
+            var counting = new Day04(Day04.Mode.COUNTING);
+            var gridSearch = new Day04(Day04.Mode.GRID_SEARCH);
+
+            assertThat(gridSearch.part1(inputLines, EMPTY)).isEqualTo(counting.part1(inputLines, EMPTY));
+            assertThat(gridSearch.part2(inputLines, EMPTY)).isEqualTo(counting.part2(inputLines, EMPTY));
+        }
     }
 
     @Nested
@@ -28,6 +91,16 @@ class Day04Test {
             assertThat(day.part1(readSampleInputFor(day), EMPTY)).isEqualTo(18L);
         }
 
+        @Test
+        void sampleShouldBeSolvedByWords() {
+            assertThat(new Day04(Day04.Mode.WORDS).part1(readSampleInputFor(day), EMPTY)).isEqualTo(18L);
+        }
+
+        @Test
+        void sampleShouldBeSolvedByGridSearch() {
+            assertThat(new Day04(Day04.Mode.GRID_SEARCH).part1(readSampleInputFor(day), EMPTY)).isEqualTo(18L);
+        }
+
         @ChallengeTest
         void challengeShouldBeSolved() {
             assertThat(day.part1(readChallengeInputFor(day), EMPTY)).isEqualTo(2_599L);
@@ -42,6 +115,16 @@ class Day04Test {
             assertThat(day.part2(readSampleInputFor(day), EMPTY)).isEqualTo(9L);
         }
 
+        @Test
+        void sampleShouldBeSolvedByWords() {
+            assertThat(new Day04(Day04.Mode.WORDS).part2(readSampleInputFor(day), EMPTY)).isEqualTo(9L);
+        }
+
+        @Test
+        void sampleShouldBeSolvedByGridSearch() {
+            assertThat(new Day04(Day04.Mode.GRID_SEARCH).part2(readSampleInputFor(day), EMPTY)).isEqualTo(9L);
+        }
+
         @ChallengeTest
         void challengeShouldBeSolved() {
             assertThat(day.part2(readChallengeInputFor(day), EMPTY)).isEqualTo(1_948L);
@@ -8,11 +8,21 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.util.*;
+import java.util.stream.IntStream;
+
 import static dev.hertlein.aoc2024.Day.EMPTY;
+import static dev.hertlein.aoc2024.Day05.IndexedPrintQueue;
 import static dev.hertlein.aoc2024.Day05.PrintQueue;
+import static dev.hertlein.aoc2024.Day05.RuleIndex;
+import static dev.hertlein.aoc2024.Day05.Update;
 import static dev.hertlein.aoc2024.lib.InputReader.readChallengeInputFor;
 import static dev.hertlein.aoc2024.lib.InputReader.readSampleInputFor;
+import static java.util.function.Predicate.not;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DisplayName("Day05")
 class Day05Test {
@@ -72,6 +82,131 @@ class Day05Test {
                 }
             }
         }
+
+        @Nested
+        @DisplayName("Update")
+        class UpdateTests {
+
+            private final RuleIndex rules = ruleIndexOf(readSampleInputFor(day));
+
+            @ParameterizedTest
+            @CsvSource(delimiter = ';', value = {
+                    "75,47,61,53,29;true;61",
+                    "97,61,53,29,13;true;53",
+                    "75,29,13;true;29",
+                    "75,97,47,61,53;false;47",
+                    "61,13,29;false;29",
+                    "97,13,75,29,47;false;47"
+            })
+            void shouldCheckAndFixUpdates(String line, boolean isOrderedCorrectly, int pageInTheMiddleOfFixedOrder) {
+                var update = new Update(rules).parse(line);
+
+                assertThat(update.isOrderedCorrectly()).isEqualTo(isOrderedCorrectly);
+                assertThat(update.pageInTheMiddleOfFixedOrder()).isEqualTo(pageInTheMiddleOfFixedOrder);
+            }
+
+            @Test
+            void shouldNotOrderPagesWithoutRules() {
+                var update = new Update(rules).parse("12,47,14");
+
+                assertThat(update.isOrderedCorrectly()).isFalse();
+                assertThatThrownBy(update::pageInTheMiddleOfFixedOrder).isInstanceOf(IllegalArgumentException.class);
+            }
+
+            @Test
+            void shouldReuseUpdateForLongerLines() {
+                var update = new Update(rules).parse("75,29");
+                var pages = IntStream.range(0, 100).mapToObj(_ -> "47").collect(joining(","));
+
+                assertThat(update.parse(pages).size).isEqualTo(100);
+                assertThat(update.parse("97,13").isOrderedCorrectly()).isTrue();
+            }
+        }
+
+        @Nested
+        @DisplayName("RuleIndex")
+        class RuleIndexTests {
+
+            @Test
+            void shouldIndexRulesOfManyPages() {
+                var pages = IntStream.range(0, 10_000).map(page -> 10_000 + page).boxed().collect(toList());
+                Collections.shuffle(pages, new Random(5));
+                var builder = RuleIndex.builder();
+                for (int index = 1; index < pages.size(); index++) {
+                    builder.add(pages.get(index - 1) + "|" + pages.get(index));
+                }
+                var rules = builder.build();
+
+                for (int index = 1; index < pages.size(); index++) {
+                    var first = rules.idOf(pages.get(index - 1));
+                    var second = rules.idOf(pages.get(index));
+                    assertThat(rules.isFollowedBy(first, second)).isTrue();
+                    assertThat(rules.isFollowedBy(second, first)).isFalse();
+                }
+                assertThat(rules.idOf(42)).isEqualTo(RuleIndex.NO_PAGE);
+                assertThat(rules.idOf(100_000)).isEqualTo(RuleIndex.NO_PAGE);
+            }
+
+            @ParameterizedTest
+            @ValueSource(strings = {"47", "47|", "|53", "4x|53"})
+            void shouldRejectMalformedRules(String line) {
+                assertThatThrownBy(() -> RuleIndex.builder().add(line)).isInstanceOf(IllegalArgumentException.class);
+            }
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {1, 2, 3})
+        void shouldSolveLikeRecords(int seed) {
+            var inputLines = printQueue(new Random(seed));
+            var records = new Day05(Day05.Mode.RECORDS);
+            var bitset = new Day05(Day05.Mode.BITSET);
+
+            assertThat(bitset.part1(inputLines, EMPTY)).isEqualTo(records.part1(inputLines, EMPTY));
+            assertThat(bitset.part2(inputLines, EMPTY)).isEqualTo(records.part2(inputLines, EMPTY));
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {1, 7, 100, 1_000_000})
+        void shouldSumInParallelLikeSequentially(int batchSize) {
+            var inputLines = printQueue(new Random(4));
+            var sequential = new Day05(Day05.Mode.BITSET);
+
+            assertThat(IndexedPrintQueue.parallelSumOfMiddlePageNumbers(inputLines, false, batchSize))
+                    .isEqualTo(sequential.part1(inputLines, EMPTY));
+            assertThat(IndexedPrintQueue.parallelSumOfMiddlePageNumbers(inputLines, true, batchSize))
+                    .isEqualTo(sequential.part2(inputLines, EMPTY));
+        }
+
+        private static RuleIndex ruleIndexOf(List<String> inputLines) {
+            var builder = RuleIndex.builder();
+            inputLines.stream().takeWhile(not(String::isEmpty)).forEach(builder::add);
+            return builder.build();
+        }
+
+        /**
+         * Rules for all pairs of 60 pages in a random order and 1000 random updates, about half of them ordered.
+         */
+        private static List<String> printQueue(Random random) {
+            var orderedPages = IntStream.range(0, 60).map(_ -> random.nextInt(1000)).distinct().boxed().toList();
+            var inputLines = new ArrayList<String>();
+            for (int before = 0; before < orderedPages.size(); before++) {
+                for (int after = before + 1; after < orderedPages.size(); after++) {
+                    inputLines.add(orderedPages.get(before) + "|" + orderedPages.get(after));
+                }
+            }
+            Collections.shuffle(inputLines, random);
+            inputLines.add("");
+            for (int i = 0; i < 1000; i++) {
+                var update = new ArrayList<>(orderedPages);
+                Collections.shuffle(update, random);
+                update = new ArrayList<>(update.subList(0, 3 + 2 * random.nextInt(14)));
+                if (random.nextBoolean()) {
+                    update.sort(Comparator.comparingInt(orderedPages::indexOf));
+                }
+                inputLines.add(update.stream().map(String::valueOf).collect(joining(",")));
+            }
+            return inputLines;
+        }
     }
 
     @Nested
@@ -82,6 +217,16 @@ class Day05Test {
             assertThat(day.part1(readSampleInputFor(day), EMPTY)).isEqualTo(143L);
         }
 
+        @Test
+        void sampleShouldBeSolvedByRecords() {
+            assertThat(new Day05(Day05.Mode.RECORDS).part1(readSampleInputFor(day), EMPTY)).isEqualTo(143L);
+        }
+
+        @Test
+        void sampleShouldBeSolvedInParallel() {
+            assertThat(new Day05(Day05.Mode.PARALLEL).part1(readSampleInputFor(day), EMPTY)).isEqualTo(143L);
+        }
+
         @ChallengeTest
         void challengeShouldBeSolved() {
             assertThat(day.part1(readChallengeInputFor(day), EMPTY)).isEqualTo(5_064L);
@@ -96,6 +241,16 @@ class Day05Test {
             assertThat(day.part2(readSampleInputFor(day), EMPTY)).isEqualTo(123L);
         }
 
+        @Test
+        void sampleShouldBeSolvedByRecords() {
+            assertThat(new Day05(Day05.Mode.RECORDS).part2(readSampleInputFor(day), EMPTY)).isEqualTo(123L);
+        }
+
+        @Test
+        void sampleShouldBeSolvedInParallel() {
+            assertThat(new Day05(Day05.Mode.PARALLEL).part2(readSampleInputFor(day), EMPTY)).isEqualTo(123L);
+        }
+
         @ChallengeTest
         void challengeShouldBeSolved() {
             assertThat(day.part2(readChallengeInputFor(day), EMPTY)).isEqualTo(5_152L);
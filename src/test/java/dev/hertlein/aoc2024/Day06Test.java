@@ -4,11 +4,19 @@ package dev.hertlein.aoc2024;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import static dev.hertlein.aoc2024.Day.EMPTY;
 import static dev.hertlein.aoc2024.Day06.Coordinate;
+import static dev.hertlein.aoc2024.Day06.JumpTable;
 import static dev.hertlein.aoc2024.Day06.Lab;
 import static dev.hertlein.aoc2024.Day06.PatrolPath.STUCK;
 import static dev.hertlein.aoc2024.lib.InputReader.readChallengeInputFor;
@@ -65,6 +73,103 @@ class Day06Test {
 
                     assertThat(newLabWithObstructionAt).isEqualTo(new Lab(labWithObstruction));
                 }
+
+                @Test
+                void shouldNotChangeInitialLab() {
+                    Lab initialLab = new Lab(readSampleInputFor(day));
+
+                    var newLabWithObstructionAt = initialLab.newLabWithObstructionAt(new Coordinate(3, 6));
+
+                    assertThat(newLabWithObstructionAt.patrolPath()).isEqualTo(STUCK);
+                    assertThat(initialLab.patrolPath().length()).isEqualTo(41);
+                    assertThat(initialLab).isEqualTo(new Lab(readSampleInputFor(day)));
+                }
+            }
+        }
+
+        @Nested
+        @DisplayName("JumpTable")
+        class JumpTableTests {
+
+            @Test
+            void shouldPatrolPositionsInOrderOfFirstVisit() {
+                var jumpTable = JumpTable.of(new Lab(readSampleInputFor(day)));
+
+                var patrolledPositions = jumpTable.patrolledPositions();
+
+                assertThat(patrolledPositions.size()).isEqualTo(41);
+                assertThat(jumpTable.coordinateOf(patrolledPositions.position(0))).isEqualTo(new Coordinate(4, 6));
+                assertThat(jumpTable.coordinateOf(patrolledPositions.position(1))).isEqualTo(new Coordinate(4, 5));
+                assertThat(jumpTable.coordinateOf(patrolledPositions.position(40))).isEqualTo(new Coordinate(7, 9));
+            }
+
+            @Test
+            void shouldPatrolNoPositionsIfStuck() {
+                assertThat(JumpTable.of(new Lab(labWithObstruction)).patrolledPositions().size()).isZero();
+            }
+
+            @ParameterizedTest
+            @CsvSource({
+                    "3,6,true",
+                    "6,7,true",
+                    "7,7,true",
+                    "1,8,true",
+                    "3,8,true",
+                    "7,9,true",
+                    "2,6,false",
+                    "4,1,false"
+            })
+            void shouldGetStuckAtAdditionalObstruction(int x, int y, boolean isStuck) {
+                var jumpTable = JumpTable.of(new Lab(readSampleInputFor(day)));
+                var visits = jumpTable.newVisits();
+
+                assertThat(jumpTable.isStuck(jumpTable.positionOf(new Coordinate(x, y)), jumpTable.startState(), visits))
+                        .isEqualTo(isStuck);
+            }
+
+            @ParameterizedTest
+            @ValueSource(ints = {1, 2, 3, 4, 5, 6, 7, 8})
+            void shouldSolveLikeSteps(int seed) {
+                var inputLines = randomLab(new Random(seed));
+                var steps = new Day06(Day06.Mode.STEPS);
+                var jumpTable = new Day06(Day06.Mode.JUMP_TABLE);
+
+                assertThat(jumpTable.part1(inputLines, EMPTY)).isEqualTo(steps.part1(inputLines, EMPTY));
+                assertThat(jumpTable.part2(inputLines, EMPTY)).isEqualTo(steps.part2(inputLines, EMPTY));
+            }
+
+            @ParameterizedTest
+            @ValueSource(ints = {1, 2, 4})
+            void shouldCountInPoolsOfAnySize(int parallelism) {
+                var inputLines = randomLab(new Random(9));
+                var expected = new Day06(Day06.Mode.STEPS).part2(inputLines, EMPTY);
+
+                try (var pool = new ForkJoinPool(parallelism)) {
+                    var count = pool.invoke(ForkJoinTask.adapt(() ->
+                            JumpTable.of(new Lab(inputLines)).countObstructionsLettingGuardGetStuck()));
+
+                    assertThat(count).isEqualTo(expected);
+                }
+            }
+
+            /**
+             * A lab of 30 x 20 positions with obstructions on about 10% of them and the guard anywhere else. Like in the
+             * puzzle, the first step of the guard is never blocked - as the guard of a {@link Lab} with an additional
+             * obstruction at its start would turn forever.
+             */
+            private static List<String> randomLab(Random random) {
+                var lab = new char[20][30];
+                for (var row : lab) {
+                    for (int x = 0; x < row.length; x++) {
+                        row[x] = random.nextInt(10) == 0 ? '#' : '.';
+                    }
+                }
+                var x = random.nextInt(1, 29);
+                var y = random.nextInt(1, 19);
+                var direction = random.nextInt(4);
+                lab[y][x] = "^>v<".charAt(direction);
+                lab[y + new int[]{-1, 0, 1, 0}[direction]][x + new int[]{0, 1, 0, -1}[direction]] = '.';
+                return Arrays.stream(lab).map(String::new).toList();
             }
         }
     }
@@ -77,6 +182,11 @@ class Day06Test {
             assertThat(day.part1(readSampleInputFor(day), EMPTY)).isEqualTo(41L);
         }
 
+        @Test
+        void sampleShouldBeSolvedBySteps() {
+            assertThat(new Day06(Day06.Mode.STEPS).part1(readSampleInputFor(day), EMPTY)).isEqualTo(41L);
+        }
+
         @ChallengeTest
         void challengeShouldBeSolved() {
             assertThat(day.part1(readChallengeInputFor(day), EMPTY)).isEqualTo(4_696L);
@@ -91,6 +201,11 @@ class Day06Test {
             assertThat(day.part2(readSampleInputFor(day), EMPTY)).isEqualTo(6L);
         }
 
+        @Test
+        void sampleShouldBeSolvedBySteps() {
+            assertThat(new Day06(Day06.Mode.STEPS).part2(readSampleInputFor(day), EMPTY)).isEqualTo(6L);
+        }
+
         @ChallengeTest
         void challengeShouldBeSolved() {
             assertThat(day.part2(readChallengeInputFor(day), EMPTY)).isEqualTo(1_443L);
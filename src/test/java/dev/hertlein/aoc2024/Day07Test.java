@@ -3,18 +3,29 @@ package dev.hertlein.aoc2024;
 
 import dev.hertlein.aoc2024.Day07.Equation;
 import dev.hertlein.aoc2024.Day07.Equations;
+import dev.hertlein.aoc2024.Day07.Operator;
+import dev.hertlein.aoc2024.Day07.ParsedEquations;
+import dev.hertlein.aoc2024.Day07.ReverseSolver;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 import static dev.hertlein.aoc2024.Day.EMPTY;
 import static dev.hertlein.aoc2024.Day07.Operator.*;
 import static dev.hertlein.aoc2024.lib.InputReader.readChallengeInputFor;
 import static dev.hertlein.aoc2024.lib.InputReader.readSampleInputFor;
+import static java.util.stream.Collectors.joining;
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DisplayName("Day07")
@@ -63,6 +74,125 @@ class Day07Test {
                 }
             }
         }
+
+        @Nested
+        @DisplayName("ReverseSolver")
+        class ReverseSolverTests {
+
+            @ParameterizedTest
+            @CsvSource(delimiter = ';', value = {
+                    "190: 10 19;true;true",
+                    "3267: 81 40 27;true;true",
+                    "83: 17 5;false;false",
+                    "156: 15 6;false;true",
+                    "7290: 6 8 6 15;false;true",
+                    "161011: 16 10 13;false;false",
+                    "192: 17 8 14;false;true",
+                    "21037: 9 7 18 13;false;false",
+                    "292: 11 6 16 20;true;true",
+                    "0: 5 0;true;true",
+                    "5: 0 5;true;true",
+                    "7: 7;true;true"
+            })
+            void shouldSolveBackwards(String line, boolean isSolvableWithoutConcat, boolean isSolvableWithConcat) {
+                assertThat(new ReverseSolver(Set.of(ADD, MULTIPLY)).parse(line).isTestResultPossiblyCorrect())
+                        .isEqualTo(isSolvableWithoutConcat);
+                assertThat(new ReverseSolver(Set.of(ADD, MULTIPLY, CONCAT)).parse(line).isTestResultPossiblyCorrect())
+                        .isEqualTo(isSolvableWithConcat);
+            }
+
+            @Test
+            void shouldReuseSolverForLongerLines() {
+                var solver = new ReverseSolver(Set.of(ADD, MULTIPLY));
+                var ones = IntStream.range(0, 40).mapToObj(_ -> "1").collect(joining(" "));
+
+                assertThat(solver.parse("1: " + ones).isTestResultPossiblyCorrect()).isTrue();
+                assertThat(solver.size).isEqualTo(40);
+                assertThat(solver.parse("3267: 81 40 27").testResult()).isEqualTo(3267L);
+                assertThat(solver.size).isEqualTo(3);
+            }
+
+            @Test
+            void shouldSolveEquationsOfManyOperands() {
+                var random = new Random(7);
+                var solver = new ReverseSolver(Set.of(ADD, MULTIPLY, CONCAT));
+
+                for (int i = 0; i < 100; i++) {
+                    var operands = random.longs(30, 2, 10).toArray();
+                    var testResult = operands[0];
+                    for (int index = 1; index < operands.length; index++) {
+                        testResult = testResult < 100_000_000 && random.nextBoolean()
+                                ? testResult * operands[index]
+                                : testResult + operands[index];
+                    }
+                    var line = testResult + ": " + Arrays.stream(operands).mapToObj(String::valueOf).collect(joining(" "));
+
+                    assertThat(solver.parse(line).isTestResultPossiblyCorrect()).isTrue();
+                }
+            }
+
+            @ParameterizedTest
+            @ValueSource(ints = {1, 2, 3})
+            void shouldSolveLikeForwards(int seed) {
+                var inputLines = equations(new Random(seed));
+                var forward = new Day07(Day07.Mode.FORWARD);
+                var reverse = new Day07(Day07.Mode.REVERSE);
+
+                assertThat(reverse.part1(inputLines, EMPTY)).isEqualTo(forward.part1(inputLines, EMPTY));
+                assertThat(reverse.part2(inputLines, EMPTY)).isEqualTo(forward.part2(inputLines, EMPTY));
+            }
+
+            @ParameterizedTest
+            @ValueSource(ints = {1, 2, 7, 64, 1_000})
+            void shouldSolveInParallelLikeSequentially(int minEquationsPerChunk) {
+                var inputLines = equations(new Random(4));
+                var equations = ParsedEquations.of(inputLines);
+                var reverse = new Day07(Day07.Mode.REVERSE);
+
+                assertThat(equations.parallelCalibrationResultWith(Set.of(ADD, MULTIPLY), minEquationsPerChunk))
+                        .isEqualTo(reverse.part1(inputLines, EMPTY));
+                assertThat(equations.parallelCalibrationResultWith(Set.of(ADD, MULTIPLY, CONCAT), minEquationsPerChunk))
+                        .isEqualTo(reverse.part2(inputLines, EMPTY));
+            }
+
+            @Test
+            void shouldParseEquationsIntoFlatArrays() {
+                var equations = ParsedEquations.of(List.of("190: 10 19", "7: 7", "3267: 81 40 27"));
+
+                assertThat(equations.testResults()).containsExactly(190, 7, 3267);
+                assertThat(equations.starts()).containsExactly(0, 2, 3, 6);
+                assertThat(Arrays.copyOf(equations.operands(), 6)).containsExactly(10, 19, 7, 81, 40, 27);
+            }
+
+            @Test
+            void shouldForkLongEquationsOverFirstOperatorChoice() {
+                var numberOfOperands = ParsedEquations.MIN_OPERANDS_TO_FORK + 4;
+                var operands = IntStream.range(0, numberOfOperands).mapToObj(i -> String.valueOf(2 + i % 7)).collect(joining(" "));
+                // with operands of at least 2, adding all of them is the smallest result
+                var sum = LongStream.range(0, numberOfOperands).map(i -> 2 + i % 7).sum();
+                var equations = ParsedEquations.of(List.of(sum + ": " + operands, (sum - 1) + ": " + operands));
+
+                assertThat(equations.parallelCalibrationResultWith(Set.of(ADD, MULTIPLY), 1)).isEqualTo(sum);
+            }
+
+            /**
+             * 500 equations of 1 to 8 operands below 100 - including zeros - and test results near the result of random
+             * operators.
+             */
+            private static List<String> equations(Random random) {
+                var equations = new ArrayList<String>();
+                for (int i = 0; i < 500; i++) {
+                    var operands = random.longs(random.nextInt(1, 9), 0, 100).toArray();
+                    var testResult = operands[0];
+                    for (int index = 1; index < operands.length; index++) {
+                        testResult = Operator.values()[random.nextInt(3)].apply(testResult, operands[index]);
+                    }
+                    testResult += random.nextInt(3) == 0 ? random.nextInt(1, 3) : 0;
+                    equations.add(testResult + ": " + Arrays.stream(operands).mapToObj(String::valueOf).collect(joining(" ")));
+                }
+                return equations;
+            }
+        }
     }
 
     @Nested
@@ -73,6 +203,16 @@ class Day07Test {
             assertThat(day.part1(readSampleInputFor(day), EMPTY)).isEqualTo(3_749L);
         }
 
+        @Test
+        void sampleShouldBeSolvedForwards() {
+            assertThat(new Day07(Day07.Mode.FORWARD).part1(readSampleInputFor(day), EMPTY)).isEqualTo(3_749L);
+        }
+
+        @Test
+        void sampleShouldBeSolvedInParallel() {
+            assertThat(new Day07(Day07.Mode.PARALLEL).part1(readSampleInputFor(day), EMPTY)).isEqualTo(3_749L);
+        }
+
         @ChallengeTest
         void challengeShouldBeSolved() {
             assertThat(day.part1(readChallengeInputFor(day), EMPTY)).isEqualTo(1_582_598_718_861L);
@@ -87,6 +227,16 @@ class Day07Test {
             assertThat(day.part2(readSampleInputFor(day), EMPTY)).isEqualTo(11_387L);
         }
 
+        @Test
+        void sampleShouldBeSolvedForwards() {
+            assertThat(new Day07(Day07.Mode.FORWARD).part2(readSampleInputFor(day), EMPTY)).isEqualTo(11_387L);
+        }
+
+        @Test
+        void sampleShouldBeSolvedInParallel() {
+            assertThat(new Day07(Day07.Mode.PARALLEL).part2(readSampleInputFor(day), EMPTY)).isEqualTo(11_387L);
+        }
+
         @ChallengeTest
         void challengeShouldBeSolved() {
             assertThat(day.part2(readChallengeInputFor(day), EMPTY)).isEqualTo(165_278_151_522_644L);
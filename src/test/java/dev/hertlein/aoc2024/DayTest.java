@@ -0,0 +1,38 @@
+package dev.hertlein.aoc2024;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static dev.hertlein.aoc2024.Day.EMPTY;
+import static dev.hertlein.aoc2024.lib.InputReader.readSampleInputFor;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Day")
+class DayTest {
+
+    @Test
+    void shouldSolveAllInputsInTheirOrder() {
+        var day = new Day03();
+        var inputs = List.of(
+                readSampleInputFor(day),
+                List.of("mul(2,3)"),
+                List.of("xmul(4,5)don't()mul(6,7)"),
+                List.of("nothing"));
+
+        assertThat(day.part1OfAll(inputs, EMPTY)).containsExactly(161L, 6L, 62L, 0L);
+        assertThat(day.part2OfAll(inputs, EMPTY)).containsExactly(
+                day.part2(inputs.get(0), EMPTY), 6L, 20L, 0L);
+    }
+
+    @Test
+    void shouldSolveAllInputsSharingTheKeypadsOfTheStarship() {
+        var day = new Day21();
+        var inputs = List.of(List.of("029A"), List.of("980A", "179A"), readSampleInputFor(day));
+
+        assertThat(day.part1OfAll(inputs, EMPTY)).containsExactly(68L * 29, 60L * 980 + 68L * 179, 126384L);
+        assertThat(day.part2OfAll(inputs, EMPTY))
+                .containsExactlyElementsOf(inputs.stream().map(input -> day.part2(input, EMPTY)).toList());
+    }
+}
@@ -0,0 +1,77 @@
+package dev.hertlein.aoc2024;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Runner")
+class RunnerTest {
+
+    @Nested
+    class Units {
+
+        @Test
+        void shouldDiscoverAllDays() {
+            assertThat(Runner.discoverDays())
+                    .hasSize(25)
+                    .first()
+                    .isInstanceOf(Day01.class);
+        }
+
+        @Test
+        void shouldParseExecution() {
+            assertThat(Runner.Execution.of("sequential")).isEqualTo(new Runner.Execution("sequential", 1));
+            assertThat(Runner.Execution.of("virtual")).isEqualTo(new Runner.Execution("virtual", 0));
+            assertThat(Runner.Execution.of("fixed:3")).isEqualTo(new Runner.Execution("fixed", 3));
+            assertThatThrownBy(() -> Runner.Execution.of("unknown")).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        void shouldParseInputs() {
+            assertThat(Runner.Inputs.of("challenge")).isEqualTo(Runner.Inputs.CHALLENGE);
+            assertThat(Runner.Inputs.of("sample")).isEqualTo(Runner.Inputs.SAMPLE);
+            assertThatThrownBy(() -> Runner.Inputs.of("unknown")).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        void shouldReportNotAvailableMeasurements() {
+            var measurement = new Runner.Measurement("Day01", 1, "42", 2_000_000, -1, -1);
+
+            assertThat(measurement.toString()).contains("42", "2.0", "n/a");
+        }
+
+        @Test
+        void shouldReportFailures() {
+            var report = new Runner.Report(
+                    Runner.Execution.of("sequential"),
+                    List.of(Runner.Measurement.failed("Day01", 2, new IllegalStateException("boom"))),
+                    Duration.ZERO);
+
+            assertThat(report.hasFailures()).isTrue();
+            assertThat(report.toString()).contains("failed", "boom");
+        }
+    }
+
+    @Nested
+    class Run {
+
+        @Test
+        void shouldRunAllDaysOnSampleInputs() {
+            var report = new Runner(Runner.Inputs.SAMPLE).run(Runner.Execution.of("sequential"));
+
+            assertThat(report.hasFailures()).isFalse();
+            assertThat(report.measurements())
+                    .hasSize(44)
+                    .allMatch(measurement -> measurement.cpuTime() > 0 && measurement.allocatedBytes() > 0);
+            assertThat(report.measurements().getFirst())
+                    .extracting(Runner.Measurement::day, Runner.Measurement::part, Runner.Measurement::result)
+                    .containsExactly("Day01", 1, "11");
+        }
+    }
+}
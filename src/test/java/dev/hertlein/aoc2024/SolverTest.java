@@ -0,0 +1,25 @@
+package dev.hertlein.aoc2024;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Solver")
+class SolverTest {
+
+    @Test
+    void shouldSolveSinglePartOnSampleInput() {
+        var day = Runner.dayOf(14).orElseThrow();
+
+        assertThat(Solver.solve(day, 1, Runner.Inputs.SAMPLE)).isEqualTo(12L);
+    }
+
+    @Test
+    void shouldRejectUnknownDaysAndParts() {
+        assertThat(Runner.dayOf(26)).isEmpty();
+        assertThatThrownBy(() -> Solver.solve(Runner.dayOf(1).orElseThrow(), 3, Runner.Inputs.SAMPLE))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,63 @@
+package dev.hertlein.aoc2024;
+
+import dev.hertlein.aoc2024.StreamingDay.LineConsumer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static dev.hertlein.aoc2024.Day.EMPTY;
+import static dev.hertlein.aoc2024.lib.InputReader.mapSampleInputFor;
+import static dev.hertlein.aoc2024.lib.InputReader.readSampleInputFor;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("StreamingDay")
+class StreamingDayTest {
+
+    @Nested
+    class Units {
+
+        @Nested
+        @DisplayName("LineConsumer")
+        class LineConsumerTests {
+
+            @Test
+            void shouldSumUpValuesOfLines() {
+                var consumer = LineConsumer.summing(CharSequence::length);
+
+                assertThat(consumer.consumeAll(Stream.of("a", "bc", "def"))).isEqualTo(6L);
+            }
+
+            @Test
+            void shouldCollectBlocksOfNonEmptyLines() {
+                var blocks = new ArrayList<List<String>>();
+                var consumer = LineConsumer.blocksOf(2, blocks::add);
+
+                Stream.of("a", "b", "", "c", "d", "", "", "e").forEach(consumer);
+
+                assertThat(blocks).containsExactly(List.of("a", "b"), List.of("c", "d"));
+            }
+        }
+    }
+
+    @Nested
+    class Solve {
+
+        private final List<StreamingDay<Void>> days = List.of(
+                new Day01(), new Day02(), new Day07(), new Day13(), new Day22(), new Day25());
+
+        @Test
+        void sampleStreamsShouldBeSolvedLikeSampleLists() {
+            for (var day : days) {
+                var inputLines = readSampleInputFor(day);
+                var lineViews = mapSampleInputFor(day).lineViews();
+
+                assertThat(day.part1(lineViews.stream(), EMPTY)).isEqualTo(day.part1(inputLines, EMPTY));
+                assertThat(day.part2(lineViews.stream(), EMPTY)).isEqualTo(day.part2(inputLines, EMPTY));
+            }
+        }
+    }
+}
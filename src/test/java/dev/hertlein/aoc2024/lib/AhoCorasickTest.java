@@ -0,0 +1,64 @@
+package dev.hertlein.aoc2024.lib;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("AhoCorasick")
+class AhoCorasickTest {
+
+    private static List<String> matchesIn(AhoCorasick automaton, List<String> words, String text) {
+        var matches = new ArrayList<String>();
+        var state = AhoCorasick.START;
+        for (var c : text.toCharArray()) {
+            state = automaton.next(state, c);
+            for (int i = 0; i < automaton.numberOfMatches(state); i++) {
+                matches.add(words.get(automaton.match(state, i)));
+            }
+        }
+        return matches;
+    }
+
+    @Test
+    void shouldFindOverlappingWords() {
+        var words = List.of("he", "she", "his", "hers");
+        var automaton = AhoCorasick.of(words);
+
+        assertThat(matchesIn(automaton, words, "ushers")).containsExactlyInAnyOrder("she", "he", "hers");
+    }
+
+    @Test
+    void shouldFindWordsWithinWords() {
+        var words = List.of("abcd", "bc", "c");
+        var automaton = AhoCorasick.of(words);
+
+        assertThat(matchesIn(automaton, words, "xabcdx")).containsExactlyInAnyOrder("bc", "c", "abcd");
+    }
+
+    @Test
+    void shouldMatchEveryEntryOfRepeatedWords() {
+        var words = List.of("aa", "aa");
+        var automaton = AhoCorasick.of(words);
+
+        assertThat(matchesIn(automaton, words, "aaa")).hasSize(4);
+    }
+
+    @Test
+    void shouldIgnoreUnknownCharacters() {
+        var words = List.of("ab");
+        var automaton = AhoCorasick.of(words);
+
+        assertThat(matchesIn(automaton, words, "a€b a\u0000b ab")).containsExactly("ab");
+    }
+
+    @Test
+    void shouldRejectEmptyWords() {
+        assertThatThrownBy(() -> AhoCorasick.of(List.of("a", "")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
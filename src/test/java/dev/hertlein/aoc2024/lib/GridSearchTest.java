@@ -0,0 +1,95 @@
+package dev.hertlein.aoc2024.lib;
+
+import dev.hertlein.aoc2024.lib.GridSearch.Stencil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("GridSearch")
+class GridSearchTest {
+
+    private static GridSearch.Sweep sweep(GridSearch gridSearch, String... rows) {
+        var sweep = gridSearch.sweep();
+        List.of(rows).forEach(sweep::add);
+        return sweep;
+    }
+
+    @Nested
+    class Words {
+
+        @Test
+        void shouldFindWordsInAllEightDirections() {
+            var gridSearch = GridSearch.of(List.of("ABC"), List.of());
+
+            var sweep = sweep(gridSearch,
+                    "C.C.C",
+                    ".BBB.",
+                    "CBABC",
+                    ".BBB.",
+                    "C.C.C");
+
+            assertThat(sweep.wordCounts()).containsExactly(8);
+        }
+
+        @Test
+        void shouldCountManyWordsSeparately() {
+            var gridSearch = GridSearch.of(List.of("AB", "BC", "ABC", "X"), List.of());
+
+            var sweep = sweep(gridSearch,
+                    "ABC",
+                    "...");
+
+            // 'X' doesn't occur, a single letter would be counted in all eight directions
+            assertThat(sweep.wordCounts()).containsExactly(1, 1, 1, 0);
+            assertThat(sweep.totalCount()).isEqualTo(3);
+        }
+
+        @Test
+        void shouldCountPalindromesInBothDirections() {
+            var gridSearch = GridSearch.of(List.of("ABA"), List.of());
+
+            assertThat(sweep(gridSearch, "ABA").wordCounts()).containsExactly(2);
+        }
+
+        @Test
+        void shouldNotWrapAroundRows() {
+            var gridSearch = GridSearch.of(List.of("AB"), List.of());
+
+            assertThat(sweep(gridSearch, "..A", "B..").wordCounts()).containsExactly(0);
+        }
+    }
+
+    @Nested
+    class Stencils {
+
+        @Test
+        void shouldFindStencilsWithWildcards() {
+            var gridSearch = GridSearch.of(List.of(), List.of(Stencil.of("M.S", ".A.", "M.S"), Stencil.of("A")));
+
+            var sweep = sweep(gridSearch,
+                    "M.S.S",
+                    ".A.A.",
+                    "M.S.S");
+
+            assertThat(sweep.stencilCounts()).containsExactly(1, 2);
+        }
+
+        @Test
+        void shouldNotMatchOutsideOfTheGrid() {
+            var gridSearch = GridSearch.of(List.of(), List.of(Stencil.of("..", ".A")));
+
+            assertThat(sweep(gridSearch, "A.", ".A").stencilCounts()).containsExactly(1);
+        }
+
+        @Test
+        void shouldRejectStencilsEndingWithWildcards() {
+            assertThatThrownBy(() -> Stencil.of("A", "."))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package dev.hertlein.aoc2024.lib;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Grid")
+class GridTest {
+
+    private final Grid grid = Grid.of(List.of(
+            "abc",
+            "def"));
+
+    @Nested
+    class Of {
+
+        @Test
+        void shouldStoreCellsRowByRow() {
+            assertThat(grid.toString()).isEqualTo("abc\ndef\n");
+        }
+
+        @Test
+        void shouldBeSurroundedByBorder() {
+            assertThat(grid.get(-1, -1)).isEqualTo(Grid.OUTSIDE);
+            assertThat(grid.get(3, 1)).isEqualTo(Grid.OUTSIDE);
+            assertThat(grid.get(0, 2)).isEqualTo(Grid.OUTSIDE);
+        }
+
+        @Test
+        void shouldRejectGridsWithTooManyCells() {
+            assertThatThrownBy(() -> Grid.filled(65_536, 65_536, '.'))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("65536 x 65536");
+        }
+    }
+
+    @Nested
+    class Offsets {
+
+        @Test
+        void shouldMoveToOrthogonalNeighboursClockwise() {
+            var center = grid.index(1, 0);
+
+            assertThat(Arrays.stream(grid.orthogonalOffsets()).mapToObj(offset -> (char) grid.get(center + offset)))
+                    .containsExactly((char) Grid.OUTSIDE, 'c', 'e', 'a');
+        }
+
+        @Test
+        void shouldMoveToDiagonalNeighbours() {
+            var center = grid.index(1, 0);
+
+            assertThat(grid.get(center + grid.allOffsets()[3])).isEqualTo((byte) 'f');
+            assertThat(grid.get(center + grid.allOffsets()[5])).isEqualTo((byte) 'd');
+        }
+    }
+
+    @Nested
+    class IndexOf {
+
+        @Test
+        void shouldConvertBetweenIndexAndCoordinate() {
+            var index = grid.indexOf('e');
+
+            assertThat(grid.x(index)).isEqualTo(1);
+            assertThat(grid.y(index)).isEqualTo(1);
+            assertThat(grid.indexOf('z')).isEqualTo(-1);
+        }
+    }
+}
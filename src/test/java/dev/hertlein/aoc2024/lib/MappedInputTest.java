@@ -0,0 +1,82 @@
+package dev.hertlein.aoc2024.lib;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("MappedInput")
+class MappedInputTest {
+
+    @TempDir
+    private Path directory;
+
+    private MappedInput mappedInputOf(String content) throws IOException {
+        var file = directory.resolve("input.txt");
+        Files.writeString(file, content);
+        return MappedInput.of(file);
+    }
+
+    @Nested
+    class Of {
+
+        @Test
+        void shouldSplitLinesLikeInputReader() throws IOException {
+            var content = "\n  12   34\r\n56 78\n\n90\r1 2\n\n";
+
+            assertThat(mappedInputOf(content)).containsExactlyElementsOf(content.trim().lines().toList());
+        }
+
+        @Test
+        void shouldBeEmptyForBlankInput() throws IOException {
+            assertThat(mappedInputOf(" \n\n ")).isEmpty();
+        }
+
+        @Test
+        void shouldSplitBytesLikeMappedFile() throws IOException {
+            var content = "12   34\r\n56 78\n";
+
+            assertThat(MappedInput.of(content.getBytes())).containsExactlyElementsOf(mappedInputOf(content));
+        }
+    }
+
+    @Nested
+    class LineViews {
+
+        @Test
+        void shouldBeViewsOntoAllLines() throws IOException {
+            var lineViews = mappedInputOf("abc\ndefgh\n").lineViews();
+
+            assertThat(lineViews).hasSize(2).allMatch(MappedInput.Line.class::isInstance);
+            assertThat(lineViews.get(1).toString()).isEqualTo("defgh");
+        }
+
+        @Test
+        void shouldBeUsedForMappedInputOnly() throws IOException {
+            var lines = List.of("abc");
+
+            assertThat(MappedInput.viewsOf(mappedInputOf("abc"))).first().isInstanceOf(MappedInput.Line.class);
+            assertThat(MappedInput.viewsOf(lines)).isSameAs(lines);
+        }
+    }
+
+    @Nested
+    class Line {
+
+        @Test
+        void shouldBeViewOntoMappedInput() throws IOException {
+            var line = mappedInputOf("abc\ndefgh").line(1);
+
+            assertThat(line.length()).isEqualTo(5);
+            assertThat(line.charAt(1)).isEqualTo('e');
+            assertThat(line.subSequence(1, 4).toString()).isEqualTo("efg");
+        }
+    }
+}
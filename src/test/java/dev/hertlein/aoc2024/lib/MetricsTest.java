@@ -0,0 +1,76 @@
+package dev.hertlein.aoc2024.lib;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@DisplayName("Metrics")
+class MetricsTest {
+
+    @BeforeAll
+    static void metricsAreEnabled() {
+        // enabled by the test task of the build
+        assumeTrue(Metrics.isEnabled());
+    }
+
+    @Test
+    void shouldCount() {
+        var counter = Metrics.counter("MetricsTest.counter");
+
+        IntStream.range(0, 1000).parallel().forEach(_ -> counter.increment());
+        counter.add(5);
+
+        assertThat(Metrics.snapshot()).containsEntry("MetricsTest.counter", 1005L);
+    }
+
+    @Test
+    void shouldRecordHistogram() {
+        var histogram = Metrics.histogram("MetricsTest.histogram");
+
+        IntStream.rangeClosed(1, 100).forEach(histogram::record);
+
+        assertThat(Metrics.snapshot())
+                .containsEntry("MetricsTest.histogram.count", 100L)
+                .containsEntry("MetricsTest.histogram.mean", 50L)
+                .containsEntry("MetricsTest.histogram.p50", 63L)
+                .containsEntry("MetricsTest.histogram.p99", 100L)
+                .containsEntry("MetricsTest.histogram.max", 100L);
+    }
+
+    @Test
+    void shouldDeriveCacheHitsFromLookupsAndMisses() {
+        var cacheCounter = Metrics.cacheCounter("MetricsTest.cache");
+
+        IntStream.range(0, 10).forEach(_ -> cacheCounter.lookup());
+        IntStream.range(0, 3).forEach(_ -> cacheCounter.miss());
+
+        assertThat(Metrics.snapshot())
+                .containsEntry("MetricsTest.cache.hits", 7L)
+                .containsEntry("MetricsTest.cache.misses", 3L);
+    }
+
+    @Test
+    void shouldProvideMetricsThroughJmx() throws Exception {
+        Metrics.gauge("MetricsTest.gauge", () -> 42);
+
+        var value = ManagementFactory.getPlatformMBeanServer()
+                .getAttribute(new ObjectName("dev.hertlein.aoc2024:type=Metrics"), "MetricsTest.gauge");
+
+        assertThat(value).isEqualTo(42L);
+    }
+
+    @Test
+    void shouldNotRegisterMetricTwice() {
+        Metrics.counter("MetricsTest.twice");
+
+        assertThatThrownBy(() -> Metrics.counter("MetricsTest.twice")).isInstanceOf(IllegalStateException.class);
+    }
+}
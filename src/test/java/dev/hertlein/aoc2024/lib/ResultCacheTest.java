@@ -0,0 +1,96 @@
+package dev.hertlein.aoc2024.lib;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ResultCache")
+class ResultCacheTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void shouldGetStoredResults() {
+        var cache = new ResultCache(directory, 1024);
+
+        cache.put("a", 42L);
+        cache.put("b", "1,2,3");
+
+        assertThat(cache.get("a")).contains(42L);
+        assertThat(cache.get("b")).contains("1,2,3");
+        assertThat(cache.get("c")).isEmpty();
+    }
+
+    @Test
+    void shouldShareResultsBetweenInstances() {
+        new ResultCache(directory, 1024).put("a", 42L);
+
+        assertThat(new ResultCache(directory, 1024).get("a")).contains(42L);
+    }
+
+    @Test
+    void shouldNotCacheResultsOfOtherTypes() {
+        var cache = new ResultCache(directory, 1024);
+
+        cache.put("a", new Object());
+
+        assertThat(cache.get("a")).isEmpty();
+    }
+
+    @Test
+    void shouldKeepTypesAndLinesOfResults() {
+        var cache = new ResultCache(directory, 1024);
+
+        cache.put("a", 42);
+        cache.put("b", "#..\n.#.\n");
+
+        assertThat(cache.get("a")).contains(42);
+        assertThat(cache.get("b")).contains("#..\n.#.\n");
+    }
+
+    @Test
+    void shouldIgnoreFilesOfOtherTypes() throws IOException {
+        var cache = new ResultCache(directory, 1024);
+
+        Files.writeString(directory.resolve("a.result"), "java.util.HashMap\n{}");
+        Files.write(directory.resolve("b.result"), new byte[]{(byte) 0xAC, (byte) 0xED, 0, 5});
+        Files.writeString(directory.resolve("c.result"), "Long\nnot a number");
+
+        assertThat(cache.get("a")).isEmpty();
+        assertThat(cache.get("b")).isEmpty();
+        assertThat(cache.get("c")).isEmpty();
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedResults() throws IOException {
+        var bytesPerResult = bytesPerResult();
+        var cache = new ResultCache(directory, 2 * bytesPerResult);
+
+        cache.put("a", 1L);
+        cache.put("b", 2L);
+        makeLeastRecentlyUsed("b");
+        cache.put("c", 3L);
+
+        assertThat(cache.get("a")).contains(1L);
+        assertThat(cache.get("b")).isEmpty();
+        assertThat(cache.get("c")).contains(3L);
+    }
+
+    private long bytesPerResult() throws IOException {
+        var otherDirectory = directory.resolve("other");
+        new ResultCache(otherDirectory, 1024).put("x", 0L);
+        return Files.size(otherDirectory.resolve("x.result"));
+    }
+
+    private void makeLeastRecentlyUsed(String key) throws IOException {
+        Files.setLastModifiedTime(directory.resolve(key + ".result"), FileTime.fromMillis(0));
+    }
+}